@@ -1,10 +1,21 @@
 package wtf.choco.veinminer;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.bstats.bukkit.Metrics;
@@ -13,6 +24,8 @@ import org.bstats.charts.DrilldownPie;
 import org.bstats.charts.SingleLineChart;
 import org.bukkit.Bukkit;
 import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
@@ -30,10 +43,16 @@ import wtf.choco.veinminer.anticheat.AntiCheatHookSpartan;
 import wtf.choco.veinminer.economy.SimpleVaultEconomy;
 import wtf.choco.veinminer.integration.PlaceholderExpansionVeinMiner;
 import wtf.choco.veinminer.integration.WorldGuardIntegration;
+import wtf.choco.veinminer.job.BukkitVeinMiningJob;
+import wtf.choco.veinminer.job.VeinDropAccumulator;
+import wtf.choco.veinminer.listener.BlockChangeListener;
 import wtf.choco.veinminer.listener.BreakBlockListener;
 import wtf.choco.veinminer.listener.ItemCollectionListener;
 import wtf.choco.veinminer.listener.McMMOIntegrationListener;
 import wtf.choco.veinminer.listener.PlayerDataListener;
+import wtf.choco.veinminer.listener.ToolDamageListener;
+import wtf.choco.veinminer.listener.WorldGuardIntegrationListener;
+import wtf.choco.veinminer.manager.VeinClaimManager;
 import wtf.choco.veinminer.manager.VeinMinerManager;
 import wtf.choco.veinminer.manager.VeinMinerPlayerManager;
 import wtf.choco.veinminer.metrics.AntiCheat;
@@ -42,6 +61,7 @@ import wtf.choco.veinminer.network.BukkitChannelHandler;
 import wtf.choco.veinminer.pattern.PatternRegistry;
 import wtf.choco.veinminer.pattern.VeinMiningPattern;
 import wtf.choco.veinminer.platform.BukkitServerPlatform;
+import wtf.choco.veinminer.platform.world.ChunkSnapshotCache;
 import wtf.choco.veinminer.tool.ToolCategoryRegistry;
 import wtf.choco.veinminer.util.ConfigWrapper;
 import wtf.choco.veinminer.util.VMConstants;
@@ -54,8 +74,13 @@ public final class VeinMinerPlugin extends JavaPlugin {
     private static VeinMinerPlugin instance;
 
     private final List<AntiCheatHook> anticheatHooks = new ArrayList<>();
+    private final ChunkSnapshotCache chunkSnapshotCache = new ChunkSnapshotCache(64, 5, TimeUnit.SECONDS);
+    private final Map<UUID, VeinDropAccumulator> dropAccumulators = new HashMap<>();
+    private final Map<UUID, BukkitVeinMiningJob> veinMiningJobs = new HashMap<>();
 
+    private FileConfiguration config;
     private ConfigWrapper categoriesConfig;
+    private ExecutorService allocationExecutor;
 
     @Override
     public void onLoad() {
@@ -73,6 +98,11 @@ public final class VeinMinerPlugin extends JavaPlugin {
     @Override
     public void onEnable() {
         this.categoriesConfig = new ConfigWrapper(this, "categories.yml");
+        this.allocationExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactoryBuilder()
+                .setNameFormat("VeinMiner Allocation Worker #%d")
+                .setDaemon(true)
+                .build()
+        );
 
         // Call onEnable() on the server platform
         VeinMinerServer.getInstance().onEnable();
@@ -91,9 +121,17 @@ public final class VeinMinerPlugin extends JavaPlugin {
 
         // Register events
         this.getLogger().info("Registering events");
+        BlockChangeListener blockChangeListener = new BlockChangeListener(this);
+        manager.registerEvents(blockChangeListener, this);
+        Bukkit.getScheduler().runTaskTimer(this, blockChangeListener::flush, 1, 1);
         manager.registerEvents(new BreakBlockListener(this), this);
         manager.registerEvents(new ItemCollectionListener(this), this);
         manager.registerEvents(new PlayerDataListener(this), this);
+        manager.registerEvents(new ToolDamageListener(this), this);
+
+        if (manager.isPluginEnabled("WorldGuard")) {
+            manager.registerEvents(new WorldGuardIntegrationListener(), this);
+        }
 
         Plugin mcMMOPlugin = manager.getPlugin("mcMMO");
         if (mcMMOPlugin != null && manager.isPluginEnabled("mcMMO")) {
@@ -144,6 +182,11 @@ public final class VeinMinerPlugin extends JavaPlugin {
     public void onDisable() {
         VeinMinerServer.getInstance().onDisable();
         this.anticheatHooks.clear();
+        this.chunkSnapshotCache.invalidateAll();
+
+        if (allocationExecutor != null) {
+            this.allocationExecutor.shutdownNow();
+        }
     }
 
     /**
@@ -196,6 +239,16 @@ public final class VeinMinerPlugin extends JavaPlugin {
         return VeinMinerServer.getInstance().getPlayerManager();
     }
 
+    /**
+     * Get the {@link VeinClaimManager} tracking the blocks of veins that are being vein mined.
+     *
+     * @return the claim manager
+     */
+    @NotNull
+    public VeinClaimManager getClaimManager() {
+        return VeinMinerServer.getInstance().getClaimManager();
+    }
+
     /**
      * Get the default {@link VeinMiningPattern} to be used for new players.
      *
@@ -206,6 +259,101 @@ public final class VeinMinerPlugin extends JavaPlugin {
         return VeinMinerServer.getInstance().getDefaultVeinMiningPattern();
     }
 
+    /**
+     * Get the {@link ChunkSnapshotCache} from which blocks may be read off of the server thread.
+     *
+     * @return the chunk snapshot cache
+     */
+    @NotNull
+    public ChunkSnapshotCache getChunkSnapshotCache() {
+        return chunkSnapshotCache;
+    }
+
+    /**
+     * Get the {@link ExecutorService} on which veins are allocated when asynchronous
+     * allocation is enabled. The executor has one thread per available processor.
+     *
+     * @return the allocation executor
+     */
+    @NotNull
+    public ExecutorService getAllocationExecutor() {
+        return allocationExecutor;
+    }
+
+    /**
+     * Get the {@link VeinDropAccumulator VeinDropAccumulators} of the veins currently being
+     * broken, keyed by the UUID of the player breaking the vein. Only veins whose drops or
+     * experience are aggregated have an accumulator.
+     * <p>
+     * Not part of the public API. The returned map is mutable and must only be accessed on the
+     * server thread.
+     *
+     * @return the drop accumulators
+     */
+    @NotNull
+    public Map<UUID, VeinDropAccumulator> getDropAccumulators() {
+        return dropAccumulators;
+    }
+
+    /**
+     * Get the {@link BukkitVeinMiningJob BukkitVeinMiningJobs} currently in progress, keyed by
+     * the UUID of the player breaking the vein.
+     * <p>
+     * Not part of the public API. The returned map is mutable and must only be accessed on the
+     * server thread.
+     *
+     * @return the vein mining jobs
+     */
+    @NotNull
+    public Map<UUID, BukkitVeinMiningJob> getVeinMiningJobs() {
+        return veinMiningJobs;
+    }
+
+    // Overridden so that the config can be loaded off the server thread and then replaced, see loadConfig() and setConfig()
+    @NotNull
+    @Override
+    public FileConfiguration getConfig() {
+        if (config == null) {
+            this.reloadConfig();
+        }
+
+        return config;
+    }
+
+    @Override
+    public void reloadConfig() {
+        this.config = loadConfig();
+    }
+
+    /**
+     * Load the values of config.yml into a new {@link FileConfiguration}, including its
+     * defaults, without replacing the config returned by {@link #getConfig()}. Unlike
+     * {@link #reloadConfig()}, this may be called off the server thread.
+     *
+     * @return the loaded config
+     */
+    @NotNull
+    public FileConfiguration loadConfig() {
+        FileConfiguration config = YamlConfiguration.loadConfiguration(new File(getDataFolder(), "config.yml"));
+
+        InputStream defaultConfigStream = getResource("config.yml");
+        if (defaultConfigStream != null) {
+            config.setDefaults(YamlConfiguration.loadConfiguration(new InputStreamReader(defaultConfigStream, Charsets.UTF_8)));
+        }
+
+        return config;
+    }
+
+    /**
+     * Replace the config returned by {@link #getConfig()}, such as with one returned by
+     * {@link #loadConfig()}. This must be called on the server thread.
+     *
+     * @param config the new config
+     */
+    public void setConfig(@NotNull FileConfiguration config) {
+        this.config = config;
+    }
+
     /**
      * Get an instance of the categories configuration file.
      *
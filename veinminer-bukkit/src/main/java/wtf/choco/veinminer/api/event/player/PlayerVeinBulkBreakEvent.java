@@ -0,0 +1,92 @@
+package wtf.choco.veinminer.api.event.player;
+
+import java.util.Set;
+
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.player.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Called once for a whole vein when it is about to be broken in bulk, in place of a
+ * {@link BlockBreakEvent} for each of its blocks.
+ * <p>
+ * This event is only called if bulk breaking is enabled in VeinMiner's configuration. Plugins
+ * that must be consulted for every block broken by a player (e.g. protection or logging plugins)
+ * may cancel this event, in which case the vein is broken by the player one block at a time
+ * and a {@link BlockBreakEvent} is called for each block as usual.
+ */
+public class PlayerVeinBulkBreakEvent extends PlayerEvent implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private boolean cancelled = false;
+
+    private final Block origin;
+    private final Set<Block> blocks;
+
+    /**
+     * Construct a new {@link PlayerVeinBulkBreakEvent}.
+     *
+     * @param player the player breaking the vein
+     * @param origin the origin {@link Block} that was broken by the player
+     * @param blocks the blocks to be broken in bulk, excluding the origin
+     */
+    public PlayerVeinBulkBreakEvent(@NotNull Player player, @NotNull Block origin, @NotNull Set<Block> blocks) {
+        super(player);
+
+        this.origin = origin;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Get the origin {@link Block} that was broken by the player to trigger this vein mine.
+     *
+     * @return the origin block
+     */
+    @NotNull
+    public Block getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Get a {@link Set} of all blocks to be broken in bulk, excluding the origin. This set is
+     * mutable. Blocks removed from it will not be broken.
+     *
+     * @return the blocks to be broken
+     */
+    @NotNull
+    public Set<Block> getBlocks() {
+        return blocks;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A cancelled vein is not discarded. It is instead broken by the player one block at a time.
+     */
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @NotNull
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    @NotNull
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+}
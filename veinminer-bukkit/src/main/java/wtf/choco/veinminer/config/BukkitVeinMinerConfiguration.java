@@ -17,47 +17,62 @@ import wtf.choco.veinminer.VeinMinerPlugin;
 import wtf.choco.veinminer.VeinMinerServer;
 import wtf.choco.veinminer.block.BlockList;
 import wtf.choco.veinminer.data.PersistentDataStorage;
+import wtf.choco.veinminer.job.DropAggregationMode;
 import wtf.choco.veinminer.pattern.VeinMiningPattern;
 import wtf.choco.veinminer.tool.VeinMinerToolCategory;
 import wtf.choco.veinminer.util.VMConstants;
 
 /**
  * Bukkit implementation of {@link VeinMinerConfiguration}.
+ * <p>
+ * A configuration constructed with {@link #BukkitVeinMinerConfiguration(VeinMinerPlugin)} reads
+ * the plugin's current config.yml and categories.yml. Configurations returned by {@link #load()}
+ * instead read the copies of these files loaded at that time, which are not shared with the
+ * plugin until {@link #apply(VeinMinerConfiguration) applied}.
  */
 public final class BukkitVeinMinerConfiguration implements VeinMinerConfiguration {
 
     private final VeinMinerPlugin plugin;
 
+    // Null if this configuration reads the plugin's current files
+    private final FileConfiguration loadedConfig, loadedCategoriesConfig;
+
     /**
      * Construct a new {@link BukkitVeinMinerConfiguration}.
      *
      * @param plugin the plugin instance
      */
     public BukkitVeinMinerConfiguration(@NotNull VeinMinerPlugin plugin) {
+        this(plugin, null, null);
+    }
+
+    private BukkitVeinMinerConfiguration(@NotNull VeinMinerPlugin plugin, @Nullable FileConfiguration loadedConfig, @Nullable FileConfiguration loadedCategoriesConfig) {
         this.plugin = plugin;
+        this.loadedConfig = loadedConfig;
+        this.loadedCategoriesConfig = loadedCategoriesConfig;
     }
 
     @Override
     public boolean shouldCheckForUpdates() {
-        return plugin.getConfig().getBoolean(VMConstants.CONFIG_PERFORM_UPDATE_CHECKS, true);
+        return getConfig().getBoolean(VMConstants.CONFIG_PERFORM_UPDATE_CHECKS, true);
     }
 
     @NotNull
     @Override
     public List<String> getGlobalBlockList() {
-        return plugin.getConfig().getStringList("BlockList.Global");
+        return getConfig().getStringList("BlockList.Global");
     }
 
     @NotNull
     @Override
     public List<String> getCategoryBlockList(@NotNull String categoryId) {
-        return plugin.getConfig().getStringList("BlockList." + categoryId);
+        return getConfig().getStringList("BlockList." + categoryId);
     }
 
     @NotNull
     @Override
     public ActivationStrategy getDefaultActivationStrategy() {
-        String defaultActivationStrategyString = plugin.getConfig().getString(VMConstants.CONFIG_DEFAULT_ACTIVATION_STRATEGY);
+        String defaultActivationStrategyString = getConfig().getString(VMConstants.CONFIG_DEFAULT_ACTIVATION_STRATEGY);
         if (defaultActivationStrategyString == null) {
             return ActivationStrategy.SNEAK;
         }
@@ -70,7 +85,7 @@ public final class BukkitVeinMinerConfiguration implements VeinMinerConfiguratio
     public VeinMiningPattern getDefaultVeinMiningPattern() {
         VeinMinerServer veinMiner = VeinMinerServer.getInstance();
 
-        String defaultVeinMiningPatternString = plugin.getConfig().getString(VMConstants.CONFIG_DEFAULT_VEIN_MINING_PATTERN);
+        String defaultVeinMiningPatternString = getConfig().getString(VMConstants.CONFIG_DEFAULT_VEIN_MINING_PATTERN);
         if (defaultVeinMiningPatternString == null) {
             return veinMiner.getDefaultVeinMiningPattern();
         }
@@ -80,12 +95,17 @@ public final class BukkitVeinMinerConfiguration implements VeinMinerConfiguratio
 
     @Override
     public boolean shouldCollectItemsAtSource() {
-        return plugin.getConfig().getBoolean(VMConstants.CONFIG_COLLECT_ITEMS_AT_SOURCE, true);
+        return getConfig().getBoolean(VMConstants.CONFIG_COLLECT_ITEMS_AT_SOURCE, true);
+    }
+
+    @Override
+    public boolean shouldNerfMcMMO() {
+        return getConfig().getBoolean(VMConstants.CONFIG_NERF_MCMMO, false);
     }
 
     @Override
     public boolean isRepairFriendly() {
-        return plugin.getConfig().getBoolean(VMConstants.CONFIG_REPAIR_FRIENDLY, false);
+        return getConfig().getBoolean(VMConstants.CONFIG_REPAIR_FRIENDLY, false);
     }
 
     @Override
@@ -95,12 +115,12 @@ public final class BukkitVeinMinerConfiguration implements VeinMinerConfiguratio
 
     @Override
     public boolean isRepairFriendly(@NotNull String categoryId, boolean defaultValue) {
-        return plugin.getCategoriesConfig().asRawConfig().getBoolean(categoryId + "." + VMConstants.CONFIG_REPAIR_FRIENDLY, defaultValue);
+        return getCategoriesConfig().getBoolean(categoryId + "." + VMConstants.CONFIG_REPAIR_FRIENDLY, defaultValue);
     }
 
     @Override
     public int getMaxVeinSize() {
-        return plugin.getConfig().getInt(VMConstants.CONFIG_MAX_VEIN_SIZE, 64);
+        return getConfig().getInt(VMConstants.CONFIG_MAX_VEIN_SIZE, 64);
     }
 
     @Override
@@ -110,12 +130,12 @@ public final class BukkitVeinMinerConfiguration implements VeinMinerConfiguratio
 
     @Override
     public int getMaxVeinSize(@NotNull String categoryId, int defaultValue) {
-        return plugin.getCategoriesConfig().asRawConfig().getInt(categoryId + "." + VMConstants.CONFIG_MAX_VEIN_SIZE, defaultValue);
+        return getCategoriesConfig().getInt(categoryId + "." + VMConstants.CONFIG_MAX_VEIN_SIZE, defaultValue);
     }
 
     @Override
     public double getCost() {
-        return plugin.getConfig().getDouble(VMConstants.CONFIG_COST, 0.0);
+        return getConfig().getDouble(VMConstants.CONFIG_COST, 0.0);
     }
 
     @Override
@@ -125,67 +145,120 @@ public final class BukkitVeinMinerConfiguration implements VeinMinerConfiguratio
 
     @Override
     public double getCost(@NotNull String categoryId, double defaultValue) {
-        return plugin.getCategoriesConfig().asRawConfig().getDouble(categoryId + "." + VMConstants.CONFIG_COST, defaultValue);
+        return getCategoriesConfig().getDouble(categoryId + "." + VMConstants.CONFIG_COST, defaultValue);
     }
 
     @Override
     public int getPriority(@NotNull String categoryId) {
-        return plugin.getCategoriesConfig().asRawConfig().getInt(categoryId + "." + VMConstants.CONFIG_PRIORITY, 0);
+        return getCategoriesConfig().getInt(categoryId + "." + VMConstants.CONFIG_PRIORITY, 0);
     }
 
     @Nullable
     @Override
     public String getNBTValue(@NotNull String categoryId) {
-        return plugin.getCategoriesConfig().asRawConfig().getString(categoryId + "." + VMConstants.CONFIG_NBT);
+        return getCategoriesConfig().getString(categoryId + "." + VMConstants.CONFIG_NBT);
     }
 
     @NotNull
     @Override
     public List<String> getDisabledGameModeNames() {
-        return plugin.getConfig().getStringList(VMConstants.CONFIG_DISABLED_GAME_MODES);
+        return getConfig().getStringList(VMConstants.CONFIG_DISABLED_GAME_MODES);
     }
 
     @NotNull
     @Override
     public Set<String> getDisabledWorlds() {
-        return new HashSet<>(plugin.getConfig().getStringList(VMConstants.CONFIG_DISABLED_WORLDS));
+        return new HashSet<>(getConfig().getStringList(VMConstants.CONFIG_DISABLED_WORLDS));
     }
 
     @NotNull
     @Override
     public Set<String> getDisabledWorlds(@NotNull String categoryId) {
-        return new HashSet<>(plugin.getCategoriesConfig().asRawConfig().getStringList(categoryId + "." + VMConstants.CONFIG_DISABLED_WORLDS));
+        return new HashSet<>(getCategoriesConfig().getStringList(categoryId + "." + VMConstants.CONFIG_DISABLED_WORLDS));
     }
 
     @NotNull
     @Override
     public Set<String> getDisabledWorlds(@NotNull String categoryId, Supplier<Set<String>> defaultValues) {
         String key = categoryId + "." + VMConstants.CONFIG_DISABLED_WORLDS;
-        FileConfiguration config = plugin.getCategoriesConfig().asRawConfig();
+        FileConfiguration config = getCategoriesConfig();
 
         return config.contains(key, true) ? new HashSet<>(config.getStringList(key)) : defaultValues.get();
     }
 
+    @Override
+    public int getGlobalBlocksPerTick() {
+        return getConfig().getInt(VMConstants.CONFIG_PERFORMANCE_GLOBAL_BLOCKS_PER_TICK, 256);
+    }
+
+    @Override
+    public boolean shouldAllocateAsynchronously() {
+        return getConfig().getBoolean(VMConstants.CONFIG_PERFORMANCE_ASYNC_ALLOCATION, false);
+    }
+
+    @Override
+    public int getMaxBlocksPerTick() {
+        return getConfig().getInt(VMConstants.CONFIG_PERFORMANCE_MAX_BLOCKS_PER_TICK, 64);
+    }
+
+    @Override
+    public long getMaxMicrosecondsPerTick() {
+        return getConfig().getLong(VMConstants.CONFIG_PERFORMANCE_MAX_MICROSECONDS_PER_TICK, 0);
+    }
+
+    @NotNull
+    @Override
+    public DropAggregationMode getDropAggregationMode() {
+        String dropAggregationModeString = getConfig().getString(VMConstants.CONFIG_PERFORMANCE_DROP_AGGREGATION);
+        if (dropAggregationModeString == null) {
+            return DropAggregationMode.NONE;
+        }
+
+        return Enums.getIfPresent(DropAggregationMode.class, dropAggregationModeString.toUpperCase()).or(DropAggregationMode.NONE);
+    }
+
+    @Override
+    public boolean shouldCoalesceExperience() {
+        return getConfig().getBoolean(VMConstants.CONFIG_PERFORMANCE_COALESCE_EXPERIENCE, false);
+    }
+
+    @Override
+    public boolean shouldBulkBreak() {
+        return getConfig().getBoolean(VMConstants.CONFIG_PERFORMANCE_BULK_BREAK, false);
+    }
+
+    @NotNull
+    @Override
+    public VeinMineRequestLimits getVeinMineRequestLimits() {
+        FileConfiguration config = getConfig();
+
+        return new VeinMineRequestLimits(
+            config.getInt(VMConstants.CONFIG_PERFORMANCE_PREVIEWS_MINIMUM_INTERVAL, 50),
+            config.getInt(VMConstants.CONFIG_PERFORMANCE_PREVIEWS_REQUESTS_PER_SECOND, 20),
+            config.getInt(VMConstants.CONFIG_PERFORMANCE_PREVIEWS_BURST, 40)
+        );
+    }
+
     @Override
     public float getHungerModifier() {
-        return (float) plugin.getConfig().getDouble(VMConstants.CONFIG_HUNGER_HUNGER_MODIFIER, 4.0);
+        return (float) getConfig().getDouble(VMConstants.CONFIG_HUNGER_HUNGER_MODIFIER, 4.0);
     }
 
     @Override
     public int getMinimumFoodLevel() {
-        return plugin.getConfig().getInt(VMConstants.CONFIG_HUNGER_MINIMUM_FOOD_LEVEL, 1);
+        return getConfig().getInt(VMConstants.CONFIG_HUNGER_MINIMUM_FOOD_LEVEL, 1);
     }
 
     @Nullable
     @Override
     public String getHungryMessage() {
-        return plugin.getConfig().getString(VMConstants.CONFIG_HUNGER_HUNGRY_MESSAGE);
+        return getConfig().getString(VMConstants.CONFIG_HUNGER_HUNGRY_MESSAGE);
     }
 
     @NotNull
     @Override
     public ClientConfig getClientConfiguration() {
-        FileConfiguration config = plugin.getConfig();
+        FileConfiguration config = getConfig();
 
         return ClientConfig.builder()
                 .allowActivationKeybind(config.getBoolean(VMConstants.CONFIG_CLIENT_ALLOW_ACTIVATION_KEYBIND, true))
@@ -197,7 +270,7 @@ public final class BukkitVeinMinerConfiguration implements VeinMinerConfiguratio
     @NotNull
     @Override
     public PersistentDataStorage.@NotNull Type getStorageType() {
-        String type = plugin.getConfig().getString(VMConstants.CONFIG_STORAGE_TYPE);
+        String type = getConfig().getString(VMConstants.CONFIG_STORAGE_TYPE);
         if (type == null) {
             return PersistentDataStorage.Type.SQLITE;
         }
@@ -208,61 +281,61 @@ public final class BukkitVeinMinerConfiguration implements VeinMinerConfiguratio
     @Nullable
     @Override
     public File getJsonStorageDirectory() {
-        String directoryName = plugin.getConfig().getString(VMConstants.CONFIG_STORAGE_JSON_DIRECTORY);
+        String directoryName = getConfig().getString(VMConstants.CONFIG_STORAGE_JSON_DIRECTORY);
         return directoryName != null ? new File(".", directoryName.replace("%plugin%", "plugins/" + plugin.getDataFolder().getName())) : null;
     }
 
     @Nullable
     @Override
     public String getMySQLHost() {
-        return plugin.getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_HOST);
+        return getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_HOST);
     }
 
     @Override
     public int getMySQLPort() {
-        return plugin.getConfig().getInt(VMConstants.CONFIG_STORAGE_MYSQL_PORT);
+        return getConfig().getInt(VMConstants.CONFIG_STORAGE_MYSQL_PORT);
     }
 
     @Nullable
     @Override
     public String getMySQLUsername() {
-        return plugin.getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_USERNAME);
+        return getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_USERNAME);
     }
 
     @Nullable
     @Override
     public String getMySQLPassword() {
-        return plugin.getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_PASSWORD);
+        return getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_PASSWORD);
     }
 
     @Nullable
     @Override
     public String getMySQLDatabase() {
-        return plugin.getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_DATABASE);
+        return getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_DATABASE);
     }
 
     @Nullable
     @Override
     public String getMySQLTablePrefix() {
-        return plugin.getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_TABLE_PREFIX);
+        return getConfig().getString(VMConstants.CONFIG_STORAGE_MYSQL_TABLE_PREFIX);
     }
 
     @NotNull
     @Override
     public List<String> getRawAliasStrings() {
-        return plugin.getConfig().getStringList(VMConstants.CONFIG_ALIASES);
+        return getConfig().getStringList(VMConstants.CONFIG_ALIASES);
     }
 
     @NotNull
     @Override
     public Set<String> getAllDefinedCategoryIds() {
-        return plugin.getCategoriesConfig().asRawConfig().getKeys(false);
+        return getCategoriesConfig().getKeys(false);
     }
 
     @NotNull
     @Override
     public List<String> getCategoryItemList(@NotNull String categoryId) {
-        return plugin.getCategoriesConfig().asRawConfig().getStringList(categoryId + ".Items");
+        return getCategoriesConfig().getStringList(categoryId + ".Items");
     }
 
     @Override
@@ -291,10 +364,33 @@ public final class BukkitVeinMinerConfiguration implements VeinMinerConfiguratio
         // The default categoriesConfig is already saved when instantiated
     }
 
+    @NotNull
+    @Override
+    public VeinMinerConfiguration load() {
+        return new BukkitVeinMinerConfiguration(plugin, plugin.loadConfig(), plugin.getCategoriesConfig().load());
+    }
+
+    @Override
+    public void apply(@NotNull VeinMinerConfiguration configuration) {
+        if (!(configuration instanceof BukkitVeinMinerConfiguration loaded) || loaded.loadedConfig == null) {
+            throw new IllegalArgumentException("configuration must have been returned by load()");
+        }
+
+        this.plugin.setConfig(loaded.loadedConfig);
+        this.plugin.getCategoriesConfig().setRawConfig(loaded.loadedCategoriesConfig);
+    }
+
     @Override
     public void reload() {
-        this.plugin.reloadConfig();
-        this.plugin.getCategoriesConfig().reload();
+        this.apply(load());
+    }
+
+    private FileConfiguration getConfig() {
+        return (loadedConfig != null) ? loadedConfig : plugin.getConfig();
+    }
+
+    private FileConfiguration getCategoriesConfig() {
+        return (loadedCategoriesConfig != null) ? loadedCategoriesConfig : plugin.getCategoriesConfig().asRawConfig();
     }
 
 }
@@ -8,6 +8,8 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import wtf.choco.veinminer.VeinMinerPlayer;
+import wtf.choco.veinminer.VeinMinerServer;
 import wtf.choco.veinminer.platform.BukkitPlatformPlayer;
 import wtf.choco.veinminer.platform.PlatformPlayer;
 import wtf.choco.veinminer.util.VMConstants;
@@ -22,7 +24,13 @@ public class SimpleVaultEconomy implements SimpleEconomy {
 
     @Override
     public boolean shouldCharge(@NotNull PlatformPlayer player) {
-        return hasEconomyPlugin() && !player.hasPermission(VMConstants.PERMISSION_FREE_ECONOMY);
+        if (!hasEconomyPlugin()) {
+            return false;
+        }
+
+        // Prefer the player's resolved permissions over a permission lookup
+        VeinMinerPlayer veinMinerPlayer = VeinMinerServer.getInstance().getPlayerManager().get(player);
+        return (veinMinerPlayer != null) ? !veinMinerPlayer.isExemptFromEconomy() : !player.hasPermission(VMConstants.PERMISSION_FREE_ECONOMY);
     }
 
     @Override
@@ -9,8 +9,20 @@ import com.sk89q.worldguard.protection.flags.StateFlag;
 import com.sk89q.worldguard.protection.flags.registry.FlagConflictException;
 import com.sk89q.worldguard.protection.flags.registry.FlagRegistry;
 import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -25,6 +37,11 @@ public final class WorldGuardIntegration {
 
     private static final StateFlag FLAG_VEINMINER = new StateFlag("veinminer", true);
 
+    private static final long RESULT_CACHE_DURATION_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    // Flag results by the set of regions containing a position, per player. Players are weakly referenced so results are discarded when they leave
+    private static final Map<Player, CachedResults> RESULT_CACHE = new WeakHashMap<>();
+
     private static boolean initialized = false;
 
     private WorldGuardIntegration() { }
@@ -49,17 +66,117 @@ public final class WorldGuardIntegration {
      * @return true if allowed, false if denied permission
      */
     public static boolean queryFlagVeinMiner(@NotNull Block block, @NotNull Player player) {
-        return initialized && testFlag(block, player, FLAG_VEINMINER);
+        return initialized && !filterFlagVeinMiner(Collections.singleton(block), player).isEmpty();
     }
 
-    private static boolean testFlag(@NotNull Block block, @NotNull Player player, @NotNull StateFlag flag) {
+    /**
+     * Get the {@link Block Blocks} of the given collection for which VeinMiner is allowed
+     * according to WorldGuard region flags. All blocks must be in the world of the given player.
+     * <p>
+     * Rather than querying the regions of each block individually, blocks are grouped by the
+     * chunk in which they are located, the cell by which WorldGuard indexes its regions. The
+     * regions intersecting the blocks of each chunk are queried once, and the flag is tested
+     * once for every distinct set of regions containing a block. Results are cached for the
+     * player and their world for a short time. WorldGuard does not notify of region changes, so
+     * the cache is only cleared with {@link #clearCachedResults()} when a WorldGuard command is
+     * run. Changes made by other plugins through the WorldGuard API may take up to two seconds
+     * to apply. This method must be called on the server thread.
+     *
+     * @param blocks the blocks to filter
+     * @param player the player to check
+     *
+     * @return the allowed blocks, in the order in which they were given
+     */
+    @NotNull
+    public static Set<Block> filterFlagVeinMiner(@NotNull Collection<Block> blocks, @NotNull Player player) {
+        Set<Block> allowed = new LinkedHashSet<>(blocks);
+        if (!initialized || blocks.isEmpty()) {
+            return allowed;
+        }
+
         LocalPlayer localPlayer = WorldGuardPlugin.inst().wrapPlayer(player);
 
         RegionContainer regionContainer = WorldGuard.getInstance().getPlatform().getRegionContainer();
         RegionManager regionManager = regionContainer.get(localPlayer.getWorld());
-        ApplicableRegionSet regionSet = regionManager.getApplicableRegions(BlockVector3.at(block.getX(), block.getY(), block.getZ()));
+        if (regionManager == null) { // Regions are disabled in this world
+            return allowed;
+        }
+
+        // Bounds of the blocks in each chunk, as min x, y, z followed by max x, y, z
+        Map<Long, int[]> boundsByChunk = new HashMap<>();
+        for (Block block : blocks) {
+            int[] bounds = boundsByChunk.computeIfAbsent(getChunkKey(block), ignore -> new int[] {
+                Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE
+            });
+
+            bounds[0] = Math.min(bounds[0], block.getX());
+            bounds[1] = Math.min(bounds[1], block.getY());
+            bounds[2] = Math.min(bounds[2], block.getZ());
+            bounds[3] = Math.max(bounds[3], block.getX());
+            bounds[4] = Math.max(bounds[4], block.getY());
+            bounds[5] = Math.max(bounds[5], block.getZ());
+        }
+
+        // Any region containing a block must intersect the bounds of the blocks in its chunk
+        Map<Long, Set<ProtectedRegion>> regionsByChunk = new HashMap<>(boundsByChunk.size());
+        boundsByChunk.forEach((chunkKey, bounds) -> {
+            ProtectedRegion boundsRegion = new ProtectedCuboidRegion("veinminer_query", BlockVector3.at(bounds[0], bounds[1], bounds[2]), BlockVector3.at(bounds[3], bounds[4], bounds[5]));
+            regionsByChunk.put(chunkKey, regionManager.getApplicableRegions(boundsRegion).getRegions());
+        });
+
+        // Blocks contained by the same regions have the same applicable regions, so the flag need only be tested once for each
+        Map<Set<ProtectedRegion>, Boolean> results = getCachedResults(player);
+        allowed.removeIf(block -> {
+            Set<ProtectedRegion> candidates = regionsByChunk.get(getChunkKey(block));
+            Set<ProtectedRegion> containing = Collections.emptySet();
 
-        return regionSet.testState(localPlayer, flag);
+            if (!candidates.isEmpty()) {
+                BlockVector3 position = BlockVector3.at(block.getX(), block.getY(), block.getZ());
+                containing = new HashSet<>();
+
+                for (ProtectedRegion region : candidates) {
+                    if (region.contains(position)) {
+                        containing.add(region);
+                    }
+                }
+            }
+
+            Boolean result = results.get(containing);
+            if (result == null) {
+                ApplicableRegionSet regionSet = regionManager.getApplicableRegions(BlockVector3.at(block.getX(), block.getY(), block.getZ()));
+                result = regionSet.testState(localPlayer, FLAG_VEINMINER);
+                results.put(containing, result);
+            }
+
+            return !result;
+        });
+
+        return allowed;
+    }
+
+    /**
+     * Clear the cached flag results of all players, such as after regions or their flags have
+     * changed. This method must be called on the server thread.
+     */
+    public static void clearCachedResults() {
+        RESULT_CACHE.clear();
+    }
+
+    private static Map<Set<ProtectedRegion>, Boolean> getCachedResults(@NotNull Player player) {
+        String worldName = player.getWorld().getName();
+        long now = System.nanoTime();
+
+        CachedResults cachedResults = RESULT_CACHE.get(player);
+        if (cachedResults == null || !cachedResults.worldName().equals(worldName) || now - cachedResults.createdAt() >= RESULT_CACHE_DURATION_NANOS) {
+            cachedResults = new CachedResults(worldName, now, new HashMap<>());
+            RESULT_CACHE.put(player, cachedResults);
+        }
+
+        return cachedResults.results();
+    }
+
+    private static long getChunkKey(@NotNull Block block) {
+        return ((long) (block.getX() >> 4) << 32) | ((block.getZ() >> 4) & 0xFFFFFFFFL);
     }
 
     private static void registerFlag(@NotNull JavaPlugin plugin, @NotNull FlagRegistry flagRegistry, @NotNull StateFlag flag) {
@@ -71,4 +188,6 @@ public final class WorldGuardIntegration {
         }
     }
 
+    private record CachedResults(@NotNull String worldName, long createdAt, @NotNull Map<Set<ProtectedRegion>, Boolean> results) { }
+
 }
@@ -0,0 +1,622 @@
+package wtf.choco.veinminer.job;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.TileState;
+import org.bukkit.block.data.Bisected;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.type.Bed;
+import org.bukkit.block.data.type.Piston;
+import org.bukkit.block.data.type.PistonHead;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.ExperienceOrb;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.player.PlayerItemDamageEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import wtf.choco.veinminer.VeinMinerPlayer;
+import wtf.choco.veinminer.VeinMinerPlugin;
+import wtf.choco.veinminer.VeinMinerServer;
+import wtf.choco.veinminer.anticheat.AntiCheatHook;
+import wtf.choco.veinminer.api.event.player.PlayerVeinBulkBreakEvent;
+import wtf.choco.veinminer.block.BlockList;
+import wtf.choco.veinminer.block.BlockStateMatcher;
+import wtf.choco.veinminer.block.VeinMinerBlock;
+import wtf.choco.veinminer.config.ConfigurationSnapshot;
+import wtf.choco.veinminer.manager.VeinClaimManager;
+import wtf.choco.veinminer.metrics.StatTracker;
+import wtf.choco.veinminer.platform.world.BukkitBlockState;
+import wtf.choco.veinminer.platform.world.BukkitBlockType;
+import wtf.choco.veinminer.platform.world.BukkitItemType;
+import wtf.choco.veinminer.tool.VeinMinerToolCategory;
+import wtf.choco.veinminer.tool.VeinMinerToolCategoryHand;
+import wtf.choco.veinminer.util.BlockPosition;
+import wtf.choco.veinminer.util.VMEventFactory;
+
+/**
+ * A Bukkit implementation of {@link VeinMiningJob} responsible for breaking the blocks of a
+ * single vein over one or more ticks.
+ * <p>
+ * Blocks are broken nearest to the origin first. Each tick, the job breaks at most the
+ * amount of blocks permitted by the {@link VeinMiningJobScheduler}, and never more than the
+ * configured per-vein amount of blocks or time, whichever limit is reached first. The player remains exempt
+ * from anti cheats and the blocks of the vein remain claimed in the {@link VeinClaimManager}
+ * until the job has finished, either because every block was broken or because the player became too
+ * hungry, their tool became too damaged, they switched tools or they went offline. If drops
+ * or experience are aggregated, they are collected once the job has finished. Hunger is
+ * computed for every block but written to the player once per tick, and the durability of the
+ * tool is only read again once enough blocks were broken that it could have run out, counting
+ * any damage beyond one per block reported by a {@link PlayerItemDamageEvent}. As
+ * blocks may change while the job is in progress, blocks that no longer match the vein's
+ * origin or its aliases are skipped.
+ * <p>
+ * If bulk breaking is enabled, blocks are not broken by the player one at a time. A single
+ * {@link PlayerVeinBulkBreakEvent} is called for the whole vein when the job starts, in place of
+ * a {@link BlockBreakEvent} for every block, and the vein is broken one block at a time if it is
+ * cancelled. The blocks to break in a tick are set to air together, with block updates applied
+ * only at the boundary of those blocks. Their drops and experience are computed directly and no
+ * {@link org.bukkit.event.block.BlockDropItemEvent} is called. Tool damage is applied once, when
+ * the job has finished. Tile entities and blocks spanning more than one position (e.g. doors and
+ * beds) are always broken by the player so that vanilla handles their contents and other halves.
+ * <p>
+ * Jobs must only be created and processed on the server thread.
+ */
+public final class BukkitVeinMiningJob implements VeinMiningJob {
+
+    // Whether or not blocks of a type are tile entities, determined from the first block of that type to be broken in bulk
+    private static final Map<Material, Boolean> TILE_ENTITY_TYPES = new EnumMap<>(Material.class);
+
+    private final VeinMinerPlugin plugin;
+    private final Player player;
+    private final VeinMinerPlayer veinMinerPlayer;
+    private final VeinMinerToolCategory category;
+    private final Block origin;
+    private final BlockPosition originPosition;
+    private final BlockStateMatcher matcher;
+    private Block[] blocks;
+    private List<BlockPosition> claimedPositions = Collections.emptyList();
+    private final List<AntiCheatHook> hooks;
+
+    private final int maxBlocksPerTick;
+    private final long maxNanosPerTick;
+    private final DropAggregationMode dropAggregationMode;
+    private final boolean coalesceExperience, collectItemsAtSource;
+    private VeinDropAccumulator dropAccumulator;
+
+    private boolean bulkBreak;
+    private final ItemStack tool;
+    private final List<Block> bulkBreakQueue;
+    private int pendingToolDamage = 0;
+
+    private final int maxDurability;
+    private final float hungerModifier;
+    private final int minimumFoodLevel;
+    private final String hungryMessage;
+    private final boolean isHandCategory, shouldApplyHunger;
+
+    // The amount of blocks the tool can afford before its durability must be read again. Reduced by damage beyond one per block, see recordToolDamage()
+    private int toolBudget = 0;
+    private boolean breakingBlock = false;
+
+    // Hunger is applied to these values while breaking blocks and only written to the player at the end of each tick
+    private boolean hungerChanged = false;
+    private int foodLevel;
+    private float saturation, exhaustion, observedExhaustion;
+
+    private int nextBlockIndex = 0;
+    private boolean started = false, finished = false;
+
+    /**
+     * Construct a new {@link BukkitVeinMiningJob}.
+     *
+     * @param plugin the plugin instance
+     * @param player the player that is vein mining
+     * @param veinMinerPlayer the vein miner player
+     * @param category the category of the tool used to vein mine
+     * @param item the item used to vein mine
+     * @param origin the block that was broken to initiate the vein mine
+     * @param originBlock the vein miner block of the origin
+     * @param aliasList the aliases of the origin block, if any
+     * @param blocks the blocks to break
+     */
+    public BukkitVeinMiningJob(@NotNull VeinMinerPlugin plugin, @NotNull Player player, @NotNull VeinMinerPlayer veinMinerPlayer, @NotNull VeinMinerToolCategory category, @NotNull ItemStack item, @NotNull Block origin, @NotNull VeinMinerBlock originBlock, @Nullable BlockList aliasList, @NotNull Collection<Block> blocks) {
+        this.plugin = plugin;
+        this.player = player;
+        this.veinMinerPlayer = veinMinerPlayer;
+        this.category = category;
+        this.origin = origin;
+        this.originPosition = new BlockPosition(origin.getX(), origin.getY(), origin.getZ());
+        this.matcher = BlockStateMatcher.compile(originBlock, aliasList);
+        this.tool = item;
+        this.hooks = plugin.getAnticheatHooks();
+
+        this.blocks = blocks.toArray(Block[]::new);
+        Arrays.sort(this.blocks, Comparator.comparingInt(block -> distanceSquared(block, origin)));
+
+        // Options are read once, so a reload does not affect jobs already in progress
+        ConfigurationSnapshot config = VeinMinerServer.getInstance().getConfigurationSnapshot();
+        this.maxBlocksPerTick = config.maxBlocksPerTick();
+        this.maxNanosPerTick = config.maxNanosPerTick();
+        this.coalesceExperience = config.coalesceExperience();
+        this.collectItemsAtSource = config.collectItemsAtSource();
+        this.bulkBreak = config.bulkBreak();
+        this.bulkBreakQueue = bulkBreak ? new ArrayList<>() : Collections.emptyList();
+        this.dropAggregationMode = config.dropAggregationMode();
+
+        this.maxDurability = item.getType().getMaxDurability() - (config.repairFriendly() ? 1 : 0);
+        this.hungerModifier = config.hungerModifier() * 0.025F;
+        this.minimumFoodLevel = config.minimumFoodLevel();
+        this.hungryMessage = config.hungryMessage();
+        this.isHandCategory = category instanceof VeinMinerToolCategoryHand;
+        this.shouldApplyHunger = !veinMinerPlayer.isExemptFromHunger();
+    }
+
+    /**
+     * Start this job. The blocks are claimed and the player is exempted from anti cheats. Blocks
+     * already claimed by another vein are not broken by this job. This must be called before the
+     * job is submitted to the scheduler.
+     *
+     * @throws IllegalStateException if the job has already been started
+     */
+    public void start() {
+        if (started) {
+            throw new IllegalStateException("job has already been started");
+        }
+
+        this.started = true;
+
+        // Claim all blocks to be vein mined. Blocks claimed by another player's vein are left to that vein
+        this.veinMinerPlayer.setVeinMining(true);
+
+        List<BlockPosition> positions = new ArrayList<>(blocks.length);
+        for (Block block : blocks) {
+            positions.add(new BlockPosition(block.getX(), block.getY(), block.getZ()));
+        }
+
+        this.claimedPositions = plugin.getClaimManager().claim(origin.getWorld().getName(), originPosition, positions);
+
+        if (claimedPositions.size() != blocks.length) {
+            Set<BlockPosition> claimed = new HashSet<>(claimedPositions);
+            this.blocks = Arrays.stream(blocks).filter(block -> claimed.contains(new BlockPosition(block.getX(), block.getY(), block.getZ()))).toArray(Block[]::new);
+        }
+
+        // A single event is called for the whole vein in place of one for every block. If cancelled, the vein is broken one block at a time instead
+        if (bulkBreak) {
+            Set<Block> bulkBlocks = new HashSet<>(blocks.length);
+            for (Block block : blocks) {
+                if (!isOrigin(block)) {
+                    bulkBlocks.add(block);
+                }
+            }
+
+            PlayerVeinBulkBreakEvent event = VMEventFactory.callPlayerVeinBulkBreakEvent(player, origin, bulkBlocks);
+            if (event.isCancelled()) {
+                this.bulkBreak = false;
+            } else {
+                this.blocks = Arrays.stream(blocks).filter(block -> isOrigin(block) || bulkBlocks.contains(block)).toArray(Block[]::new);
+            }
+        }
+
+        // Tool damage dealt while blocks are broken is reported by the ToolDamageListener
+        this.plugin.getVeinMiningJobs().put(player.getUniqueId(), this);
+
+        // Drops of claimed blocks are collected by the ItemCollectionListener while this job is running
+        if (dropAggregationMode != DropAggregationMode.NONE || coalesceExperience) {
+            this.dropAccumulator = new VeinDropAccumulator(origin, dropAggregationMode, coalesceExperience);
+            this.plugin.getDropAccumulators().put(player.getUniqueId(), dropAccumulator);
+        }
+
+        // Anticheat support
+        this.hooks.forEach(h -> h.exempt(player));
+    }
+
+    @Override
+    public int process(int maxBlocks) {
+        if (finished) {
+            return 0;
+        }
+
+        if (!started || !player.isOnline()) {
+            this.finish();
+            return 0;
+        }
+
+        // The tool in hand may have changed since the previous tick
+        ItemStack item = player.getInventory().getItemInMainHand();
+        if (!category.containsItem(BukkitItemType.of(item.getType()))) {
+            this.finish();
+            return 0;
+        }
+
+        // The tool or food bar may have changed since the previous tick (e.g. by switching to another tool or eating)
+        this.toolBudget = 0;
+        if (isApplyingHunger()) {
+            this.foodLevel = player.getFoodLevel();
+            this.saturation = player.getSaturation();
+            this.exhaustion = observedExhaustion = player.getExhaustion();
+        }
+
+        int limit = (maxBlocksPerTick > 0) ? Math.min(maxBlocks, maxBlocksPerTick) : maxBlocks;
+        long deadline = (maxNanosPerTick > 0) ? System.nanoTime() + maxNanosPerTick : Long.MAX_VALUE;
+        int brokenThisTick = 0;
+        boolean paused = false;
+
+        while (nextBlockIndex < blocks.length) {
+            // Always break at least one block per tick so that the job makes progress
+            if (brokenThisTick > 0 && (brokenThisTick >= limit || System.nanoTime() >= deadline)) {
+                paused = true;
+                break;
+            }
+
+            if (!breakNext(item)) {
+                break;
+            }
+
+            brokenThisTick++;
+        }
+
+        // Bulk broken blocks are only queued by breakNext() and are broken together at the end of the tick
+        if (bulkBreak) {
+            this.breakQueuedBlocks(item);
+        }
+
+        if (hungerChanged) {
+            this.writeHunger();
+        }
+
+        if (!paused) {
+            this.finish();
+        }
+
+        return brokenThisTick;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The blocks are released and the player is unexempted from anti cheats.
+     */
+    @Override
+    public void finish() {
+        if (finished) {
+            return;
+        }
+
+        this.finished = true;
+
+        // Tool damage of bulk broken blocks is applied all at once
+        if (pendingToolDamage > 0) {
+            this.applyToolDamage(pendingToolDamage);
+            this.pendingToolDamage = 0;
+        }
+
+        // Release claimed blocks
+        this.plugin.getVeinMiningJobs().remove(player.getUniqueId(), this);
+        this.veinMinerPlayer.setVeinMining(false);
+        this.plugin.getClaimManager().release(origin.getWorld().getName(), originPosition, claimedPositions);
+
+        // Collect aggregated drops all at once
+        if (dropAccumulator != null) {
+            this.plugin.getDropAccumulators().remove(player.getUniqueId(), dropAccumulator);
+            this.dropAccumulator.collect(player);
+        }
+
+        // Unexempt from anticheats
+        this.hooks.stream().filter(h -> h.shouldUnexempt(player)).forEach(h -> h.unexempt(player));
+    }
+
+    private boolean breakNext(ItemStack item) {
+        Block block = blocks[nextBlockIndex];
+        BlockData blockData = block.getBlockData();
+
+        // Blocks may have changed since the vein was allocated. Those no longer part of the vein are left untouched at no cost
+        if (!isOrigin(block) && !matcher.matches(BukkitBlockState.of(blockData))) {
+            this.nextBlockIndex++;
+            return true;
+        }
+
+        // Apply hunger
+        if (isApplyingHunger()) {
+            this.applyHungerDebuff();
+
+            if (foodLevel <= minimumFoodLevel) {
+                if (!hungryMessage.isEmpty()) {
+                    this.player.sendMessage(hungryMessage);
+                }
+
+                return false;
+            }
+        }
+
+        // Check for tool damage
+        if (maxDurability > 0 && !isHandCategory) {
+            if (item == null || item.getType().isAir()) {
+                return false;
+            }
+
+            // Vanilla damages a tool by at most one per block, so its durability need only be read again once that many blocks were broken
+            if (toolBudget <= 0) {
+                ItemMeta meta = item.getItemMeta();
+                if (meta == null || (toolBudget = maxDurability - ((Damageable) meta).getDamage() - pendingToolDamage) <= 0) {
+                    return false;
+                }
+            }
+
+            this.toolBudget--;
+        }
+
+        // Break the block
+        this.nextBlockIndex++;
+
+        // The origin has already been broken by the player
+        if (bulkBreak && isOrigin(block)) {
+            return true;
+        }
+
+        if (bulkBreak && !requiresVanillaBreak(block, blockData)) {
+            if (blockData.getMaterial().isAir()) {
+                return true;
+            }
+
+            this.bulkBreakQueue.add(block);
+
+            if (!isHandCategory && item.getType().getMaxDurability() > 0) {
+                this.pendingToolDamage += rollToolDamage(item);
+            }
+
+            return true;
+        }
+
+        Material currentType = block.getType();
+        if (block == origin || breakBlock(block)) {
+            StatTracker.accumulateVeinMinedMaterial(BukkitBlockType.of(currentType));
+        }
+
+        return true;
+    }
+
+    private boolean breakBlock(Block block) {
+        this.breakingBlock = true;
+
+        try {
+            return player.breakBlock(block);
+        } finally {
+            this.breakingBlock = false;
+        }
+    }
+
+    /**
+     * Record damage dealt to an item of the player breaking this vein. Damage dealt while the
+     * player is breaking one of the vein's blocks is assumed to be dealt to their tool, and
+     * shortens the amount of blocks the tool is believed to afford before its durability must
+     * be read again.
+     * <p>
+     * Not part of the public API. Called by the ToolDamageListener.
+     *
+     * @param damage the damage dealt
+     */
+    public void recordToolDamage(int damage) {
+        // The budget already accounts for one damage per block, so only damage beyond that (e.g. added by other plugins) reduces it further
+        if (breakingBlock && damage > 1) {
+            this.toolBudget -= damage - 1;
+        }
+    }
+
+    private void breakQueuedBlocks(ItemStack item) {
+        if (bulkBreakQueue.isEmpty()) {
+            return;
+        }
+
+        Set<BlockPosition> positions = new HashSet<>(bulkBreakQueue.size());
+
+        // As in vanilla, players in creative mode get no drops, and ores drop no experience if mined with silk touch or the wrong tool
+        boolean creative = (player.getGameMode() == GameMode.CREATIVE);
+        boolean silkTouch = item.containsEnchantment(Enchantment.SILK_TOUCH);
+
+        // Drops must be computed before the blocks are removed
+        for (Block block : bulkBreakQueue) {
+            positions.add(new BlockPosition(block.getX(), block.getY(), block.getZ()));
+
+            Material type = block.getType();
+            StatTracker.accumulateVeinMinedMaterial(BukkitBlockType.of(type));
+
+            if (creative) {
+                continue;
+            }
+
+            Collection<ItemStack> drops = block.getDrops(item, player);
+            this.dropItems(block, drops);
+
+            if (!silkTouch && !drops.isEmpty()) {
+                this.dropExperience(block, rollExperience(type));
+            }
+        }
+
+        // Blocks surrounded by other broken blocks need no updates. Only the neighbours of the boundary are updated
+        List<Block> boundary = new ArrayList<>();
+        for (Block block : bulkBreakQueue) {
+            if (isSurrounded(block, positions)) {
+                block.setType(Material.AIR, false);
+            } else {
+                boundary.add(block);
+            }
+        }
+
+        boundary.forEach(block -> block.setType(Material.AIR, true));
+
+        // No event was called for the individual blocks, so cached data is invalidated here now that the blocks are gone
+        World world = origin.getWorld();
+        VeinMinerServer veinMiner = VeinMinerServer.getInstance();
+        Set<Long> chunks = new HashSet<>();
+        for (BlockPosition position : positions) {
+            int chunkX = position.x() >> 4, chunkZ = position.z() >> 4;
+            if (chunks.add(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL))) {
+                this.plugin.getChunkSnapshotCache().invalidate(world, chunkX, chunkZ);
+                veinMiner.getAllocationCache().invalidate(world.getName(), chunkX, chunkZ);
+            }
+        }
+
+        veinMiner.getPreviewSubscriptionManager().notifyChanged(world.getName(), positions);
+        this.bulkBreakQueue.clear();
+    }
+
+    private void dropExperience(Block block, int experience) {
+        if (experience <= 0) {
+            return;
+        }
+
+        if (dropAccumulator != null && dropAccumulator.isCoalescingExperience()) {
+            this.dropAccumulator.addExperience(experience);
+            return;
+        }
+
+        block.getWorld().spawn(block.getLocation().add(0.5, 0.5, 0.5), ExperienceOrb.class, orb -> orb.setExperience(experience));
+    }
+
+    // The experience vanilla drops when an ore is broken with the right tool. No other block that may be broken in bulk drops any
+    private static int rollExperience(Material type) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        return switch (type) {
+            case COAL_ORE, DEEPSLATE_COAL_ORE -> random.nextInt(0, 3);
+            case DIAMOND_ORE, DEEPSLATE_DIAMOND_ORE, EMERALD_ORE, DEEPSLATE_EMERALD_ORE -> random.nextInt(3, 8);
+            case LAPIS_ORE, DEEPSLATE_LAPIS_ORE, NETHER_QUARTZ_ORE -> random.nextInt(2, 6);
+            case REDSTONE_ORE, DEEPSLATE_REDSTONE_ORE -> random.nextInt(1, 6);
+            case NETHER_GOLD_ORE -> random.nextInt(0, 2);
+            default -> 0;
+        };
+    }
+
+    // Tile entities (e.g. containers) and blocks spanning more than one position need vanilla's break handling, so they are never broken in bulk
+    private static boolean requiresVanillaBreak(Block block, BlockData blockData) {
+        if (blockData instanceof Bisected || blockData instanceof Bed || blockData instanceof PistonHead || (blockData instanceof Piston piston && piston.isExtended())) {
+            return true;
+        }
+
+        return TILE_ENTITY_TYPES.computeIfAbsent(blockData.getMaterial(), type -> block.getState() instanceof TileState);
+    }
+
+    private void dropItems(Block block, Collection<ItemStack> drops) {
+        if (drops.isEmpty()) {
+            return;
+        }
+
+        if (dropAccumulator != null && dropAccumulator.getMode() != DropAggregationMode.NONE) {
+            this.dropAccumulator.add(drops);
+            return;
+        }
+
+        Block dropBlock = collectItemsAtSource ? origin : block;
+        Location location = dropBlock.getLocation().add(0.5, 0.5, 0.5);
+
+        for (ItemStack drop : drops) {
+            if (!drop.getType().isAir()) {
+                dropBlock.getWorld().dropItemNaturally(location, drop);
+            }
+        }
+    }
+
+    // Vanilla damages a tool by one for every block, unless prevented by Unbreaking
+    private static int rollToolDamage(ItemStack item) {
+        int unbreakingLevel = item.getEnchantmentLevel(Enchantment.DURABILITY);
+        return (unbreakingLevel <= 0 || ThreadLocalRandom.current().nextInt(unbreakingLevel + 1) == 0) ? 1 : 0;
+    }
+
+    private void applyToolDamage(int damage) {
+        if (tool.getType().isAir() || !(tool.getItemMeta() instanceof Damageable)) {
+            return;
+        }
+
+        PlayerItemDamageEvent event = new PlayerItemDamageEvent(player, tool, damage);
+        Bukkit.getPluginManager().callEvent(event);
+
+        if (event.isCancelled() || event.getDamage() <= 0) {
+            return;
+        }
+
+        Damageable meta = (Damageable) tool.getItemMeta();
+        int newDamage = meta.getDamage() + event.getDamage();
+
+        if (newDamage >= tool.getType().getMaxDurability()) {
+            this.tool.setAmount(0);
+            this.player.playSound(player.getLocation(), Sound.ENTITY_ITEM_BREAK, 1.0F, 1.0F);
+            return;
+        }
+
+        meta.setDamage(newDamage);
+        this.tool.setItemMeta(meta);
+    }
+
+    private boolean isOrigin(Block block) {
+        return block.getX() == origin.getX() && block.getY() == origin.getY() && block.getZ() == origin.getZ();
+    }
+
+    private static boolean isSurrounded(Block block, Set<BlockPosition> positions) {
+        int x = block.getX(), y = block.getY(), z = block.getZ();
+        return positions.contains(new BlockPosition(x + 1, y, z)) && positions.contains(new BlockPosition(x - 1, y, z))
+                && positions.contains(new BlockPosition(x, y + 1, z)) && positions.contains(new BlockPosition(x, y - 1, z))
+                && positions.contains(new BlockPosition(x, y, z + 1)) && positions.contains(new BlockPosition(x, y, z - 1));
+    }
+
+    private boolean isApplyingHunger() {
+        return hungerModifier != 0.0 && shouldApplyHunger;
+    }
+
+    // Modified version of https://github.com/portablejim/VeinMiner/blob/1.9/src/main/java/portablejim/veinminer/core/MinerInstance.java#L231-L254
+    private void applyHungerDebuff() {
+        // Account for exhaustion caused by the server since the last block (e.g. by the player breaking it)
+        float currentExhaustion = player.getExhaustion();
+        this.exhaustion += currentExhaustion - observedExhaustion;
+        this.observedExhaustion = currentExhaustion;
+
+        this.exhaustion = (exhaustion + hungerModifier) % 4;
+        this.saturation -= (int) ((exhaustion + hungerModifier) / 4);
+
+        if (saturation < 0) {
+            this.foodLevel += saturation;
+            this.saturation = 0;
+        }
+
+        this.hungerChanged = true;
+    }
+
+    private void writeHunger() {
+        this.player.setFoodLevel(foodLevel);
+        this.player.setSaturation(saturation);
+        this.player.setExhaustion(exhaustion + (player.getExhaustion() - observedExhaustion));
+        this.hungerChanged = false;
+    }
+
+    private static int distanceSquared(Block block, Block origin) {
+        int x = block.getX() - origin.getX(), y = block.getY() - origin.getY(), z = block.getZ() - origin.getZ();
+        return (x * x) + (y * y) + (z * z);
+    }
+
+}
@@ -0,0 +1,180 @@
+package wtf.choco.veinminer.job;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.ExperienceOrb;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An accumulator of the items and experience dropped by the blocks of a single vein.
+ * <p>
+ * Similar items are merged as they are added such that, regardless of the size of the vein,
+ * only as many stacks as necessary are dropped or added to the player's inventory when the
+ * accumulated items are {@link #collect(Player) collected}. Likewise, experience is summed and
+ * dropped as a single orb.
+ * <p>
+ * Accumulators must only be used on the server thread.
+ */
+public final class VeinDropAccumulator {
+
+    private final List<AccumulatedItem> items = new ArrayList<>();
+    private int experience = 0;
+
+    private final Block origin;
+    private final DropAggregationMode mode;
+    private final boolean coalesceExperience;
+
+    /**
+     * Construct a new {@link VeinDropAccumulator}.
+     *
+     * @param origin the block that was broken to initiate the vein mine
+     * @param mode the mode with which accumulated items are collected. If
+     * {@link DropAggregationMode#NONE}, items should not be accumulated
+     * @param coalesceExperience whether or not experience should be accumulated
+     */
+    public VeinDropAccumulator(@NotNull Block origin, @NotNull DropAggregationMode mode, boolean coalesceExperience) {
+        this.origin = origin;
+        this.mode = mode;
+        this.coalesceExperience = coalesceExperience;
+    }
+
+    /**
+     * Get the block that was broken to initiate the vein mine.
+     *
+     * @return the origin
+     */
+    @NotNull
+    public Block getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Get the mode with which accumulated items are collected.
+     *
+     * @return the drop aggregation mode
+     */
+    @NotNull
+    public DropAggregationMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Check whether or not experience should be accumulated.
+     *
+     * @return true if coalescing experience, false otherwise
+     */
+    public boolean isCoalescingExperience() {
+        return coalesceExperience;
+    }
+
+    /**
+     * Add the given items to this accumulator, merging them with similar accumulated items.
+     *
+     * @param itemStacks the items to add
+     */
+    public void add(@NotNull Collection<ItemStack> itemStacks) {
+        for (ItemStack itemStack : itemStacks) {
+            if (itemStack == null || itemStack.getType().isAir() || itemStack.getAmount() <= 0) {
+                continue;
+            }
+
+            if (!merge(itemStack)) {
+                this.items.add(new AccumulatedItem(itemStack.clone(), itemStack.getAmount()));
+            }
+        }
+    }
+
+    private boolean merge(ItemStack itemStack) {
+        for (AccumulatedItem accumulated : items) {
+            if (accumulated.template.isSimilar(itemStack)) {
+                accumulated.amount += itemStack.getAmount();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Add the given amount of experience to this accumulator.
+     *
+     * @param experience the experience to add
+     */
+    public void addExperience(int experience) {
+        if (experience > 0) {
+            this.experience += experience;
+        }
+    }
+
+    /**
+     * Check whether or not any items or experience have been accumulated.
+     *
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return items.isEmpty() && experience == 0;
+    }
+
+    /**
+     * Collect all accumulated items, either dropping them at the origin or adding them to the
+     * given player's inventory according to the mode of this accumulator, drop all accumulated
+     * experience at the origin, and clear this accumulator.
+     *
+     * @param player the player that vein mined
+     */
+    public void collect(@NotNull Player player) {
+        World world = origin.getWorld();
+        Location location = origin.getLocation().add(0.5, 0.5, 0.5);
+
+        if (experience > 0) {
+            int orbExperience = experience;
+            world.spawn(location, ExperienceOrb.class, orb -> orb.setExperience(orbExperience));
+            this.experience = 0;
+        }
+
+        if (items.isEmpty()) {
+            return;
+        }
+
+        // Accumulated amounts may exceed the maximum stack size, so split them into as few stacks as possible
+        List<ItemStack> stacks = new ArrayList<>(items.size());
+        for (AccumulatedItem item : items) {
+            int maxStackSize = Math.max(item.template.getMaxStackSize(), 1);
+
+            for (long amount = item.amount; amount > 0; amount -= maxStackSize) {
+                ItemStack stack = item.template.clone();
+                stack.setAmount((int) Math.min(amount, maxStackSize));
+                stacks.add(stack);
+            }
+        }
+
+        this.items.clear();
+
+        if (mode == DropAggregationMode.INVENTORY && player.isOnline()) {
+            player.getInventory().addItem(stacks.toArray(ItemStack[]::new)).values().forEach(overflow -> world.dropItem(location, overflow));
+            return;
+        }
+
+        stacks.forEach(stack -> world.dropItem(location, stack));
+    }
+
+    private static final class AccumulatedItem {
+
+        private final ItemStack template;
+        private long amount;
+
+        private AccumulatedItem(ItemStack template, long amount) {
+            this.template = template;
+            this.amount = amount;
+        }
+
+    }
+
+}
@@ -0,0 +1,252 @@
+package wtf.choco.veinminer.listener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Directional;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFertilizeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockMultiPlaceEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.block.SpongeAbsorbEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.jetbrains.annotations.NotNull;
+
+import wtf.choco.veinminer.VeinMinerPlugin;
+import wtf.choco.veinminer.VeinMinerServer;
+import wtf.choco.veinminer.manager.PreviewSubscriptionManager;
+import wtf.choco.veinminer.pattern.VeinAllocationCache;
+import wtf.choco.veinminer.platform.world.ChunkSnapshotCache;
+import wtf.choco.veinminer.util.BlockPosition;
+
+public final class BlockChangeListener implements Listener {
+
+    private final ChunkSnapshotCache chunkSnapshotCache;
+    private final VeinAllocationCache allocationCache;
+    private final PreviewSubscriptionManager previewSubscriptionManager;
+
+    // Events are called before their changes are applied to the world, so changed blocks are collected and only invalidated once the tick is over.
+    // BlockPhysicsEvent is deliberately not listened to. It is called for every neighbour update whether or not anything changed, and the rare
+    // changes only it would catch (e.g. unsupported blocks popping off) are tolerated by the maximum age of the caches
+    private final Map<World, Set<BlockPosition>> changedBlocks = new HashMap<>();
+
+    public BlockChangeListener(@NotNull VeinMinerPlugin plugin) {
+        this.chunkSnapshotCache = plugin.getChunkSnapshotCache();
+        this.allocationCache = VeinMinerServer.getInstance().getAllocationCache();
+        this.previewSubscriptionManager = VeinMinerServer.getInstance().getPreviewSubscriptionManager();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockBreak(BlockBreakEvent event) {
+        this.invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockPlace(BlockPlaceEvent event) {
+        this.invalidate(event.getBlock());
+
+        // Beds, doors and the like place more than one block
+        if (event instanceof BlockMultiPlaceEvent multiPlaceEvent) {
+            this.invalidateStates(multiPlaceEvent.getReplacedBlockStates());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        // The clicked block may be waterlogged rather than the fluid being placed against it
+        Block clicked = event.getBlockClicked();
+        this.invalidate(clicked);
+        this.invalidate(clicked.getRelative(event.getBlockFace()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBucketFill(PlayerBucketFillEvent event) {
+        Block clicked = event.getBlockClicked();
+        this.invalidate(clicked);
+        this.invalidate(clicked.getRelative(event.getBlockFace()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockDispense(BlockDispenseEvent event) {
+        // Dispensed buckets, shulker boxes, bone meal and the like change the block in front of the dispenser
+        Block block = event.getBlock();
+        BlockData blockData = block.getBlockData();
+        if (blockData instanceof Directional directional) {
+            this.invalidate(block.getRelative(directional.getFacing()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onSpongeAbsorb(SpongeAbsorbEvent event) {
+        this.invalidate(event.getBlock());
+        this.invalidateStates(event.getBlocks());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockFertilize(BlockFertilizeEvent event) {
+        this.invalidate(event.getBlock());
+        this.invalidateStates(event.getBlocks());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockExplode(BlockExplodeEvent event) {
+        this.invalidate(event.getBlock());
+        this.invalidate(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onEntityExplode(EntityExplodeEvent event) {
+        this.invalidate(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockBurn(BlockBurnEvent event) {
+        this.invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockFade(BlockFadeEvent event) {
+        this.invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockForm(BlockFormEvent event) {
+        this.invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockGrow(BlockGrowEvent event) {
+        this.invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockFromTo(BlockFromToEvent event) {
+        this.invalidate(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onLeavesDecay(LeavesDecayEvent event) {
+        this.invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        this.invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onPistonExtend(BlockPistonExtendEvent event) {
+        this.invalidate(event.getBlock());
+
+        // Moved blocks may cross into a neighbouring chunk
+        for (Block block : event.getBlocks()) {
+            this.invalidate(block);
+            this.invalidate(block.getRelative(event.getDirection()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onPistonRetract(BlockPistonRetractEvent event) {
+        this.invalidate(event.getBlock());
+
+        for (Block block : event.getBlocks()) {
+            this.invalidate(block);
+            this.invalidate(block.getRelative(event.getDirection()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onStructureGrow(StructureGrowEvent event) {
+        this.invalidateStates(event.getBlocks());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        this.chunkSnapshotCache.invalidate(chunk.getWorld(), chunk.getX(), chunk.getZ());
+        this.allocationCache.invalidate(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onWorldUnload(WorldUnloadEvent event) {
+        this.changedBlocks.remove(event.getWorld());
+        this.chunkSnapshotCache.invalidateAll(event.getWorld());
+        this.allocationCache.invalidateAll(event.getWorld().getName());
+    }
+
+    /**
+     * Invalidate the cached snapshots and allocations of all chunks in which blocks have changed
+     * since this method was last called, and notify the preview subscriptions of these changes.
+     * Intended to be called once per tick on the server thread, after the changes have been
+     * applied to the world.
+     */
+    public void flush() {
+        if (changedBlocks.isEmpty()) {
+            return;
+        }
+
+        this.changedBlocks.forEach((world, positions) -> {
+            String worldName = world.getName();
+            Set<Long> changedChunks = new HashSet<>();
+
+            for (BlockPosition position : positions) {
+                int chunkX = position.x() >> 4, chunkZ = position.z() >> 4;
+                if (!changedChunks.add(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL))) {
+                    continue;
+                }
+
+                this.chunkSnapshotCache.invalidate(world, chunkX, chunkZ);
+                this.allocationCache.invalidate(worldName, chunkX, chunkZ);
+            }
+
+            this.previewSubscriptionManager.notifyChanged(worldName, positions);
+        });
+
+        this.changedBlocks.clear();
+    }
+
+    private void invalidate(Block block) {
+        this.changedBlocks.computeIfAbsent(block.getWorld(), ignore -> new HashSet<>()).add(new BlockPosition(block.getX(), block.getY(), block.getZ()));
+    }
+
+    private void invalidate(List<Block> blocks) {
+        for (Block block : blocks) {
+            this.invalidate(block);
+        }
+    }
+
+    private void invalidateStates(Collection<BlockState> states) {
+        for (BlockState state : states) {
+            this.invalidate(state.getBlock());
+        }
+    }
+
+}
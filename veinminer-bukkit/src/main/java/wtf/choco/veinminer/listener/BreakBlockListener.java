@@ -1,62 +1,63 @@
 package wtf.choco.veinminer.listener;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.FluidCollisionMode;
-import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.BlockData;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.Damageable;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.metadata.FixedMetadataValue;
-import org.bukkit.metadata.LazyMetadataValue;
-import org.bukkit.metadata.LazyMetadataValue.CacheStrategy;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.util.RayTraceResult;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import wtf.choco.veinminer.VeinMinerPlayer;
 import wtf.choco.veinminer.VeinMinerPlugin;
 import wtf.choco.veinminer.VeinMinerServer;
-import wtf.choco.veinminer.anticheat.AntiCheatHook;
 import wtf.choco.veinminer.api.event.player.PlayerVeinMineEvent;
 import wtf.choco.veinminer.block.BlockList;
+import wtf.choco.veinminer.block.BlockStateMatcher;
 import wtf.choco.veinminer.block.VeinMinerBlock;
 import wtf.choco.veinminer.config.VeinMiningConfig;
 import wtf.choco.veinminer.economy.SimpleEconomy;
 import wtf.choco.veinminer.integration.WorldGuardIntegration;
+import wtf.choco.veinminer.job.BukkitVeinMiningJob;
 import wtf.choco.veinminer.manager.VeinMinerManager;
-import wtf.choco.veinminer.metrics.StatTracker;
+import wtf.choco.veinminer.pattern.VeinAllocationCache;
 import wtf.choco.veinminer.pattern.VeinMiningPattern;
 import wtf.choco.veinminer.platform.BukkitServerPlatform;
-import wtf.choco.veinminer.platform.GameMode;
 import wtf.choco.veinminer.platform.PlatformPlayer;
 import wtf.choco.veinminer.platform.world.BlockAccessor;
 import wtf.choco.veinminer.platform.world.BlockState;
 import wtf.choco.veinminer.platform.world.BukkitBlockAccessor;
 import wtf.choco.veinminer.platform.world.BukkitBlockState;
-import wtf.choco.veinminer.platform.world.BukkitBlockType;
 import wtf.choco.veinminer.platform.world.BukkitItemType;
+import wtf.choco.veinminer.platform.world.BukkitSnapshotBlockAccessor;
 import wtf.choco.veinminer.tool.VeinMinerToolCategory;
-import wtf.choco.veinminer.tool.VeinMinerToolCategoryHand;
 import wtf.choco.veinminer.util.BlockPosition;
 import wtf.choco.veinminer.util.VMConstants;
 import wtf.choco.veinminer.util.VMEventFactory;
 
 public final class BreakBlockListener implements Listener {
 
+    // Veins that may extend further than this from their origin would require capturing more chunks than allocating them synchronously costs
+    private static final int MAX_ASYNC_SNAPSHOT_RADIUS = 32;
+
     private final VeinMinerPlugin plugin;
 
     public BreakBlockListener(@NotNull VeinMinerPlugin plugin) {
@@ -69,26 +70,30 @@ public final class BreakBlockListener implements Listener {
             return;
         }
 
+        // Blocks broken as part of a vein (by this or another player) must not start a vein of their own
         Block origin = event.getBlock();
-        if (origin.hasMetadata(VMConstants.METADATA_KEY_TO_BE_VEINMINED)) {
+        if (plugin.getClaimManager().isClaimed(origin.getWorld().getName(), origin.getX(), origin.getY(), origin.getZ())) {
             return;
         }
 
+        // Players unable to vein mine at all (permissions, game mode, world, toggles) are turned away from their resolved eligibility
         Player player = event.getPlayer();
+        PlatformPlayer platformPlayer = BukkitServerPlatform.getInstance().getPlatformPlayer(player.getUniqueId());
+        VeinMinerPlayer veinMinerPlayer = plugin.getPlayerManager().get(platformPlayer);
+        if (veinMinerPlayer == null || !veinMinerPlayer.canVeinMine()) {
+            return;
+        }
+
         ItemStack item = player.getInventory().getItemInMainHand();
 
-        VeinMinerToolCategory category = plugin.getToolCategoryRegistry().get(BukkitItemType.of(item.getType()), cat -> player.hasPermission(VMConstants.PERMISSION_VEINMINE.apply(cat)));
+        VeinMinerToolCategory category = plugin.getToolCategoryRegistry().get(BukkitItemType.of(item.getType()), veinMinerPlayer::hasVeinMinePermission);
         if (category == null) {
             return;
         }
 
         // Check for the NBT value is one is present
-        String nbtValue = category.getNBTValue();
-        if (nbtValue != null) {
-            ItemMeta meta = item.getItemMeta();
-            if (meta != null && !nbtValue.equals(meta.getPersistentDataContainer().get(VMConstants.getVeinMinerNBTKey(), PersistentDataType.STRING))) {
-                return;
-            }
+        if (!hasRequiredNBTValue(category, item)) {
+            return;
         }
 
         VeinMinerManager veinMinerManager = plugin.getVeinMinerManager();
@@ -100,22 +105,14 @@ public final class BreakBlockListener implements Listener {
         }
 
         // Invalid player state check
-        PlatformPlayer platformPlayer = BukkitServerPlatform.getInstance().getPlatformPlayer(player.getUniqueId());
-        VeinMinerPlayer veinMinerPlayer = plugin.getPlayerManager().get(platformPlayer);
-        if (veinMinerPlayer == null) {
+        if (!veinMinerPlayer.isVeinMinerActive()
+                || veinMinerPlayer.isVeinMining() // A previous vein is still being broken
+                || !veinMinerPlayer.canVeinMine(category)) {
             return;
         }
 
         VeinMiningConfig veinMinerConfig = category.getConfig();
 
-        if (!veinMinerPlayer.isVeinMinerActive()
-                || !veinMinerPlayer.isVeinMinerEnabled(category)
-                || veinMinerManager.isDisabledGameMode(GameMode.getByIdOrThrow(player.getGameMode().name()))
-                || veinMinerConfig.isDisabledWorld(origin.getWorld().getName())
-                || !player.hasPermission(VMConstants.PERMISSION_VEINMINE.apply(category))) {
-            return;
-        }
-
         // WorldGuard check
         boolean worldGuard = Bukkit.getPluginManager().isPluginEnabled("WorldGuard");
         if (worldGuard && !WorldGuardIntegration.queryFlagVeinMiner(origin, player)) {
@@ -123,148 +120,246 @@ public final class BreakBlockListener implements Listener {
             return;
         }
 
-        // Economy check
-        SimpleEconomy economy = VeinMinerServer.getInstance().getEconomy();
-        if (economy.shouldCharge(platformPlayer)) {
-            if (!economy.hasSufficientBalance(platformPlayer, veinMinerConfig.getCost())) {
-                player.sendMessage(ChatColor.GRAY + "You have insufficient funds to vein mine (Required: " + ChatColor.YELLOW + veinMinerConfig.getCost() + ChatColor.GRAY + ")");
-                return;
-            }
-
-            economy.withdraw(platformPlayer, veinMinerConfig.getCost());
+        // Economy check. The cost is only withdrawn once the vein is actually mined
+        if (!hasSufficientFunds(player, platformPlayer, veinMinerConfig)) {
+            return;
         }
 
-        // Fetch the target block face
-        BlockFace targetBlockFace;
-        RayTraceResult rayTraceResult = player.rayTraceBlocks(6, FluidCollisionMode.NEVER);
+        World world = origin.getWorld();
+        BlockPosition originPosition = new BlockPosition(origin.getX(), origin.getY(), origin.getZ());
 
-        if (rayTraceResult == null || (targetBlockFace = rayTraceResult.getHitBlockFace()) == null) {
-            return;
+        // Fetch the target block face, recorded when the player started breaking the block. Ray trace only if it's unknown
+        wtf.choco.veinminer.util.BlockFace vmBlockFace = veinMinerPlayer.consumeDamagedBlockFace(world.getName(), originPosition);
+        if (vmBlockFace == null) {
+            BlockFace targetBlockFace;
+            RayTraceResult rayTraceResult = player.rayTraceBlocks(6, FluidCollisionMode.NEVER);
+
+            if (rayTraceResult == null || (targetBlockFace = rayTraceResult.getHitBlockFace()) == null) {
+                return;
+            }
+
+            vmBlockFace = wtf.choco.veinminer.util.BlockFace.valueOf(targetBlockFace.name());
         }
 
         // TIME TO VEINMINE
         VeinMinerBlock originVeinMinerBlock = veinMinerManager.getVeinMinerBlock(originBlockState, category);
         assert originVeinMinerBlock != null; // If this is null, something is broken internally
 
-        World world = origin.getWorld();
-        BlockAccessor blockAccessor = BukkitBlockAccessor.forWorld(world);
         VeinMiningPattern pattern = veinMinerPlayer.getVeinMiningPattern();
-        BlockPosition originPosition = new BlockPosition(origin.getX(), origin.getY(), origin.getZ());
         BlockList aliasBlockList = veinMinerManager.getAlias(originVeinMinerBlock);
-        wtf.choco.veinminer.util.BlockFace vmBlockFace = wtf.choco.veinminer.util.BlockFace.valueOf(targetBlockFace.name());
 
-        Set<BlockPosition> blockPositions = pattern.allocateBlocks(blockAccessor, originPosition, vmBlockFace, originVeinMinerBlock, veinMinerConfig, aliasBlockList);
-        Set<Block> blocks = new HashSet<>();
+        VeinMineContext context = new VeinMineContext(player, veinMinerPlayer, origin, originVeinMinerBlock, aliasBlockList, category, pattern);
+        VeinAllocationCache allocationCache = VeinMinerServer.getInstance().getAllocationCache();
 
-        for (BlockPosition blockPosition : blockPositions) {
-            Block block = world.getBlockAt(blockPosition.x(), blockPosition.y(), blockPosition.z());
+        // The vein may have already been allocated for a client's preview, in which case there's no need to allocate it asynchronously.
+        // Patterns read at most one block further than the vein size from the origin, which determines the area that must be captured
+        int snapshotRadius = veinMinerConfig.getMaxVeinSize() + 1;
+        if (VeinMinerServer.getInstance().getConfigurationSnapshot().asyncAllocation() && snapshotRadius <= MAX_ASYNC_SNAPSHOT_RADIUS
+                && allocationCache.getIfPresent(pattern, world.getName(), originPosition, vmBlockFace, originVeinMinerBlock, category) == null) {
+            this.allocateAsynchronously(context, originPosition, vmBlockFace, snapshotRadius);
+            return;
+        }
 
-            if (block.isEmpty()) {
-                continue;
-            }
+        BlockAccessor blockAccessor = BukkitBlockAccessor.forWorld(world);
+        Set<BlockPosition> blockPositions = allocationCache.allocate(pattern, blockAccessor, originPosition, vmBlockFace, originVeinMinerBlock, category, aliasBlockList);
+        Set<Block> blocks = getBlocks(world, blockPositions, BlockStateMatcher.compile(originVeinMinerBlock, aliasBlockList));
 
-            blocks.add(block);
+        if (blockPositions.isEmpty()) {
+            return;
         }
 
-        if (blockPositions.isEmpty()) {
+        this.veinMine(context, item, blocks);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onDamageBlock(PlayerInteractEvent event) {
+        Block block = event.getClickedBlock();
+        if (event.getAction() != Action.LEFT_CLICK_BLOCK || block == null) {
             return;
         }
 
-        // Fire a new PlayerVeinMineEvent
-        PlayerVeinMineEvent veinmineEvent = VMEventFactory.callPlayerVeinMineEvent(player, origin, originVeinMinerBlock, item, category, blocks, pattern);
-        if (veinmineEvent.isCancelled() || blockPositions.isEmpty()) {
+        VeinMinerPlayer veinMinerPlayer = plugin.getPlayerManager().get(event.getPlayer().getUniqueId());
+        if (veinMinerPlayer == null) {
             return;
         }
 
-        // Apply metadata to all blocks to be vein mined and all other relevant objects/entities
-        veinMinerPlayer.setVeinMining(true);
-        blocks.forEach(block -> {
-            block.setMetadata(VMConstants.METADATA_KEY_TO_BE_VEINMINED, new FixedMetadataValue(plugin, true));
-            block.setMetadata(VMConstants.METADATA_KEY_VEINMINER_SOURCE, new LazyMetadataValue(plugin, CacheStrategy.CACHE_ETERNALLY, origin::getLocation));
-        });
+        // Remember the clicked face so that it need not be ray traced when the block is broken
+        BlockPosition position = new BlockPosition(block.getX(), block.getY(), block.getZ());
+        veinMinerPlayer.setLastDamagedBlock(block.getWorld().getName(), position, wtf.choco.veinminer.util.BlockFace.valueOf(event.getBlockFace().name()));
+    }
 
-        // Anticheat support
-        List<AntiCheatHook> hooks = plugin.getAnticheatHooks();
-        hooks.forEach(h -> h.exempt(player));
+    private void allocateAsynchronously(VeinMineContext context, BlockPosition originPosition, wtf.choco.veinminer.util.BlockFace blockFace, int snapshotRadius) {
+        Block origin = context.origin();
+        World world = origin.getWorld();
 
-        // Actually destroying the allocated blocks
-        FileConfiguration config = plugin.getConfig();
-        int maxDurability = item.getType().getMaxDurability() - (config.getBoolean(VMConstants.CONFIG_REPAIR_FRIENDLY, false) ? 1 : 0);
-        float hungerModifier = ((float) Math.max((config.getDouble(VMConstants.CONFIG_HUNGER_HUNGER_MODIFIER)), 0.0D)) * 0.025F;
-        int minimumFoodLevel = Math.max(config.getInt(VMConstants.CONFIG_HUNGER_MINIMUM_FOOD_LEVEL), 0);
+        // Snapshots must be captured on the server thread. Veins extending beyond this area (e.g. from other plugins' patterns) are allocated synchronously instead
+        BukkitSnapshotBlockAccessor blockAccessor = new BukkitSnapshotBlockAccessor(world, plugin.getChunkSnapshotCache());
+        blockAccessor.capture(origin.getX(), origin.getZ(), snapshotRadius);
 
-        String hungryMessage = config.getString(VMConstants.CONFIG_HUNGER_HUNGRY_MESSAGE, "");
-        if (hungryMessage == null) {
-            hungryMessage = "";
-        }
+        VeinMiningConfig config = context.category().getConfig();
 
-        hungryMessage = ChatColor.translateAlternateColorCodes('&', hungryMessage);
-        boolean isHandCategory = category instanceof VeinMinerToolCategoryHand;
-        boolean shouldApplyHunger = !player.hasPermission(VMConstants.PERMISSION_FREE_HUNGER);
+        CompletableFuture.supplyAsync(() -> {
+            Set<BlockPosition> blockPositions = context.pattern().allocateBlocks(blockAccessor, originPosition, blockFace, context.originBlock(), config, context.aliasList());
+            if (blockAccessor.hasMissedChunks()) {
+                return null;
+            }
 
-        for (Block block : blocks) {
-            // Apply hunger
-            if (hungerModifier != 0.0 && shouldApplyHunger) {
-                this.applyHungerDebuff(player, hungerModifier);
+            // Remember the allocated states so that they can be re-checked against the world before breaking
+            BlockState[] expectedStates = new BlockState[blockPositions.size()];
+            int index = 0;
+            for (BlockPosition position : blockPositions) {
+                expectedStates[index++] = blockAccessor.getState(position.x(), position.y(), position.z());
+            }
 
-                if (player.getFoodLevel() <= minimumFoodLevel) {
-                    if (!hungryMessage.isEmpty()) {
-                        player.sendMessage(hungryMessage);
-                    }
+            return new SnapshotAllocation(blockPositions, expectedStates);
+        }, plugin.getAllocationExecutor()).thenAcceptAsync(allocation -> {
+            Player player = context.player();
+            if (!player.isOnline() || player.getWorld() != world) {
+                return;
+            }
 
-                    break;
-                }
+            // The player may have switched items, been denied permission, or toggled vein miner while the vein was being allocated
+            ItemStack item = player.getInventory().getItemInMainHand();
+            if (!isStillEligible(context, item)) {
+                return;
             }
 
-            // Check for tool damage
-            if (maxDurability > 0 && !isHandCategory) {
-                if (item == null || item.getType().isAir()) {
-                    break;
-                }
+            Set<BlockPosition> blockPositions;
+            Set<Block> blocks;
 
-                ItemMeta meta = item.getItemMeta();
-                if (meta == null || ((Damageable) meta).getDamage() >= maxDurability) {
-                    break;
-                }
+            if (allocation != null) {
+                blockPositions = allocation.blockPositions();
+                blocks = getBlocks(world, blockPositions, allocation.expectedStates());
+            } else {
+                blockPositions = VeinMinerServer.getInstance().getAllocationCache().allocate(context.pattern(), BukkitBlockAccessor.forWorld(world), originPosition, blockFace, context.originBlock(), context.category(), context.aliasList());
+                blocks = getBlocks(world, blockPositions, BlockStateMatcher.compile(context.originBlock(), context.aliasList()));
             }
 
-            // Break the block
-            Material currentType = block.getType();
-            if (block == origin || player.breakBlock(block)) {
-                StatTracker.accumulateVeinMinedMaterial(BukkitBlockType.of(currentType));
+            if (blockPositions.isEmpty()) {
+                return;
+            }
+
+            // The origin was broken while the vein was being allocated, but it is part of the vein all the same
+            if (blockPositions.contains(originPosition)) {
+                blocks.add(origin);
             }
-        }
 
-        // Remove applied metadata
-        veinMinerPlayer.setVeinMining(false);
-        blocks.forEach(block -> {
-            block.removeMetadata(VMConstants.METADATA_KEY_TO_BE_VEINMINED, plugin);
-            block.removeMetadata(VMConstants.METADATA_KEY_VEINMINER_SOURCE, plugin);
+            this.veinMine(context, item, blocks);
+        }, this::runOnServerThread).exceptionally(e -> {
+            this.plugin.getLogger().log(Level.SEVERE, "Could not allocate vein for " + context.player().getName(), e);
+            return null;
         });
+    }
+
+    private boolean isStillEligible(VeinMineContext context, ItemStack item) {
+        VeinMinerPlayer veinMinerPlayer = context.veinMinerPlayer();
+        if (!veinMinerPlayer.canVeinMine() || !veinMinerPlayer.isVeinMinerActive() || veinMinerPlayer.isVeinMining()) {
+            return false;
+        }
+
+        // The category may have been replaced by a reload, or the player may have switched tools or patterns
+        VeinMinerToolCategory category = plugin.getToolCategoryRegistry().get(BukkitItemType.of(item.getType()), veinMinerPlayer::hasVeinMinePermission);
+        return category == context.category() && hasRequiredNBTValue(category, item) && veinMinerPlayer.canVeinMine(category) && veinMinerPlayer.getVeinMiningPattern() == context.pattern();
+    }
+
+    private boolean hasSufficientFunds(Player player, PlatformPlayer platformPlayer, VeinMiningConfig config) {
+        SimpleEconomy economy = VeinMinerServer.getInstance().getEconomy();
+        if (!economy.shouldCharge(platformPlayer) || economy.hasSufficientBalance(platformPlayer, config.getCost())) {
+            return true;
+        }
+
+        player.sendMessage(ChatColor.GRAY + "You have insufficient funds to vein mine (Required: " + ChatColor.YELLOW + config.getCost() + ChatColor.GRAY + ")");
+        return false;
+    }
+
+    private boolean hasRequiredNBTValue(VeinMinerToolCategory category, ItemStack item) {
+        String nbtValue = category.getNBTValue();
+        if (nbtValue == null) {
+            return true;
+        }
+
+        ItemMeta meta = item.getItemMeta();
+        return meta == null || nbtValue.equals(meta.getPersistentDataContainer().get(VMConstants.getVeinMinerNBTKey(), PersistentDataType.STRING));
+    }
+
+    private void veinMine(VeinMineContext context, ItemStack item, Set<Block> blocks) {
+        Player player = context.player();
+        Block origin = context.origin();
+        VeinMinerToolCategory category = context.category();
+
+        // Leave blocks in regions denying vein mining untouched. The origin was already checked, but the rest of the vein may extend into other regions
+        if (Bukkit.getPluginManager().isPluginEnabled("WorldGuard")) {
+            blocks = WorldGuardIntegration.filterFlagVeinMiner(blocks, player);
+        }
+
+        // Fire a new PlayerVeinMineEvent
+        PlayerVeinMineEvent veinmineEvent = VMEventFactory.callPlayerVeinMineEvent(player, origin, context.originBlock(), item, category, blocks, context.pattern());
+        if (veinmineEvent.isCancelled()) {
+            return;
+        }
+
+        // An asynchronously allocated vein is mined some ticks after the funds were checked, so they must be checked again
+        PlatformPlayer platformPlayer = context.veinMinerPlayer().getPlayer();
+        VeinMiningConfig config = category.getConfig();
+        if (!hasSufficientFunds(player, platformPlayer, config)) {
+            return;
+        }
 
-        // VEINMINER - DONE
+        SimpleEconomy economy = VeinMinerServer.getInstance().getEconomy();
+        if (economy.shouldCharge(platformPlayer)) {
+            economy.withdraw(platformPlayer, config.getCost());
+        }
+
+        BukkitVeinMiningJob job = new BukkitVeinMiningJob(plugin, player, context.veinMinerPlayer(), category, item, origin, context.originBlock(), context.aliasList(), blocks);
+        job.start();
 
-        // Unexempt from anticheats
-        hooks.stream().filter(h -> h.shouldUnexempt(player)).forEach(h -> h.unexempt(player));
+        VeinMinerServer.getInstance().getJobScheduler().submit(player.getUniqueId(), job);
     }
 
-    // Modified version of https://github.com/portablejim/VeinMiner/blob/1.9/src/main/java/portablejim/veinminer/core/MinerInstance.java#L231-L254
-    private void applyHungerDebuff(Player player, float hungerModifier) {
-        int foodLevel = player.getFoodLevel();
-        float saturation = player.getSaturation();
-        float exhaustion = player.getExhaustion();
+    private void runOnServerThread(Runnable task) {
+        if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
 
-        exhaustion = (exhaustion + hungerModifier) % 4;
-        saturation -= (int) ((exhaustion + hungerModifier) / 4);
+    private Set<Block> getBlocks(World world, Set<BlockPosition> blockPositions, BlockState[] expectedStates) {
+        Set<Block> blocks = new HashSet<>();
 
-        if (saturation < 0) {
-            foodLevel += saturation;
-            saturation = 0;
+        int index = 0;
+        for (BlockPosition blockPosition : blockPositions) {
+            Block block = world.getBlockAt(blockPosition.x(), blockPosition.y(), blockPosition.z());
+            BlockState expectedState = expectedStates[index++];
+
+            // Skip blocks that have changed since they were allocated from a snapshot
+            if (block.isEmpty() || !expectedState.equals(BukkitBlockState.of(block.getBlockData()))) {
+                continue;
+            }
+
+            blocks.add(block);
         }
 
-        player.setFoodLevel(foodLevel);
-        player.setSaturation(saturation);
-        player.setExhaustion(exhaustion);
+        return blocks;
     }
 
+    private Set<Block> getBlocks(World world, Set<BlockPosition> blockPositions, BlockStateMatcher matcher) {
+        Set<Block> blocks = new HashSet<>();
+
+        for (BlockPosition blockPosition : blockPositions) {
+            Block block = world.getBlockAt(blockPosition.x(), blockPosition.y(), blockPosition.z());
+
+            // Cached allocations may be out of date if blocks were changed without an event (e.g. by another plugin), so skip those no longer part of the vein
+            if (block.isEmpty() || !matcher.matches(BukkitBlockState.of(block.getBlockData()))) {
+                continue;
+            }
+
+            blocks.add(block);
+        }
+
+        return blocks;
+    }
+
+    private record VeinMineContext(@NotNull Player player, @NotNull VeinMinerPlayer veinMinerPlayer, @NotNull Block origin, @NotNull VeinMinerBlock originBlock, @Nullable BlockList aliasList, @NotNull VeinMinerToolCategory category, @NotNull VeinMiningPattern pattern) { }
+
+    private record SnapshotAllocation(@NotNull Set<BlockPosition> blockPositions, @NotNull BlockState[] expectedStates) { }
+
 }
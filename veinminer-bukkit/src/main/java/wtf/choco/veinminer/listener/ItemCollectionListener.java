@@ -3,16 +3,22 @@ package wtf.choco.veinminer.listener;
 import java.util.List;
 
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockDropItemEvent;
-import org.bukkit.metadata.MetadataValue;
 import org.jetbrains.annotations.NotNull;
 
 import wtf.choco.veinminer.VeinMinerPlugin;
-import wtf.choco.veinminer.util.VMConstants;
+import wtf.choco.veinminer.VeinMinerServer;
+import wtf.choco.veinminer.job.DropAggregationMode;
+import wtf.choco.veinminer.job.VeinDropAccumulator;
+import wtf.choco.veinminer.util.BlockPosition;
 
 public final class ItemCollectionListener implements Listener {
 
@@ -25,29 +31,66 @@ public final class ItemCollectionListener implements Listener {
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     private void onDropVeinMinedItem(BlockDropItemEvent event) {
         Block block = event.getBlock();
-        if (!block.hasMetadata(VMConstants.METADATA_KEY_TO_BE_VEINMINED)) {
+        World world = block.getWorld();
+
+        BlockPosition source = plugin.getClaimManager().getOrigin(world.getName(), block.getX(), block.getY(), block.getZ());
+        if (source == null) {
             return;
         }
 
-        if (!plugin.getConfig().getBoolean(VMConstants.CONFIG_COLLECT_ITEMS_AT_SOURCE, true)) {
+        // Aggregated drops are held by the vein until it has finished rather than spawned for every block
+        VeinDropAccumulator accumulator = getDropAccumulator(event.getPlayer(), world, source);
+        if (accumulator != null && accumulator.getMode() != DropAggregationMode.NONE) {
+            List<Item> items = event.getItems();
+            accumulator.add(items.stream().map(Item::getItemStack).toList());
+            items.clear();
             return;
         }
 
-        Location source = null;
-        List<MetadataValue> sourceMetadataValues = block.getMetadata(VMConstants.METADATA_KEY_VEINMINER_SOURCE);
-        for (MetadataValue sourceMetadataValue : sourceMetadataValues) {
-            Object sourceObject = sourceMetadataValue.value();
-            if (sourceObject instanceof Location) {
-                source = (Location) sourceObject;
-            }
+        if (!VeinMinerServer.getInstance().getConfigurationSnapshot().collectItemsAtSource()) {
+            return;
         }
 
+        Location sourceLocation = new Location(world, source.x() + 0.5, source.y() + 0.5, source.z() + 0.5);
+        event.getItems().forEach(item -> item.teleport(sourceLocation));
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    private void onBreakVeinMinedBlock(BlockBreakEvent event) {
+        int experience = event.getExpToDrop();
+        if (experience <= 0) {
+            return;
+        }
+
+        Block block = event.getBlock();
+        World world = block.getWorld();
+
+        BlockPosition source = plugin.getClaimManager().getOrigin(world.getName(), block.getX(), block.getY(), block.getZ());
         if (source == null) {
             return;
         }
 
-        Location sourceFinal = source.clone().add(0.5, 0.5, 0.5);
-        event.getItems().forEach(item -> item.teleport(sourceFinal));
+        // Experience is summed and dropped as one orb once the vein has finished rather than as an orb for every block
+        VeinDropAccumulator accumulator = getDropAccumulator(event.getPlayer(), world, source);
+        if (accumulator != null && accumulator.isCoalescingExperience()) {
+            accumulator.addExperience(experience);
+            event.setExpToDrop(0);
+        }
+    }
+
+    // Get the accumulator of the player's vein if it is the vein with the given source
+    private VeinDropAccumulator getDropAccumulator(Player player, World world, BlockPosition source) {
+        VeinDropAccumulator accumulator = plugin.getDropAccumulators().get(player.getUniqueId());
+        if (accumulator == null) {
+            return null;
+        }
+
+        Block origin = accumulator.getOrigin();
+        if (!origin.getWorld().equals(world) || origin.getX() != source.x() || origin.getY() != source.y() || origin.getZ() != source.z()) {
+            return null;
+        }
+
+        return accumulator;
     }
 
 }
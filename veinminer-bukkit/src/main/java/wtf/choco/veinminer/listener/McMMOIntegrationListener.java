@@ -8,8 +8,9 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.jetbrains.annotations.NotNull;
 
+import wtf.choco.veinminer.VeinMinerPlayer;
 import wtf.choco.veinminer.VeinMinerPlugin;
-import wtf.choco.veinminer.util.VMConstants;
+import wtf.choco.veinminer.VeinMinerServer;
 
 public final class McMMOIntegrationListener implements Listener {
 
@@ -25,7 +26,12 @@ public final class McMMOIntegrationListener implements Listener {
             return;
         }
 
-        if (!plugin.getConfig().getBoolean(VMConstants.CONFIG_NERF_MCMMO, false) || !event.getPlayer().hasMetadata("veinminer:veinmining")) {
+        if (!VeinMinerServer.getInstance().getConfigurationSnapshot().nerfMcMMO()) {
+            return;
+        }
+
+        VeinMinerPlayer veinMinerPlayer = plugin.getPlayerManager().get(event.getPlayer().getUniqueId());
+        if (veinMinerPlayer == null || !veinMinerPlayer.isVeinMining()) {
             return;
         }
 
@@ -2,14 +2,18 @@ package wtf.choco.veinminer.listener;
 
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.metadata.LazyMetadataValue;
 import org.bukkit.metadata.LazyMetadataValue.CacheStrategy;
 import org.jetbrains.annotations.NotNull;
 
-import wtf.choco.veinminer.VeinMiner;
 import wtf.choco.veinminer.VeinMinerPlayer;
 import wtf.choco.veinminer.VeinMinerPlugin;
 import wtf.choco.veinminer.VeinMinerServer;
@@ -42,14 +46,32 @@ public final class PlayerDataListener implements Listener {
             bukkitPlayer.setMetadata(VMConstants.METADATA_KEY_VEINMINING, new LazyMetadataValue(plugin, CacheStrategy.NEVER_CACHE, player::isVeinMining));
 
             // Update the selected pattern on the client
-            player.executeWhenClientIsReady(() -> VeinMiner.PROTOCOL.sendMessageToClient(player, new PluginMessageClientboundSetPattern(player.getVeinMiningPattern().getKey())));
+            player.executeWhenClientIsReady(() -> player.queueMessage(new PluginMessageClientboundSetPattern(player.getVeinMiningPattern().getKey())));
         });
     }
 
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onPlayerChangeGameMode(PlayerGameModeChangeEvent event) {
+        this.invalidateEligibility(event);
+    }
+
+    @EventHandler
+    private void onPlayerChangeWorld(PlayerChangedWorldEvent event) {
+        this.invalidateEligibility(event);
+    }
+
+    // Bukkit has no event for permission changes, but the client's commands are updated after them (by most permission plugins)
+    @EventHandler
+    private void onPlayerCommandSend(PlayerCommandSendEvent event) {
+        this.invalidateEligibility(event);
+    }
+
     @EventHandler
     private void onPlayerLeave(PlayerQuitEvent event) {
         PlatformPlayer platformPlayer = BukkitServerPlatform.getInstance().getPlatformPlayer(event.getPlayer().getUniqueId());
         VeinMinerPlayer veinMinerPlayer = plugin.getPlayerManager().remove(platformPlayer);
+        VeinMinerServer.getInstance().getPreviewSubscriptionManager().unsubscribe(platformPlayer.getUniqueId());
+
         if (veinMinerPlayer == null || !veinMinerPlayer.isDirty()) {
             return;
         }
@@ -60,4 +82,11 @@ public final class PlayerDataListener implements Listener {
         });
     }
 
+    private void invalidateEligibility(PlayerEvent event) {
+        VeinMinerPlayer veinMinerPlayer = plugin.getPlayerManager().get(event.getPlayer().getUniqueId());
+        if (veinMinerPlayer != null) {
+            veinMinerPlayer.invalidateEligibility();
+        }
+    }
+
 }
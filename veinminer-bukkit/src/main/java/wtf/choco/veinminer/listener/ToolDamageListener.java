@@ -0,0 +1,31 @@
+package wtf.choco.veinminer.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerItemDamageEvent;
+import org.jetbrains.annotations.NotNull;
+
+import wtf.choco.veinminer.VeinMinerPlugin;
+import wtf.choco.veinminer.job.BukkitVeinMiningJob;
+
+public final class ToolDamageListener implements Listener {
+
+    private final VeinMinerPlugin plugin;
+
+    public ToolDamageListener(@NotNull VeinMinerPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onDamageItem(PlayerItemDamageEvent event) {
+        BukkitVeinMiningJob job = plugin.getVeinMiningJobs().get(event.getPlayer().getUniqueId());
+        if (job == null) {
+            return;
+        }
+
+        // Other plugins may have raised the damage, in which case the tool may run out sooner than the job expects
+        job.recordToolDamage(event.getDamage());
+    }
+
+}
@@ -0,0 +1,40 @@
+package wtf.choco.veinminer.listener;
+
+import java.util.Set;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.server.ServerCommandEvent;
+
+import wtf.choco.veinminer.integration.WorldGuardIntegration;
+
+public final class WorldGuardIntegrationListener implements Listener {
+
+    private static final Set<String> REGION_COMMANDS = Set.of("region", "regions", "rg", "worldguard", "wg");
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        this.clearCachedResultsIfRegionCommand(event.getMessage().substring(1));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onServerCommand(ServerCommandEvent event) {
+        this.clearCachedResultsIfRegionCommand(event.getCommand());
+    }
+
+    // WorldGuard does not notify of region changes, so cached flag results are cleared whenever its commands (which may change regions or flags) are run
+    private void clearCachedResultsIfRegionCommand(String command) {
+        int labelEnd = command.indexOf(' ');
+        String label = (labelEnd >= 0) ? command.substring(0, labelEnd) : command;
+
+        // Strip the namespace, if any (e.g. "worldguard:rg")
+        label = label.substring(label.indexOf(':') + 1).toLowerCase();
+
+        if (REGION_COMMANDS.contains(label)) {
+            WorldGuardIntegration.clearCachedResults();
+        }
+    }
+
+}
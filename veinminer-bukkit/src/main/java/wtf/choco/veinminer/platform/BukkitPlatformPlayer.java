@@ -6,8 +6,10 @@ import java.util.UUID;
 
 import org.bukkit.Bukkit;
 import org.bukkit.FluidCollisionMode;
+import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -15,6 +17,7 @@ import wtf.choco.veinminer.VeinMinerPlugin;
 import wtf.choco.veinminer.platform.world.BlockAccessor;
 import wtf.choco.veinminer.platform.world.BukkitBlockAccessor;
 import wtf.choco.veinminer.platform.world.BukkitItemStack;
+import wtf.choco.veinminer.platform.world.EyeLocation;
 import wtf.choco.veinminer.platform.world.ItemStack;
 import wtf.choco.veinminer.platform.world.RayTraceResult;
 import wtf.choco.veinminer.util.BlockFace;
@@ -64,6 +67,12 @@ public final class BukkitPlatformPlayer implements PlatformPlayer {
         return BukkitBlockAccessor.forWorld(player.getWorld());
     }
 
+    @NotNull
+    @Override
+    public String getWorldName() {
+        return getPlayerOrThrow().getWorld().getName();
+    }
+
     @NotNull
     @Override
     public ItemStack getItemInMainHand() {
@@ -87,6 +96,14 @@ public final class BukkitPlatformPlayer implements PlatformPlayer {
         return new RayTraceResult(new BlockPosition(targetBlock.getX(), targetBlock.getY(), targetBlock.getZ()), BlockFace.valueOf(targetBlockFace.name()));
     }
 
+    @NotNull
+    @Override
+    public EyeLocation getEyeLocation() {
+        Location eyeLocation = getPlayerOrThrow().getEyeLocation();
+        Vector direction = eyeLocation.getDirection();
+        return new EyeLocation(eyeLocation.getX(), eyeLocation.getY(), eyeLocation.getZ(), direction.getX(), direction.getY(), direction.getZ());
+    }
+
     @NotNull
     @Override
     public UUID getUniqueId() {
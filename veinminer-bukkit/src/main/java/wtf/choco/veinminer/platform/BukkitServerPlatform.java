@@ -172,6 +172,11 @@ public final class BukkitServerPlatform implements ServerPlatform {
         Bukkit.getScheduler().runTaskLater(plugin, runnable, ticks);
     }
 
+    @Override
+    public void runTaskTimer(@NotNull Runnable runnable, int delay, int period) {
+        Bukkit.getScheduler().runTaskTimer(plugin, runnable, delay, period);
+    }
+
     @Override
     public void runTaskAsynchronously(@NotNull Runnable runnable) {
         Bukkit.getScheduler().runTaskAsynchronously(plugin, runnable);
@@ -1,8 +1,9 @@
 package wtf.choco.veinminer.platform.world;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.bukkit.block.data.BlockData;
 import org.jetbrains.annotations.NotNull;
@@ -12,12 +13,17 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class BukkitBlockState implements BlockState {
 
-    private static final Map<BlockData, BlockState> CACHE = new HashMap<>();
+    // Concurrent because chunk snapshots may be compiled off of the server thread
+    private static final Map<BlockData, BlockState> CACHE = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
 
     private final BlockData blockData;
+    private final int id;
 
+    // Only ever invoked once per BlockData by the cache, so ids are dense
     private BukkitBlockState(@NotNull BlockData blockData) {
         this.blockData = blockData;
+        this.id = NEXT_ID.getAndIncrement();
     }
 
     @NotNull
@@ -37,6 +43,11 @@ public final class BukkitBlockState implements BlockState {
         return (state instanceof BukkitBlockState other) && blockData.matches(other.blockData);
     }
 
+    @Override
+    public int getId() {
+        return id;
+    }
+
     /**
      * Get a {@link BlockState} for the given {@link BlockData}.
      *
@@ -2,8 +2,8 @@ package wtf.choco.veinminer.platform.world;
 
 import com.google.common.base.Preconditions;
 
-import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Material;
 import org.jetbrains.annotations.NotNull;
@@ -15,13 +15,16 @@ import wtf.choco.veinminer.util.NamespacedKey;
  */
 public final class BukkitBlockType implements BlockType {
 
-    private static final Map<Material, BlockType> CACHE = new EnumMap<>(Material.class);
+    // Concurrent because chunk snapshots may be read off of the server thread
+    private static final Map<Material, BlockType> CACHE = new ConcurrentHashMap<>();
 
     private final Material material;
     private final NamespacedKey key;
+    private final boolean occluding;
 
     private BukkitBlockType(@NotNull Material material) {
         this.material = material;
+        this.occluding = material.isOccluding();
 
         org.bukkit.NamespacedKey key = material.getKey();
         this.key = new NamespacedKey(key.getNamespace(), key.getKey());
@@ -39,6 +42,11 @@ public final class BukkitBlockType implements BlockType {
         return BukkitBlockState.of(material.createBlockData(states));
     }
 
+    @Override
+    public boolean isOccluding() {
+        return occluding;
+    }
+
     /**
      * Get the Bukkit {@link Material} represented by this {@link BukkitBlockType}.
      *
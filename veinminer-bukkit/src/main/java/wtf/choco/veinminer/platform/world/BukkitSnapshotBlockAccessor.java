@@ -0,0 +1,147 @@
+package wtf.choco.veinminer.platform.world;
+
+import com.google.common.base.Preconditions;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation of {@link BlockAccessor} for Bukkit {@link World Worlds} that reads blocks from
+ * chunk snapshots held by a {@link ChunkSnapshotCache} rather than from the live world.
+ * <p>
+ * Unlike {@link BukkitBlockAccessor}, this accessor may be read from any thread. Every chunk
+ * read by an accessor is pinned to it, so an accessor presents a consistent view of the world
+ * even if the cache is invalidated while it is in use. On the server thread, chunks that have
+ * not yet been pinned are fetched from (or captured into) the cache on demand. Off of the server
+ * thread chunks cannot be captured, so any block in a chunk that was not pinned beforehand (see
+ * {@link #capture(int, int, int)}) is read as air and {@link #hasMissedChunks()} will return true.
+ * <p>
+ * Instances are cheap and are intended to be created for a single allocation. They are
+ * <strong>not</strong> safe for concurrent use by multiple threads, but may be handed off from
+ * the server thread to another thread once populated.
+ */
+public final class BukkitSnapshotBlockAccessor implements BlockAccessor {
+
+    private final Reference<World> world;
+    private final String worldName;
+    private final ChunkSnapshotCache cache;
+
+    private final Map<Long, PalettedChunkSnapshot> chunks = new HashMap<>();
+
+    private int lastChunkX, lastChunkZ;
+    private PalettedChunkSnapshot lastChunk;
+
+    private boolean missedChunks = false;
+
+    /**
+     * Construct a new {@link BukkitSnapshotBlockAccessor}.
+     *
+     * @param world the world whose blocks to read
+     * @param cache the cache from which to read chunk snapshots
+     */
+    public BukkitSnapshotBlockAccessor(@NotNull World world, @NotNull ChunkSnapshotCache cache) {
+        this.world = new WeakReference<>(world);
+        this.worldName = world.getName();
+        this.cache = cache;
+    }
+
+    @NotNull
+    @Override
+    public String getWorldName() {
+        return worldName;
+    }
+
+    @NotNull
+    @Override
+    public BlockType getType(int x, int y, int z) {
+        return getState(x, y, z).getType();
+    }
+
+    @NotNull
+    @Override
+    public BlockState getState(int x, int y, int z) {
+        int chunkX = x >> 4, chunkZ = z >> 4;
+
+        PalettedChunkSnapshot chunk = lastChunk;
+        if (chunk == null || chunkX != lastChunkX || chunkZ != lastChunkZ) {
+            chunk = getChunk(chunkX, chunkZ);
+            if (chunk == null) {
+                this.missedChunks = true;
+                return PalettedChunkSnapshot.AIR;
+            }
+
+            this.lastChunk = chunk;
+            this.lastChunkX = chunkX;
+            this.lastChunkZ = chunkZ;
+        }
+
+        return chunk.getState(x & 15, y, z & 15);
+    }
+
+    /**
+     * Pin every loaded chunk within the given radius of a block position to this accessor,
+     * capturing snapshots of those not already cached. Chunks that are not loaded are ignored.
+     * <p>
+     * This method must be called on the server thread.
+     *
+     * @param blockX the block x coordinate at the centre of the area
+     * @param blockZ the block z coordinate at the centre of the area
+     * @param radius the radius (in blocks) to capture
+     */
+    public void capture(int blockX, int blockZ, int radius) {
+        Preconditions.checkState(Bukkit.isPrimaryThread(), "chunk snapshots must be captured on the server thread");
+
+        World world = this.world.get();
+        if (world == null) {
+            return;
+        }
+
+        for (int chunkX = (blockX - radius) >> 4; chunkX <= (blockX + radius) >> 4; chunkX++) {
+            for (int chunkZ = (blockZ - radius) >> 4; chunkZ <= (blockZ + radius) >> 4; chunkZ++) {
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    this.chunks.put(chunkKey(chunkX, chunkZ), cache.get(world, chunkX, chunkZ));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check whether or not a block was read from a chunk that had not been captured and
+     * could not be captured from the calling thread. If true, blocks in those chunks were
+     * read as air and any result computed with this accessor may be incomplete.
+     *
+     * @return true if a chunk was missed, false otherwise
+     */
+    public boolean hasMissedChunks() {
+        return missedChunks;
+    }
+
+    private PalettedChunkSnapshot getChunk(int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+
+        PalettedChunkSnapshot chunk = chunks.get(key);
+        if (chunk != null || !Bukkit.isPrimaryThread()) {
+            return chunk;
+        }
+
+        World world = this.world.get();
+        if (world == null) {
+            return null;
+        }
+
+        chunk = cache.get(world, chunkX, chunkZ);
+        this.chunks.put(key, chunk);
+        return chunk;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+}
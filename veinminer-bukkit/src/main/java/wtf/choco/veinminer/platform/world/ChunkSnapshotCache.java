@@ -0,0 +1,167 @@
+package wtf.choco.veinminer.platform.world;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A bounded, least-recently-used cache of immutable chunk snapshots from which blocks may be
+ * read on any thread.
+ * <p>
+ * Snapshots may only be captured on the server thread (see
+ * {@link BukkitSnapshotBlockAccessor#capture(int, int, int)}). Entries are expected to be invalidated
+ * whenever a block in their chunk changes, and are otherwise discarded once they reach their
+ * maximum age in order to tolerate changes made without an event (e.g. by other plugins).
+ * <p>
+ * This class is thread-safe.
+ */
+public final class ChunkSnapshotCache {
+
+    private final Map<ChunkKey, PalettedChunkSnapshot> snapshots;
+    private final long maximumAgeNanos;
+
+    /**
+     * Construct a new {@link ChunkSnapshotCache}.
+     *
+     * @param maximumSize the maximum amount of chunks to retain
+     * @param maximumAge the maximum age of a snapshot before it is recaptured
+     * @param unit the unit of the maximum age
+     */
+    public ChunkSnapshotCache(int maximumSize, long maximumAge, @NotNull TimeUnit unit) {
+        Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive");
+
+        this.snapshots = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChunkKey, PalettedChunkSnapshot> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.maximumAgeNanos = unit.toNanos(maximumAge);
+    }
+
+    /**
+     * Get the snapshot of the chunk at the given chunk coordinates if one is cached, and
+     * capture a new one otherwise. This method may load the chunk if it is not yet loaded.
+     *
+     * @param world the world
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     *
+     * @return the chunk snapshot
+     *
+     * @throws IllegalStateException if a snapshot must be captured and this method was not
+     * called on the server thread
+     */
+    @NotNull
+    PalettedChunkSnapshot get(@NotNull World world, int chunkX, int chunkZ) {
+        PalettedChunkSnapshot snapshot = getIfPresent(world, chunkX, chunkZ);
+        return (snapshot != null) ? snapshot : capture(world, chunkX, chunkZ);
+    }
+
+    /**
+     * Get the snapshot of the chunk at the given chunk coordinates if one is cached and has
+     * not yet expired.
+     *
+     * @param world the world
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     *
+     * @return the chunk snapshot, or null if none is cached
+     */
+    @Nullable
+    PalettedChunkSnapshot getIfPresent(@NotNull World world, int chunkX, int chunkZ) {
+        ChunkKey key = new ChunkKey(world.getUID(), chunkX, chunkZ);
+
+        synchronized (snapshots) {
+            PalettedChunkSnapshot snapshot = snapshots.get(key);
+            if (snapshot == null || !isExpired(snapshot, System.nanoTime())) {
+                return snapshot;
+            }
+
+            this.snapshots.remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Invalidate the snapshot of the chunk containing the given {@link Block}.
+     *
+     * @param block the block that changed
+     */
+    public void invalidate(@NotNull Block block) {
+        this.invalidate(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+    }
+
+    /**
+     * Invalidate the snapshot of the chunk at the given chunk coordinates.
+     *
+     * @param world the world
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     */
+    public void invalidate(@NotNull World world, int chunkX, int chunkZ) {
+        synchronized (snapshots) {
+            if (snapshots.isEmpty()) {
+                return;
+            }
+
+            this.snapshots.remove(new ChunkKey(world.getUID(), chunkX, chunkZ));
+        }
+    }
+
+    /**
+     * Invalidate the snapshots of all chunks in the given {@link World}.
+     *
+     * @param world the world
+     */
+    public void invalidateAll(@NotNull World world) {
+        UUID worldId = world.getUID();
+
+        synchronized (snapshots) {
+            Iterator<ChunkKey> iterator = snapshots.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().worldId().equals(worldId)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached snapshots.
+     */
+    public void invalidateAll() {
+        synchronized (snapshots) {
+            this.snapshots.clear();
+        }
+    }
+
+    private PalettedChunkSnapshot capture(World world, int chunkX, int chunkZ) {
+        Preconditions.checkState(Bukkit.isPrimaryThread(), "chunk snapshots must be captured on the server thread");
+
+        PalettedChunkSnapshot snapshot = new PalettedChunkSnapshot(world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false), world.getMinHeight(), world.getMaxHeight());
+
+        synchronized (snapshots) {
+            this.snapshots.put(new ChunkKey(world.getUID(), chunkX, chunkZ), snapshot);
+        }
+
+        return snapshot;
+    }
+
+    private boolean isExpired(PalettedChunkSnapshot snapshot, long now) {
+        return now - snapshot.getCapturedAt() > maximumAgeNanos;
+    }
+
+    private record ChunkKey(@NotNull UUID worldId, int chunkX, int chunkZ) { }
+
+}
@@ -0,0 +1,163 @@
+package wtf.choco.veinminer.platform.world;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable view of the blocks in a single chunk, backed by a Bukkit {@link ChunkSnapshot}.
+ * <p>
+ * Each 16x16x16 section is compiled on first access into a palette of interned
+ * {@link BlockState BlockStates} and an array of palette indices packed at the minimum
+ * amount of bits required to address that palette. Subsequent reads from a compiled section
+ * neither touch the world nor allocate new block data.
+ * <p>
+ * This class is safe to read from any thread.
+ */
+final class PalettedChunkSnapshot {
+
+    static final BlockState AIR = BukkitBlockState.of(Material.AIR.createBlockData());
+
+    private static final int SECTION_VOLUME = 16 * 16 * 16;
+
+    private final ChunkSnapshot snapshot;
+    private final int minHeight, maxHeight;
+    private final long capturedAt;
+
+    // Sections are immutable (final fields only) so a racing compile is harmless
+    private final Section[] sections;
+
+    PalettedChunkSnapshot(@NotNull ChunkSnapshot snapshot, int minHeight, int maxHeight) {
+        this.snapshot = snapshot;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.capturedAt = System.nanoTime();
+        this.sections = new Section[Math.max(0, (maxHeight - minHeight) >> 4)];
+    }
+
+    /**
+     * Get the {@link BlockState} at the given position.
+     *
+     * @param x the x coordinate, relative to the chunk (0 - 15)
+     * @param y the y coordinate in the world
+     * @param z the z coordinate, relative to the chunk (0 - 15)
+     *
+     * @return the block state at the given position. Positions outside of the world's height
+     * are treated as air
+     */
+    @NotNull
+    BlockState getState(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight) {
+            return AIR;
+        }
+
+        int sectionIndex = (y - minHeight) >> 4;
+        Section section = sections[sectionIndex];
+        if (section == null) {
+            section = compileSection(sectionIndex);
+            this.sections[sectionIndex] = section;
+        }
+
+        return section.get(((y & 15) << 8) | (z << 4) | x);
+    }
+
+    /**
+     * Get the value of {@link System#nanoTime()} at the time this snapshot was captured.
+     *
+     * @return the capture time
+     */
+    long getCapturedAt() {
+        return capturedAt;
+    }
+
+    private Section compileSection(int sectionIndex) {
+        if (snapshot.isSectionEmpty(sectionIndex)) {
+            return Section.SINGLE_AIR;
+        }
+
+        int baseY = minHeight + (sectionIndex << 4);
+
+        Map<BlockData, Integer> paletteIds = new HashMap<>();
+        BlockState[] palette = new BlockState[16];
+        int paletteSize = 0;
+
+        int[] indices = new int[SECTION_VOLUME];
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    BlockData data = snapshot.getBlockData(x, baseY + y, z);
+
+                    Integer id = paletteIds.get(data);
+                    if (id == null) {
+                        id = paletteSize;
+                        paletteIds.put(data, id);
+
+                        if (paletteSize == palette.length) {
+                            BlockState[] newPalette = new BlockState[palette.length << 1];
+                            System.arraycopy(palette, 0, newPalette, 0, paletteSize);
+                            palette = newPalette;
+                        }
+
+                        palette[paletteSize++] = BukkitBlockState.of(data);
+                    }
+
+                    indices[(y << 8) | (z << 4) | x] = id;
+                }
+            }
+        }
+
+        return Section.pack(palette, paletteSize, indices);
+    }
+
+    private static final class Section {
+
+        private static final Section SINGLE_AIR = new Section(new BlockState[] { AIR }, 0, null);
+
+        private final BlockState[] palette;
+        private final int bitsPerEntry;
+        private final long[] data;
+
+        private Section(BlockState[] palette, int bitsPerEntry, long[] data) {
+            this.palette = palette;
+            this.bitsPerEntry = bitsPerEntry;
+            this.data = data;
+        }
+
+        private BlockState get(int index) {
+            if (data == null) {
+                return palette[0];
+            }
+
+            // Entries never span two longs, matching the vanilla palette storage layout
+            int entriesPerLong = 64 / bitsPerEntry;
+            long word = data[index / entriesPerLong];
+            int shift = (index % entriesPerLong) * bitsPerEntry;
+            return palette[(int) ((word >>> shift) & ((1L << bitsPerEntry) - 1))];
+        }
+
+        private static Section pack(BlockState[] palette, int paletteSize, int[] indices) {
+            BlockState[] trimmedPalette = new BlockState[paletteSize];
+            System.arraycopy(palette, 0, trimmedPalette, 0, paletteSize);
+
+            if (paletteSize == 1) {
+                return new Section(trimmedPalette, 0, null);
+            }
+
+            int bitsPerEntry = 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+            int entriesPerLong = 64 / bitsPerEntry;
+            long[] data = new long[(indices.length + entriesPerLong - 1) / entriesPerLong];
+
+            for (int i = 0; i < indices.length; i++) {
+                data[i / entriesPerLong] |= ((long) indices[i]) << ((i % entriesPerLong) * bitsPerEntry);
+            }
+
+            return new Section(trimmedPalette, bitsPerEntry, data);
+        }
+
+    }
+
+}
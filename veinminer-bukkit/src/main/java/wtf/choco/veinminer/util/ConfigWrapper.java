@@ -91,15 +91,37 @@ public final class ConfigWrapper {
      * Reload values from file into memory.
      */
     public void reload() {
-        this.config = YamlConfiguration.loadConfiguration(file);
+        this.config = load();
+    }
+
+    /**
+     * Load the values of the file into a new {@link FileConfiguration}, including its defaults,
+     * without replacing the config returned by {@link #asRawConfig()}. Unlike {@link #reload()},
+     * this may be called off the server thread.
+     *
+     * @return the loaded config
+     */
+    @NotNull
+    public FileConfiguration load() {
+        FileConfiguration config = YamlConfiguration.loadConfiguration(file);
 
         // Loading defaults if necessary
         final InputStream defaultConfigStream = plugin.getResource(rawPath);
-        if (defaultConfigStream == null) {
-            return;
+        if (defaultConfigStream != null) {
+            config.setDefaults(YamlConfiguration.loadConfiguration(new InputStreamReader(defaultConfigStream, Charsets.UTF_8)));
         }
 
-        this.config.setDefaults(YamlConfiguration.loadConfiguration(new InputStreamReader(defaultConfigStream, Charsets.UTF_8)));
+        return config;
+    }
+
+    /**
+     * Replace the config returned by {@link #asRawConfig()}, such as with one returned by
+     * {@link #load()}.
+     *
+     * @param config the new config
+     */
+    public void setRawConfig(@NotNull FileConfiguration config) {
+        this.config = config;
     }
 
 }
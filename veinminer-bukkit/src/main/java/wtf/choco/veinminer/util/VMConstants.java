@@ -52,6 +52,17 @@ public final class VMConstants {
 
     public static final String CONFIG_ALIASES = "Aliases";
 
+    public static final String CONFIG_PERFORMANCE_ASYNC_ALLOCATION = "Performance.AsyncAllocation";
+    public static final String CONFIG_PERFORMANCE_MAX_BLOCKS_PER_TICK = "Performance.MaxBlocksPerTick";
+    public static final String CONFIG_PERFORMANCE_MAX_MICROSECONDS_PER_TICK = "Performance.MaxMicrosecondsPerTick";
+    public static final String CONFIG_PERFORMANCE_GLOBAL_BLOCKS_PER_TICK = "Performance.GlobalBlocksPerTick";
+    public static final String CONFIG_PERFORMANCE_DROP_AGGREGATION = "Performance.DropAggregation";
+    public static final String CONFIG_PERFORMANCE_COALESCE_EXPERIENCE = "Performance.CoalesceExperience";
+    public static final String CONFIG_PERFORMANCE_BULK_BREAK = "Performance.BulkBreak";
+    public static final String CONFIG_PERFORMANCE_PREVIEWS_MINIMUM_INTERVAL = "Performance.Previews.MinimumInterval";
+    public static final String CONFIG_PERFORMANCE_PREVIEWS_REQUESTS_PER_SECOND = "Performance.Previews.RequestsPerSecond";
+    public static final String CONFIG_PERFORMANCE_PREVIEWS_BURST = "Performance.Previews.Burst";
+
 
     // Permission nodes
     public static final String PERMISSION_FREE_ECONOMY = "veinminer.free.economy";
@@ -66,9 +77,6 @@ public final class VMConstants {
 
 
     // Metadata keys
-    public static final String METADATA_KEY_TO_BE_VEINMINED = "veinminer:to_be_veinmined";
-    public static final String METADATA_KEY_VEINMINER_SOURCE = "veinminer:source";
-
     public static final String METADATA_KEY_VEINMINING = "veinminer:vein_mining";
     public static final String METADATA_KEY_VEIN_MINER_ACTIVE = "veinminer:vein_miner_active";
 
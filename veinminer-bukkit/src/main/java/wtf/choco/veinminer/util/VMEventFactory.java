@@ -10,6 +10,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import wtf.choco.veinminer.api.event.player.PlayerClientActivateVeinMinerEvent;
+import wtf.choco.veinminer.api.event.player.PlayerVeinBulkBreakEvent;
 import wtf.choco.veinminer.api.event.player.PlayerVeinMineEvent;
 import wtf.choco.veinminer.api.event.player.PlayerVeinMiningPatternChangeEvent;
 import wtf.choco.veinminer.block.VeinMinerBlock;
@@ -43,6 +44,22 @@ public final class VMEventFactory {
         return event;
     }
 
+    /**
+     * Call the {@link PlayerVeinBulkBreakEvent}.
+     *
+     * @param player the player
+     * @param origin the origin block that was broken by the player
+     * @param blocks the blocks to be broken in bulk
+     *
+     * @return the event
+     */
+    @NotNull
+    public static PlayerVeinBulkBreakEvent callPlayerVeinBulkBreakEvent(@NotNull Player player, @NotNull Block origin, @NotNull Set<Block> blocks) {
+        PlayerVeinBulkBreakEvent event = new PlayerVeinBulkBreakEvent(player, origin, blocks);
+        Bukkit.getPluginManager().callEvent(event);
+        return event;
+    }
+
     /**
      * Call the {@link PlayerClientActivateVeinMinerEvent}.
      *
@@ -43,7 +43,14 @@ public interface VeinMiner {
      *
      * @see PluginMessageProtocol#getVersion() VeinMiner.PROTOCOL.getVersion()
      */
-    public static final int PROTOCOL_VERSION = 1;
+    public static final int PROTOCOL_VERSION = 3;
+
+    /**
+     * The oldest version of the VeinMiner protocol with which clients are still accepted by
+     * the server. Messages whose encoding changed since are written according to the version
+     * negotiated during the handshake.
+     */
+    public static final int MINIMUM_PROTOCOL_VERSION = 1;
 
     /**
      * VeinMiner's messaging protocol.
@@ -63,6 +70,7 @@ public interface VeinMiner {
                 .registerMessage(PluginMessageClientboundSetConfig.class, PluginMessageClientboundSetConfig::new)
                 .registerMessage(PluginMessageClientboundVeinMineResults.class, PluginMessageClientboundVeinMineResults::new)
                 .registerMessage(PluginMessageClientboundSetPattern.class, PluginMessageClientboundSetPattern::new)
+                .registerBundleMessage()
     );
 
     /**
@@ -0,0 +1,151 @@
+package wtf.choco.veinminer.network;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The compression state of a single connection on which message compression was negotiated
+ * during the handshake.
+ * <p>
+ * Once negotiated, every message on the connection is prefixed by a header byte recording
+ * whether or not the message was compressed:
+ * <ul>
+ *   <li><strong>0</strong>: followed by the message id and message data, uncompressed
+ *   <li><strong>1</strong>: followed by a VarInt, the uncompressed size, and the deflated
+ *   message id and message data
+ * </ul>
+ * Messages are only compressed if their uncompressed size is at least the threshold, below
+ * which compression rarely pays for itself. The {@link Deflater} and {@link Inflater} are
+ * reused for every message on the connection and their native resources are released when
+ * this object is garbage collected.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class MessageCompression {
+
+    /**
+     * The default size in bytes from which messages are compressed.
+     */
+    public static final int DEFAULT_THRESHOLD = 256;
+
+    /**
+     * The maximum uncompressed size of a message that will be inflated.
+     */
+    public static final int MAXIMUM_UNCOMPRESSED_SIZE = 8 * 1024 * 1024;
+
+    private static final byte HEADER_UNCOMPRESSED = 0;
+    private static final byte HEADER_COMPRESSED = 1;
+
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final Inflater inflater = new Inflater();
+    private final int threshold;
+
+    /**
+     * Construct a new {@link MessageCompression}.
+     *
+     * @param threshold the size in bytes from which messages should be compressed
+     */
+    public MessageCompression(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+
+        this.threshold = threshold;
+    }
+
+    /**
+     * Construct a new {@link MessageCompression} with the {@link #DEFAULT_THRESHOLD}.
+     */
+    public MessageCompression() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Get the size in bytes from which messages are compressed.
+     *
+     * @return the threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Write the header and the (possibly compressed) bytes written to the given message buffer
+     * into the destination buffer.
+     *
+     * @param message the buffer containing the message id and message data
+     * @param destination the buffer to which the compressed message should be written
+     */
+    public void compress(@NotNull PluginMessageByteBuffer message, @NotNull PluginMessageByteBuffer destination) {
+        ByteBuffer bytes = message.asByteBuffer();
+        int size = bytes.remaining();
+
+        if (size < threshold) {
+            destination.writeByte(HEADER_UNCOMPRESSED);
+            destination.writeBytes(bytes);
+            return;
+        }
+
+        destination.writeByte(HEADER_COMPRESSED);
+        destination.writeVarInt(size);
+
+        synchronized (deflater) {
+            this.deflater.reset();
+            this.deflater.setInput(bytes);
+            this.deflater.finish();
+
+            while (!deflater.finished()) {
+                this.deflater.deflate(destination.reserve(Math.max(size >> 2, 64)));
+            }
+        }
+    }
+
+    /**
+     * Read the header from the given buffer and decompress the remaining bytes if necessary.
+     *
+     * @param buffer the buffer from which to read
+     *
+     * @return a buffer from which the message id and message data may be read. May be the
+     * given buffer if the message was not compressed
+     *
+     * @throws IllegalStateException if the header is unknown or the compressed data is malformed
+     */
+    @NotNull
+    public PluginMessageByteBuffer decompress(@NotNull PluginMessageByteBuffer buffer) {
+        byte header = buffer.readByte();
+        if (header == HEADER_UNCOMPRESSED) {
+            return buffer;
+        }
+
+        if (header != HEADER_COMPRESSED) {
+            throw new IllegalStateException("Unknown compression header, " + header);
+        }
+
+        int size = buffer.readVarInt();
+        if (size < 0 || size > MAXIMUM_UNCOMPRESSED_SIZE) {
+            throw new IllegalStateException("Invalid uncompressed message size, " + size);
+        }
+
+        byte[] data = new byte[size];
+
+        synchronized (inflater) {
+            this.inflater.reset();
+            this.inflater.setInput(buffer.readBytes());
+
+            try {
+                if (inflater.inflate(data) != size || !inflater.finished()) {
+                    throw new IllegalStateException("Compressed message size does not match its declared size, " + size);
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Malformed compressed message", e);
+            }
+        }
+
+        return new PluginMessageByteBuffer(data);
+    }
+
+}
@@ -1,6 +1,7 @@
 package wtf.choco.veinminer.network;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import wtf.choco.veinminer.util.NamespacedKey;
 
@@ -17,4 +18,31 @@ public interface MessageReceiver {
      */
     public void sendMessage(@NotNull NamespacedKey channel, byte[] message);
 
+    /**
+     * Send a message represented by the bytes written to the given buffer on the specified
+     * channel.
+     * <p>
+     * The buffer is reused once this method returns, so its content must be consumed or copied
+     * before then. By default, the content is copied to a byte array and sent with
+     * {@link #sendMessage(NamespacedKey, byte[])}. Implementations able to write directly into
+     * their platform's send buffer should override this method to avoid the intermediate array.
+     *
+     * @param channel the channel on which the message should be sent
+     * @param message the buffer containing the message bytes to be sent
+     */
+    public default void sendMessage(@NotNull NamespacedKey channel, @NotNull PluginMessageByteBuffer message) {
+        this.sendMessage(channel, message.asByteArray());
+    }
+
+    /**
+     * Get the {@link MessageCompression} with which messages sent to this receiver should be
+     * compressed, if compression was negotiated with it.
+     *
+     * @return the compression, or null if messages should be sent uncompressed
+     */
+    @Nullable
+    public default MessageCompression getMessageCompression() {
+        return null;
+    }
+
 }
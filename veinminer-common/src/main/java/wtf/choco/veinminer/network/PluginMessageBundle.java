@@ -0,0 +1,108 @@
+package wtf.choco.veinminer.network;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import wtf.choco.veinminer.documentation.Documentation;
+import wtf.choco.veinminer.documentation.MessageField;
+import wtf.choco.veinminer.documentation.ProtocolMessageDocumentation;
+
+/**
+ * A {@link PluginMessage} carrying several other messages of the same direction in a single
+ * frame, including the following data:
+ * <ol>
+ *   <li><strong>VarInt</strong>: The amount of messages
+ *   <li><strong>Array of</strong>:
+ *   <ul>
+ *     <li><strong>VarInt</strong>: The length of the message (including its id)
+ *     <li><strong>VarInt</strong>: The id of the message
+ *     <li>The message data
+ *   </ul>
+ * </ol>
+ * Bundles are registered to a {@link PluginMessageRegistry} with
+ * {@link PluginMessageRegistry#registerBundleMessage()} and are sent with
+ * {@link PluginMessageProtocol#sendMessagesToClient(MessageReceiver, List)}. When handled,
+ * every bundled message is handled in order.
+ *
+ * @param <T> the type of plugin message listener for the bundled messages
+ */
+public final class PluginMessageBundle<T extends PluginMessageListener> implements PluginMessage<T> {
+
+    private final PluginMessageRegistry<T> registry;
+    private final List<PluginMessage<T>> messages;
+
+    PluginMessageBundle(@NotNull PluginMessageRegistry<T> registry, @NotNull List<? extends PluginMessage<T>> messages) {
+        this.registry = registry;
+        this.messages = Collections.unmodifiableList(messages);
+    }
+
+    PluginMessageBundle(@NotNull PluginMessageRegistry<T> registry, @NotNull PluginMessageByteBuffer buffer) {
+        this.registry = registry;
+
+        int size = buffer.readVarInt();
+        List<PluginMessage<T>> messages = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            PluginMessageByteBuffer messageBuffer = new PluginMessageByteBuffer(buffer.readBytes(buffer.readVarInt()));
+            PluginMessage<T> message = registry.createPluginMessage(messageBuffer.readVarInt(), messageBuffer);
+
+            // Unknown messages are skipped, just as they are when sent on their own
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+
+        this.messages = Collections.unmodifiableList(messages);
+    }
+
+    /**
+     * Get the messages in this bundle in the order in which they are handled.
+     *
+     * @return the bundled messages
+     */
+    @NotNull
+    @Unmodifiable
+    public List<PluginMessage<T>> getMessages() {
+        return messages;
+    }
+
+    @Override
+    public void write(@NotNull PluginMessageByteBuffer buffer) {
+        buffer.writeVarInt(messages.size());
+
+        PluginMessageByteBuffer messageBuffer = new PluginMessageByteBuffer();
+        for (PluginMessage<T> message : messages) {
+            int messageId = registry.getPluginMessageId(message.getClass());
+            if (messageId < 0) {
+                throw new IllegalStateException("Invalid plugin message, " + message.getClass().getName() + ". Is it registered?");
+            }
+
+            messageBuffer.clear();
+            messageBuffer.writeVarInt(messageId);
+            message.write(messageBuffer);
+
+            buffer.writeVarInt(messageBuffer.size());
+            buffer.writeBytes(messageBuffer.asByteBuffer());
+        }
+    }
+
+    @Override
+    public void handle(@NotNull T listener) {
+        this.messages.forEach(message -> message.handle(listener));
+    }
+
+    @Documentation
+    private static void document(ProtocolMessageDocumentation.Builder documentation) {
+        documentation.name("Bundle")
+            .description("""
+                    Carries several messages in a single frame. The bundled messages are handled in the order in which they are listed. Only sent to clients that declared support for bundles (capability 0x02) in their Handshake.
+                    """)
+            .field(MessageField.TYPE_VARINT, "Size", "The amount of bundled messages")
+            .field(MessageField.TYPE_ARRAY_OF.apply(MessageField.TYPE_BYTE), "Messages", "For each message, a VarInt length followed by that many bytes: the VarInt id of the message followed by its data");
+    }
+
+}
@@ -1,7 +1,7 @@
 package wtf.choco.veinminer.network;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
 import org.jetbrains.annotations.NotNull;
@@ -11,11 +11,19 @@ import wtf.choco.veinminer.util.NamespacedKey;
 
 /**
  * A utility class to allow for reading and writing of complex types to/from a byte array.
+ * <p>
+ * Buffers intended for writing are backed by a growable {@link ByteBuffer} which may be
+ * {@link #clear() cleared} and reused for any number of messages, avoiding an allocation per
+ * message. The written bytes may either be copied to an array with {@link #asByteArray()} or
+ * read directly with {@link #asByteBuffer()}.
  */
 public class PluginMessageByteBuffer {
 
+    private static final int DEFAULT_INITIAL_CAPACITY = 256;
+
     private ByteBuffer inputBuffer;
-    private ByteArrayOutputStream outputStream;
+    private ByteBuffer outputBuffer;
+    private boolean direct;
 
     /**
      * Construct a new {@link PluginMessageByteBuffer} wrapping a {@link ByteBuffer}.
@@ -38,10 +46,27 @@ public class PluginMessageByteBuffer {
     }
 
     /**
-     * Construct a new {@link PluginMessageByteBuffer}. Intended for writing data.
+     * Construct a new {@link PluginMessageByteBuffer} backed by a heap or direct buffer of the
+     * given initial capacity. The buffer grows as necessary. Intended for writing data.
+     *
+     * @param initialCapacity the initial capacity in bytes
+     * @param direct whether or not to back this buffer with a direct buffer
+     */
+    public PluginMessageByteBuffer(int initialCapacity, boolean direct) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity must be positive");
+        }
+
+        this.outputBuffer = allocate(initialCapacity, direct);
+        this.direct = direct;
+    }
+
+    /**
+     * Construct a new {@link PluginMessageByteBuffer} backed by a heap buffer. Intended for
+     * writing data.
      */
     public PluginMessageByteBuffer() {
-        this.outputStream = new ByteArrayOutputStream();
+        this(DEFAULT_INITIAL_CAPACITY, false);
     }
 
     /**
@@ -50,12 +75,8 @@ public class PluginMessageByteBuffer {
      * @param value the value to write
      */
     public void writeInt(int value) {
-        this.ensureWriting();
-
-        for (int i = Integer.BYTES; i > 0; i--) {
-            this.writeByte((byte) (value & 0xFF));
-            value >>= 8;
-        }
+        this.ensureWriting(Integer.BYTES);
+        this.outputBuffer.putInt(value);
     }
 
     /**
@@ -81,15 +102,15 @@ public class PluginMessageByteBuffer {
      * @param value the value to write
      */
     public void writeVarInt(int value) {
-        this.ensureWriting();
+        this.ensureWriting(5);
 
         while (true) {
             if ((value & ~0x7F) == 0) {
-                this.writeByte(value);
+                this.outputBuffer.put((byte) value);
                 return;
             }
 
-            this.writeByte((value & 0x7F) | 0x80);
+            this.outputBuffer.put((byte) ((value & 0x7F) | 0x80));
             value >>>= 7;
         }
     }
@@ -131,12 +152,8 @@ public class PluginMessageByteBuffer {
      * @param value the value to write
      */
     public void writeLong(long value) {
-        this.ensureWriting();
-
-        for (int i = Long.BYTES; i > 0; i--) {
-            this.writeByte((byte) (value & 0xFF));
-            value >>= 8;
-        }
+        this.ensureWriting(Long.BYTES);
+        this.outputBuffer.putLong(value);
     }
 
     /**
@@ -162,15 +179,15 @@ public class PluginMessageByteBuffer {
      * @param value the value to write
      */
     public void writeVarLong(long value) {
-        this.ensureWriting();
+        this.ensureWriting(10);
 
         while (true) {
             if ((value & ~0x7F) == 0) {
-                this.writeByte((byte) value);
+                this.outputBuffer.put((byte) value);
                 return;
             }
 
-            this.writeByte((byte) (value & 0x7F) | 0x80);
+            this.outputBuffer.put((byte) ((value & 0x7F) | 0x80));
             value >>>= 7;
         }
     }
@@ -211,8 +228,19 @@ public class PluginMessageByteBuffer {
      * @param value the value to write
      */
     public void writeBoolean(boolean value) {
-        this.ensureWriting();
-        this.outputStream.write(value ? (byte) 1 : 0);
+        this.ensureWriting(1);
+        this.outputBuffer.put(value ? (byte) 1 : 0);
+    }
+
+    /**
+     * Check whether or not there are any bytes remaining to be read from this buffer. Useful
+     * to read optional trailing fields that may not be sent by older versions of the protocol.
+     *
+     * @return true if readable, false otherwise
+     */
+    public boolean isReadable() {
+        this.ensureReading();
+        return inputBuffer.hasRemaining();
     }
 
     /**
@@ -252,8 +280,18 @@ public class PluginMessageByteBuffer {
      * @param bytes the bytes to write
      */
     public void writeBytes(byte[] bytes) {
-        this.ensureWriting();
-        this.outputStream.writeBytes(bytes);
+        this.ensureWriting(bytes.length);
+        this.outputBuffer.put(bytes);
+    }
+
+    /**
+     * Write the remaining bytes of a {@link ByteBuffer}.
+     *
+     * @param bytes the bytes to write
+     */
+    public void writeBytes(@NotNull ByteBuffer bytes) {
+        this.ensureWriting(bytes.remaining());
+        this.outputBuffer.put(bytes);
     }
 
     /**
@@ -326,8 +364,8 @@ public class PluginMessageByteBuffer {
      * @param value the value to write
      */
     public void writeByte(byte value) {
-        this.ensureWriting();
-        this.outputStream.write(value);
+        this.ensureWriting(1);
+        this.outputBuffer.put(value);
     }
 
     /**
@@ -336,8 +374,8 @@ public class PluginMessageByteBuffer {
      * @param value the value to write
      */
     public void writeByte(int value) {
-        this.ensureWriting();
-        this.outputStream.write((byte) value);
+        this.ensureWriting(1);
+        this.outputBuffer.put((byte) value);
     }
 
     /**
@@ -399,7 +437,58 @@ public class PluginMessageByteBuffer {
      */
     public byte[] asByteArray() {
         this.ensureWriting();
-        return outputStream.toByteArray();
+
+        byte[] bytes = new byte[outputBuffer.position()];
+        this.outputBuffer.get(0, bytes);
+        return bytes;
+    }
+
+    /**
+     * Get a read-only view of the bytes written to this buffer (for writing). The view shares
+     * its content with this buffer and is only valid until this buffer is next written to or
+     * {@link #clear() cleared}.
+     *
+     * @return the written bytes
+     */
+    @NotNull
+    public ByteBuffer asByteBuffer() {
+        this.ensureWriting();
+        return outputBuffer.asReadOnlyBuffer().flip();
+    }
+
+    /**
+     * Get the amount of bytes written to this buffer (for writing).
+     *
+     * @return the amount of written bytes
+     */
+    public int size() {
+        this.ensureWriting();
+        return outputBuffer.position();
+    }
+
+    /**
+     * Get the amount of bytes this buffer is able to hold before it must grow (for writing).
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        this.ensureWriting();
+        return outputBuffer.capacity();
+    }
+
+    /**
+     * Discard all bytes written to this buffer so that it may be reused to write another
+     * message. The capacity of the buffer is retained.
+     */
+    public void clear() {
+        this.ensureWriting();
+        this.outputBuffer.clear();
+    }
+
+    // Exposes the backing buffer, with room for at least the given amount of bytes, to be written into directly
+    ByteBuffer reserve(int bytes) {
+        this.ensureWriting(bytes);
+        return outputBuffer;
     }
 
     private void ensureReading() {
@@ -409,9 +498,31 @@ public class PluginMessageByteBuffer {
     }
 
     private void ensureWriting() {
-        if (outputStream == null) {
+        if (outputBuffer == null) {
             throw new IllegalStateException("Cannot write to a read-only buffer");
         }
     }
 
+    private void ensureWriting(int bytes) {
+        this.ensureWriting();
+
+        if (outputBuffer.remaining() >= bytes) {
+            return;
+        }
+
+        int required = outputBuffer.position() + bytes;
+        if (required < 0) {
+            throw new IllegalStateException("Buffer cannot grow beyond " + Integer.MAX_VALUE + " bytes");
+        }
+
+        ByteBuffer grown = allocate(Math.max(required, (int) Math.min(outputBuffer.capacity() * 2L, Integer.MAX_VALUE)), direct);
+        grown.put(outputBuffer.flip());
+        this.outputBuffer = grown;
+    }
+
+    // Little endian to remain compatible with the byte order in which ints and longs have always been written
+    private static ByteBuffer allocate(int capacity, boolean direct) {
+        return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
 }
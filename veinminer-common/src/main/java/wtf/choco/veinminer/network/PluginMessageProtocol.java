@@ -1,6 +1,7 @@
 package wtf.choco.veinminer.network;
 
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -44,7 +45,12 @@ public final class PluginMessageProtocol {
     private final NamespacedKey channel;
     private final int version;
 
+    // Buffers are only ever retained up to this size so that a single large message does not pin its memory forever
+    private static final int MAXIMUM_POOLED_BUFFER_CAPACITY = 64 * 1024;
+
     private final Map<MessageDirection, PluginMessageRegistry<?>> registries = new EnumMap<>(MessageDirection.class);
+    private final ThreadLocal<PluginMessageByteBuffer> writeBuffer = ThreadLocal.withInitial(PluginMessageByteBuffer::new);
+    private final ThreadLocal<PluginMessageByteBuffer> compressionBuffer = ThreadLocal.withInitial(PluginMessageByteBuffer::new);
 
     /**
      * Construct a new {@link PluginMessageProtocol}.
@@ -107,17 +113,57 @@ public final class PluginMessageProtocol {
         this.sendMessageTo(MessageDirection.SERVERBOUND, receiver, message);
     }
 
+    /**
+     * Send several client-bound {@link PluginMessage PluginMessages} to the given
+     * {@link MessageReceiver} in a single {@link PluginMessageBundle}. The receiver must support
+     * bundles and the client-bound registry must have them
+     * {@link PluginMessageRegistry#registerBundleMessage() registered}.
+     *
+     * @param receiver the receiver to which the messages should be sent
+     * @param messages the messages to send, in the order in which they should be handled
+     */
+    @SuppressWarnings("unchecked")
+    public void sendMessagesToClient(@NotNull MessageReceiver receiver, @NotNull List<? extends PluginMessage<ClientboundPluginMessageListener>> messages) {
+        PluginMessageRegistry<ClientboundPluginMessageListener> registry = (PluginMessageRegistry<ClientboundPluginMessageListener>) registries.get(MessageDirection.CLIENTBOUND);
+        this.sendMessageTo(MessageDirection.CLIENTBOUND, receiver, new PluginMessageBundle<>(registry, messages));
+    }
+
     private void sendMessageTo(@NotNull MessageDirection direction, @NotNull MessageReceiver receiver, @NotNull PluginMessage<?> message) {
         int messageId = registries.get(direction).getPluginMessageId(message.getClass());
         if (messageId < 0) {
             throw new IllegalStateException("Invalid plugin message, " + message.getClass().getName() + ". Is it registered?");
         }
 
-        PluginMessageByteBuffer buffer = new PluginMessageByteBuffer();
-        buffer.writeVarInt(messageId);
-        message.write(buffer);
-
-        receiver.sendMessage(channel, buffer.asByteArray());
+        // Messages are written into a per-thread buffer that is reused for every message sent from that thread
+        PluginMessageByteBuffer buffer = writeBuffer.get();
+        buffer.clear();
+
+        try {
+            buffer.writeVarInt(messageId);
+            message.write(buffer);
+
+            MessageCompression compression = receiver.getMessageCompression();
+            if (compression == null) {
+                receiver.sendMessage(channel, buffer);
+                return;
+            }
+
+            PluginMessageByteBuffer compressedBuffer = compressionBuffer.get();
+            compressedBuffer.clear();
+
+            try {
+                compression.compress(buffer, compressedBuffer);
+                receiver.sendMessage(channel, compressedBuffer);
+            } finally {
+                if (compressedBuffer.capacity() > MAXIMUM_POOLED_BUFFER_CAPACITY) {
+                    this.compressionBuffer.remove();
+                }
+            }
+        } finally {
+            if (buffer.capacity() > MAXIMUM_POOLED_BUFFER_CAPACITY) {
+                this.writeBuffer.remove();
+            }
+        }
     }
 
     /**
@@ -49,6 +49,18 @@ public final class PluginMessageRegistry<T extends PluginMessageListener> {
         return this;
     }
 
+    /**
+     * Register the {@link PluginMessageBundle} to this protocol, allowing several messages
+     * registered to this registry to be sent in a single frame.
+     *
+     * @return this instance. Allows for chained message calls
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public PluginMessageRegistry<T> registerBundleMessage() {
+        return registerMessage((Class<PluginMessageBundle<T>>) (Class<?>) PluginMessageBundle.class, buffer -> new PluginMessageBundle<>(this, buffer));
+    }
+
     /**
      * Get the amount of messages registered to this message registry.
      *
@@ -76,10 +88,14 @@ public final class PluginMessageRegistry<T extends PluginMessageListener> {
      * @param messageId the id of the message to create
      * @param buffer the buffer containing message data
      *
-     * @return the created message
+     * @return the created message, or null if no message is registered with the given id
      */
     @Nullable
     public PluginMessage<T> createPluginMessage(int messageId, @NotNull PluginMessageByteBuffer buffer) {
+        if (messageId < 0 || messageId >= messageConstructors.size()) {
+            return null;
+        }
+
         Function<PluginMessageByteBuffer, ? extends PluginMessage<T>> messageConstructor = messageConstructors.get(messageId);
         return (messageConstructor != null) ? messageConstructor.apply(buffer) : null;
     }
@@ -4,6 +4,7 @@ import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
 
 import wtf.choco.veinminer.documentation.Documentation;
+import wtf.choco.veinminer.documentation.MessageField;
 import wtf.choco.veinminer.documentation.ProtocolMessageDocumentation;
 import wtf.choco.veinminer.network.PluginMessage;
 import wtf.choco.veinminer.network.PluginMessageByteBuffer;
@@ -11,22 +12,42 @@ import wtf.choco.veinminer.network.protocol.ClientboundPluginMessageListener;
 import wtf.choco.veinminer.network.protocol.serverbound.PluginMessageServerboundHandshake;
 
 /**
- * A client bound {@link PluginMessage} with no data.
- * <p>
+ * A client bound {@link PluginMessage} including the following data:
+ * <ol>
+ *   <li><strong>VarInt</strong>: capabilities (only sent to clients with a protocol version of
+ *   at least {@link PluginMessageServerboundHandshake#CAPABILITIES_PROTOCOL_VERSION})
+ * </ol>
  * Sent in response to the client sending the {@link PluginMessageServerboundHandshake} message.
  */
 public final class PluginMessageClientboundHandshakeResponse implements PluginMessage<ClientboundPluginMessageListener> {
 
-    /*
-     * At the moment, this message serves no purpose other than to inform the client that
-     * the server has acknowledged its presence. In the future, this message may be used to return
-     * to the client crucial information.
+    private final boolean writeCapabilities;
+    private final int capabilities;
+
+    /**
+     * Construct a new {@link PluginMessageClientboundHandshakeResponse} enabling the given
+     * capabilities. Capabilities are features supported by both the client and the server,
+     * and take effect for all messages sent after this one.
+     *
+     * @param capabilities the bitmask of enabled capabilities
+     *
+     * @see PluginMessageServerboundHandshake#CAPABILITY_COMPRESSION
+     * @see PluginMessageServerboundHandshake#CAPABILITY_BUNDLES
+     * @see PluginMessageServerboundHandshake#CAPABILITY_PREVIEW_SUBSCRIPTIONS
      */
+    public PluginMessageClientboundHandshakeResponse(int capabilities) {
+        this.writeCapabilities = true;
+        this.capabilities = capabilities;
+    }
 
     /**
-     * Construct a new {@link PluginMessageClientboundHandshakeResponse}.
+     * Construct a new {@link PluginMessageClientboundHandshakeResponse} with no data for clients
+     * on a protocol version older than {@link PluginMessageServerboundHandshake#CAPABILITIES_PROTOCOL_VERSION}.
      */
-    public PluginMessageClientboundHandshakeResponse() { }
+    public PluginMessageClientboundHandshakeResponse() {
+        this.writeCapabilities = false;
+        this.capabilities = 0;
+    }
 
     /**
      * Construct a new {@link PluginMessageClientboundHandshakeResponse} with input.
@@ -34,10 +55,37 @@ public final class PluginMessageClientboundHandshakeResponse implements PluginMe
      * @param buffer the input buffer
      */
     @Internal
-    public PluginMessageClientboundHandshakeResponse(@NotNull PluginMessageByteBuffer buffer) { }
+    public PluginMessageClientboundHandshakeResponse(@NotNull PluginMessageByteBuffer buffer) {
+        this.writeCapabilities = true;
+        this.capabilities = buffer.readVarInt();
+    }
+
+    /**
+     * Get the bitmask of capabilities enabled by the server.
+     *
+     * @return the capabilities
+     */
+    public int getCapabilities() {
+        return capabilities;
+    }
+
+    /**
+     * Check whether or not the server enabled the given capability.
+     *
+     * @param capability the capability bit to check
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean hasCapability(int capability) {
+        return (capabilities & capability) == capability;
+    }
 
     @Override
-    public void write(@NotNull PluginMessageByteBuffer buffer) { }
+    public void write(@NotNull PluginMessageByteBuffer buffer) {
+        if (writeCapabilities) {
+            buffer.writeVarInt(capabilities);
+        }
+    }
 
     @Override
     public void handle(@NotNull ClientboundPluginMessageListener listener) {
@@ -48,8 +96,9 @@ public final class PluginMessageClientboundHandshakeResponse implements PluginMe
     private static void document(ProtocolMessageDocumentation.Builder documentation) {
         documentation.name("Handshake Response")
             .description("""
-                    Sent in response to a client's Handshake. This message contains no additional data (yet) and acts primarily as a server acknowledgement of the client mod.
-                    """);
+                    Sent in response to a client's Handshake and acts as a server acknowledgement of the client mod. The capabilities enabled by this message (those supported by both the client and the server) take effect for every message sent after it. If compression (0x01) is enabled, every subsequent client bound message is prefixed by a header byte, 0 if uncompressed, or 1 followed by a VarInt of the uncompressed size if the rest of the message (including the message id) is deflated.
+                    """)
+            .field(MessageField.TYPE_VARINT, "Capabilities", "A bitmask of the enabled capabilities. 0x01 for compression of client bound messages, 0x02 for bundles, 0x04 for preview subscriptions. Only sent to clients with protocol version 3 or later");
     }
 
 }
@@ -1,13 +1,13 @@
 package wtf.choco.veinminer.network.protocol.clientbound;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import wtf.choco.veinminer.documentation.Documentation;
 import wtf.choco.veinminer.documentation.MessageField;
@@ -21,26 +21,70 @@ import wtf.choco.veinminer.util.BlockPosition;
 /**
  * A client bound {@link PluginMessage} including the following data:
  * <ol>
- *   <li><strong>VarInt</strong>: The amount of block keys
- *   <li><strong>Array of BlockPosition</strong>: The block positions that were vein mined
+ *   <li><strong>VarInt</strong>: The amount of block positions
+ *   <li><strong>BlockPosition</strong>: The origin of the vein (if the amount is greater than 0)
+ *   <li><strong>Byte</strong>: The encoding of the positions (if the amount is greater than 0)
+ *   <li>The positions, encoded according to the encoding (if the amount is greater than 0)
+ *   <ul>
+ *     <li><strong>0 (deltas)</strong>: Array of three ZigZag encoded VarInts per position, its
+ *     offset from the origin
+ *     <li><strong>1 (bitmask)</strong>: Three ZigZag encoded VarInts, the offset of the bounding
+ *     box's minimum corner from the origin, followed by three VarInts, the size of the bounding
+ *     box, followed by a bitmask of (sizeX * sizeY * sizeZ + 7) / 8 bytes in which each set bit
+ *     is a position
+ *   </ul>
  * </ol>
  * Sent in response to the client sending a {@link PluginMessageServerboundRequestVeinMine}.
+ * <p>
+ * Clients on a protocol version older than {@link #COMPACT_PROTOCOL_VERSION} instead expect
+ * a VarInt amount followed by an array of absolute block positions, which is written when
+ * this message is constructed with {@link #PluginMessageClientboundVeinMineResults(Collection)}.
  */
 public final class PluginMessageClientboundVeinMineResults implements PluginMessage<ClientboundPluginMessageListener> {
 
-    private final List<BlockPosition> blockPositions;
+    /**
+     * The first protocol version to support the compact, origin-relative encoding of positions.
+     */
+    public static final int COMPACT_PROTOCOL_VERSION = 2;
+
+    private static final byte ENCODING_DELTAS = 0;
+    private static final byte ENCODING_BITMASK = 1;
+
+    private final BlockPosition origin;
+    private final Collection<BlockPosition> blockPositions;
+
+    /**
+     * Construct a new {@link PluginMessageClientboundVeinMineResults} written with the compact
+     * encoding, relative to the origin of the vein.
+     * <p>
+     * The given collection is not copied and must not be modified until the message is sent.
+     *
+     * @param origin the origin of the vein
+     * @param blockPositions the calculated {@link BlockPosition BlockPositions}
+     */
+    public PluginMessageClientboundVeinMineResults(@NotNull BlockPosition origin, @NotNull Collection<BlockPosition> blockPositions) {
+        this.origin = origin;
+        this.blockPositions = Collections.unmodifiableCollection(blockPositions);
+    }
 
     /**
-     * Construct a new {@link PluginMessageClientboundVeinMineResults}.
+     * Construct a new {@link PluginMessageClientboundVeinMineResults} written with the legacy
+     * encoding of absolute positions for clients on a protocol version older than
+     * {@link #COMPACT_PROTOCOL_VERSION}.
+     * <p>
+     * The given collection is not copied and must not be modified until the message is sent.
      *
      * @param blockPositions the calculated {@link BlockPosition BlockPositions}
      */
     public PluginMessageClientboundVeinMineResults(@NotNull Collection<BlockPosition> blockPositions) {
-        this.blockPositions = new ArrayList<>(blockPositions);
+        this.origin = null;
+        this.blockPositions = Collections.unmodifiableCollection(blockPositions);
     }
 
     /**
      * Construct a new {@link PluginMessageClientboundVeinMineResults} with no positions.
+     * <p>
+     * An empty message is encoded identically in both encodings and may be sent to any client.
      */
     public PluginMessageClientboundVeinMineResults() {
         this(Collections.emptyList());
@@ -53,29 +97,138 @@ public final class PluginMessageClientboundVeinMineResults implements PluginMess
      */
     @Internal
     public PluginMessageClientboundVeinMineResults(@NotNull PluginMessageByteBuffer buffer) {
-        BlockPosition[] blockPositions = new BlockPosition[buffer.readVarInt()];
+        int size = buffer.readVarInt();
+        if (size == 0) {
+            this.origin = null;
+            this.blockPositions = Collections.emptyList();
+            return;
+        }
 
-        for (int i = 0; i < blockPositions.length; i++) {
-            blockPositions[i] = buffer.readBlockPosition();
+        this.origin = buffer.readBlockPosition();
+
+        List<BlockPosition> blockPositions = new ArrayList<>(size);
+        byte encoding = buffer.readByte();
+
+        if (encoding == ENCODING_DELTAS) {
+            for (int i = 0; i < size; i++) {
+                blockPositions.add(origin.offset(readZigZagVarInt(buffer), readZigZagVarInt(buffer), readZigZagVarInt(buffer)));
+            }
         }
+        else if (encoding == ENCODING_BITMASK) {
+            BlockPosition min = origin.offset(readZigZagVarInt(buffer), readZigZagVarInt(buffer), readZigZagVarInt(buffer));
+            int sizeX = buffer.readVarInt(), sizeY = buffer.readVarInt(), sizeZ = buffer.readVarInt();
+
+            long volume = (long) sizeX * sizeY * sizeZ;
+            if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0 || volume > (long) Integer.MAX_VALUE) {
+                throw new IllegalStateException("Invalid bounding box size, " + sizeX + "x" + sizeY + "x" + sizeZ);
+            }
 
-        this.blockPositions = Arrays.asList(blockPositions);
+            byte[] bitmask = buffer.readBytes((int) ((volume + 7) / 8));
+
+            int index = 0;
+            for (int y = 0; y < sizeY; y++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    for (int x = 0; x < sizeX; x++, index++) {
+                        if ((bitmask[index >> 3] & (1 << (index & 7))) != 0) {
+                            blockPositions.add(min.offset(x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+        else {
+            throw new IllegalStateException("Unknown vein mine results encoding, " + encoding);
+        }
+
+        this.blockPositions = Collections.unmodifiableList(blockPositions);
     }
 
     /**
-     * Get a {@link List} of all {@link BlockPosition BlockPositions} resulting from
-     * the vein mine. May be empty if the vein mine was unsuccessful.
+     * Get the origin of the vein relative to which positions were encoded. Will be null if the
+     * vein mine was unsuccessful or if this message was constructed for a legacy client.
+     *
+     * @return the origin, or null
+     */
+    @Nullable
+    public BlockPosition getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Get an unmodifiable {@link Collection} of all {@link BlockPosition BlockPositions}
+     * resulting from the vein mine. May be empty if the vein mine was unsuccessful.
      *
      * @return the block positions
      */
-    public List<BlockPosition> getBlockPositions() {
+    @NotNull
+    public Collection<BlockPosition> getBlockPositions() {
         return blockPositions;
     }
 
     @Override
     public void write(@NotNull PluginMessageByteBuffer buffer) {
         buffer.writeVarInt(blockPositions.size());
-        this.blockPositions.forEach(buffer::writeBlockPosition);
+
+        if (blockPositions.isEmpty()) {
+            return;
+        }
+
+        // Legacy clients expect absolute positions
+        if (origin == null) {
+            this.blockPositions.forEach(buffer::writeBlockPosition);
+            return;
+        }
+
+        buffer.writeBlockPosition(origin);
+
+        int minX = origin.x(), minY = origin.y(), minZ = origin.z();
+        int maxX = minX, maxY = minY, maxZ = minZ;
+        long deltasSize = 0;
+
+        for (BlockPosition position : blockPositions) {
+            minX = Math.min(minX, position.x());
+            minY = Math.min(minY, position.y());
+            minZ = Math.min(minZ, position.z());
+            maxX = Math.max(maxX, position.x());
+            maxY = Math.max(maxY, position.y());
+            maxZ = Math.max(maxZ, position.z());
+
+            deltasSize += getZigZagVarIntSize(position.x() - origin.x()) + getZigZagVarIntSize(position.y() - origin.y()) + getZigZagVarIntSize(position.z() - origin.z());
+        }
+
+        int sizeX = maxX - minX + 1, sizeY = maxY - minY + 1, sizeZ = maxZ - minZ + 1;
+        long bitmaskSize = ((long) sizeX * sizeY * sizeZ + 7) / 8;
+        long bitmaskHeaderSize = getZigZagVarIntSize(minX - origin.x()) + getZigZagVarIntSize(minY - origin.y()) + getZigZagVarIntSize(minZ - origin.z())
+                + getVarIntSize(sizeX) + getVarIntSize(sizeY) + getVarIntSize(sizeZ);
+
+        // Sparse veins are cheaper to send as deltas, dense veins as a bitmask over their bounding box
+        if (bitmaskHeaderSize + bitmaskSize >= deltasSize) {
+            buffer.writeByte(ENCODING_DELTAS);
+
+            for (BlockPosition position : blockPositions) {
+                writeZigZagVarInt(buffer, position.x() - origin.x());
+                writeZigZagVarInt(buffer, position.y() - origin.y());
+                writeZigZagVarInt(buffer, position.z() - origin.z());
+            }
+
+            return;
+        }
+
+        buffer.writeByte(ENCODING_BITMASK);
+        writeZigZagVarInt(buffer, minX - origin.x());
+        writeZigZagVarInt(buffer, minY - origin.y());
+        writeZigZagVarInt(buffer, minZ - origin.z());
+        buffer.writeVarInt(sizeX);
+        buffer.writeVarInt(sizeY);
+        buffer.writeVarInt(sizeZ);
+
+        byte[] bitmask = new byte[(int) bitmaskSize];
+        for (BlockPosition position : blockPositions) {
+            int index = (((position.y() - minY) * sizeZ) + (position.z() - minZ)) * sizeX + (position.x() - minX);
+            bitmask[index >> 3] |= (byte) (1 << (index & 7));
+        }
+
+        buffer.writeBytes(bitmask);
     }
 
     @Override
@@ -83,14 +236,45 @@ public final class PluginMessageClientboundVeinMineResults implements PluginMess
         listener.handleVeinMineResults(this);
     }
 
+    private static void writeZigZagVarInt(PluginMessageByteBuffer buffer, int value) {
+        buffer.writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    private static int readZigZagVarInt(PluginMessageByteBuffer buffer) {
+        int value = buffer.readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int getZigZagVarIntSize(int value) {
+        return getVarIntSize((value << 1) ^ (value >> 31));
+    }
+
+    private static int getVarIntSize(int value) {
+        int size = 1;
+
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+
+        return size;
+    }
+
     @Documentation
     private static void document(ProtocolMessageDocumentation.Builder documentation) {
         documentation.name("Vein Mine Results")
             .description("""
                     Sent in response to a client's Request Vein Mine including all block positions as a result of a vein mine at the client's target block and currently active tool category (according to the tool in the player's hand at the time the message was received by the server).
+
+                    Positions are encoded relative to the origin of the vein, either as a list of ZigZag encoded VarInt offsets (encoding 0) for sparse veins, or as a bitmask over the vein's bounding box (encoding 1) for dense veins, whichever is smaller. If the size is 0, no further fields are sent.
                     """)
             .field(MessageField.TYPE_VARINT, "Size", "The amount of block positions that were included in the resulting vein mine")
-            .field(MessageField.TYPE_ARRAY_OF.apply(MessageField.TYPE_BLOCK_POSITION), "Positions", "An array containing all block positions that would be vein mined by the server");
+            .field(MessageField.TYPE_BLOCK_POSITION, "Origin", "The origin of the vein relative to which all positions are encoded")
+            .field(MessageField.TYPE_BYTE, "Encoding", "The encoding of the positions. 0 for deltas, 1 for bitmask")
+            .field(MessageField.TYPE_ARRAY_OF.apply(MessageField.TYPE_VARINT), "Deltas (encoding 0)", "Three ZigZag encoded VarInts per position, the x, y and z offset of the position from the origin")
+            .field(MessageField.TYPE_VARINT, "Minimum X, Y, Z (encoding 1)", "Three ZigZag encoded VarInts, the offset of the minimum corner of the bounding box from the origin")
+            .field(MessageField.TYPE_VARINT, "Size X, Y, Z (encoding 1)", "Three VarInts, the size of the bounding box")
+            .field(MessageField.TYPE_ARRAY_OF.apply(MessageField.TYPE_BYTE), "Bitmask (encoding 1)", "(sizeX * sizeY * sizeZ + 7) / 8 bytes. The bit at index ((y * sizeZ) + z) * sizeX + x, least significant bit first, is set if the position at that offset from the minimum corner was vein mined");
     }
 
 }
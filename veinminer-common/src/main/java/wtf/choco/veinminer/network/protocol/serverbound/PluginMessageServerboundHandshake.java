@@ -6,28 +6,68 @@ import org.jetbrains.annotations.NotNull;
 import wtf.choco.veinminer.documentation.Documentation;
 import wtf.choco.veinminer.documentation.MessageField;
 import wtf.choco.veinminer.documentation.ProtocolMessageDocumentation;
+import wtf.choco.veinminer.network.MessageCompression;
 import wtf.choco.veinminer.network.PluginMessage;
+import wtf.choco.veinminer.network.PluginMessageBundle;
 import wtf.choco.veinminer.network.PluginMessageByteBuffer;
 import wtf.choco.veinminer.network.protocol.ServerboundPluginMessageListener;
+import wtf.choco.veinminer.network.protocol.clientbound.PluginMessageClientboundVeinMineResults;
 
 /**
  * A server bound {@link PluginMessage} including the following data:
  * <ol>
  *   <li><strong>VarInt</strong>: protocol version
+ *   <li><strong>VarInt</strong>: capabilities (if the protocol version is at least
+ *   {@link #CAPABILITIES_PROTOCOL_VERSION})
  * </ol>
  * Sent when a client joins the server.
  */
 public final class PluginMessageServerboundHandshake implements PluginMessage<ServerboundPluginMessageListener> {
 
+    /**
+     * The first protocol version to exchange capabilities during the handshake.
+     */
+    public static final int CAPABILITIES_PROTOCOL_VERSION = 3;
+
+    /**
+     * The capability bit indicating support for {@link MessageCompression compressed} client
+     * bound messages.
+     */
+    public static final int CAPABILITY_COMPRESSION = 0x01;
+
+    /**
+     * The capability bit indicating support for client bound {@link PluginMessageBundle bundles}.
+     */
+    public static final int CAPABILITY_BUNDLES = 0x02;
+
+    /**
+     * The capability bit indicating support for vein mine preview subscriptions. Clients
+     * supporting subscriptions are pushed updated {@link PluginMessageClientboundVeinMineResults}
+     * whenever the vein they last requested changes, until they request another.
+     */
+    public static final int CAPABILITY_PREVIEW_SUBSCRIPTIONS = 0x04;
+
     private final int protocolVersion;
+    private final int capabilities;
 
     /**
      * Construct a new {@link PluginMessageServerboundHandshake}.
      *
      * @param protocolVersion the client's VeinMiner protocol version
+     * @param capabilities the bitmask of capabilities supported by the client
      */
-    public PluginMessageServerboundHandshake(int protocolVersion) {
+    public PluginMessageServerboundHandshake(int protocolVersion, int capabilities) {
         this.protocolVersion = protocolVersion;
+        this.capabilities = capabilities;
+    }
+
+    /**
+     * Construct a new {@link PluginMessageServerboundHandshake} with no capabilities.
+     *
+     * @param protocolVersion the client's VeinMiner protocol version
+     */
+    public PluginMessageServerboundHandshake(int protocolVersion) {
+        this(protocolVersion, 0);
     }
 
     /**
@@ -38,6 +78,7 @@ public final class PluginMessageServerboundHandshake implements PluginMessage<Se
     @Internal
     public PluginMessageServerboundHandshake(@NotNull PluginMessageByteBuffer buffer) {
         this.protocolVersion = buffer.readVarInt();
+        this.capabilities = (protocolVersion >= CAPABILITIES_PROTOCOL_VERSION) ? buffer.readVarInt() : 0;
     }
 
     /**
@@ -49,9 +90,33 @@ public final class PluginMessageServerboundHandshake implements PluginMessage<Se
         return protocolVersion;
     }
 
+    /**
+     * Get the bitmask of capabilities supported by the client.
+     *
+     * @return the capabilities
+     */
+    public int getCapabilities() {
+        return capabilities;
+    }
+
+    /**
+     * Check whether or not the client supports the given capability.
+     *
+     * @param capability the capability bit to check
+     *
+     * @return true if supported, false otherwise
+     */
+    public boolean hasCapability(int capability) {
+        return (capabilities & capability) == capability;
+    }
+
     @Override
     public void write(@NotNull PluginMessageByteBuffer buffer) {
         buffer.writeVarInt(protocolVersion);
+
+        if (protocolVersion >= CAPABILITIES_PROTOCOL_VERSION) {
+            buffer.writeVarInt(capabilities);
+        }
     }
 
     @Override
@@ -65,7 +130,8 @@ public final class PluginMessageServerboundHandshake implements PluginMessage<Se
             .description("""
                     Sent by the client when logging in to inform the server that the client has the VeinMiner client-sided mod installed. The server is expected to respond promptly with a Handshake Response. Upon receiving this message, the server will automatically set the player's activation mode to CLIENT.
                     """)
-            .field(MessageField.TYPE_VARINT, "Protocol Version", "The client's protocol version");
+            .field(MessageField.TYPE_VARINT, "Protocol Version", "The client's protocol version")
+            .field(MessageField.TYPE_VARINT, "Capabilities", "A bitmask of optional features supported by the client. 0x01 for compression of client bound messages, 0x02 for bundles, 0x04 for preview subscriptions. Only sent from protocol version 3");
     }
 
 }
@@ -2,6 +2,7 @@ package wtf.choco.veinminer.network.protocol.serverbound;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import wtf.choco.veinminer.documentation.Documentation;
 import wtf.choco.veinminer.documentation.MessageField;
@@ -9,26 +10,59 @@ import wtf.choco.veinminer.documentation.ProtocolMessageDocumentation;
 import wtf.choco.veinminer.network.PluginMessage;
 import wtf.choco.veinminer.network.PluginMessageByteBuffer;
 import wtf.choco.veinminer.network.protocol.ServerboundPluginMessageListener;
+import wtf.choco.veinminer.util.BlockFace;
 import wtf.choco.veinminer.util.BlockPosition;
 
 /**
  * A server bound {@link PluginMessage} including the following data:
  * <ol>
  *   <li><strong>BlockPosition</strong>: the block position at which to vein mine
+ *   <li><strong>VarInt</strong>: the ordinal of the {@link BlockFace} of the block position
+ *   that was hit (optional, omitted by older clients)
  * </ol>
  * Sent by the client to request a vein mine at the player's target block position.
  */
 public final class PluginMessageServerboundRequestVeinMine implements PluginMessage<ServerboundPluginMessageListener> {
 
+    private static final BlockFace[] CARDINAL_FACES = { BlockFace.NORTH, BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST, BlockFace.UP, BlockFace.DOWN };
+
     private final BlockPosition position;
+    private final BlockFace face;
 
     /**
      * Construct a new {@link PluginMessageServerboundRequestVeinMine}.
      *
      * @param position the origin
+     * @param face the face of the origin that was hit, or null if unknown
      */
-    public PluginMessageServerboundRequestVeinMine(@NotNull BlockPosition position) {
+    public PluginMessageServerboundRequestVeinMine(@NotNull BlockPosition position, @Nullable BlockFace face) {
+        if (face != null && !face.isCardinal()) {
+            throw new IllegalArgumentException("face must be cardinal");
+        }
+
         this.position = position;
+        this.face = face;
+    }
+
+    /**
+     * Construct a new {@link PluginMessageServerboundRequestVeinMine}.
+     *
+     * @param position the origin
+     */
+    public PluginMessageServerboundRequestVeinMine(@NotNull BlockPosition position) {
+        this(position, null);
+    }
+
+    /**
+     * Construct a new {@link PluginMessageServerboundRequestVeinMine}.
+     *
+     * @param x the x coordinate of the origin
+     * @param y the y coordinate of the origin
+     * @param z the z coordinate of the origin
+     * @param face the face of the origin that was hit, or null if unknown
+     */
+    public PluginMessageServerboundRequestVeinMine(int x, int y, int z, @Nullable BlockFace face) {
+        this(new BlockPosition(x, y, z), face);
     }
 
     /**
@@ -50,6 +84,10 @@ public final class PluginMessageServerboundRequestVeinMine implements PluginMess
     @Internal
     public PluginMessageServerboundRequestVeinMine(@NotNull PluginMessageByteBuffer buffer) {
         this.position = buffer.readBlockPosition();
+
+        // Older clients do not send a face, and only cardinal faces can be hit
+        int faceOrdinal = buffer.isReadable() ? buffer.readVarInt() : -1;
+        this.face = (faceOrdinal >= 0 && faceOrdinal < CARDINAL_FACES.length) ? CARDINAL_FACES[faceOrdinal] : null;
     }
 
     /**
@@ -62,9 +100,23 @@ public final class PluginMessageServerboundRequestVeinMine implements PluginMess
         return position;
     }
 
+    /**
+     * Get the {@link BlockFace} of the origin that was hit by the client, if sent.
+     *
+     * @return the hit face, or null if not sent by the client
+     */
+    @Nullable
+    public BlockFace getFace() {
+        return face;
+    }
+
     @Override
     public void write(@NotNull PluginMessageByteBuffer buffer) {
         buffer.writeBlockPosition(position);
+
+        if (face != null) {
+            buffer.writeVarInt(face.ordinal());
+        }
     }
 
     @Override
@@ -78,9 +130,10 @@ public final class PluginMessageServerboundRequestVeinMine implements PluginMess
             .description("""
                     Sent by the client to request the server to perform a no-op vein mine on the block at which the player is currently looking. The player's active tool category, and all other vein miner required information is calculated on the server, not by the client, exception to the provided origin position.
 
-                    Note that if the player's target block is also calculated on the server but the server will make use of the position sent by the client such that it is within 2 blocks of the server calculated block position. If the position sent to the server exceeds the 2 block distance limit, the server will respond with an empty vein mine result.
+                    Note that if no face is sent, the player's target block is also calculated on the server but the server will make use of the position sent by the client such that it is within 2 blocks of the server calculated block position. If the position sent to the server exceeds the 2 block distance limit, the server will respond with an empty vein mine result.
                     """)
-            .field(MessageField.TYPE_BLOCK_POSITION, "Origin", "The position at which to initiate vein miner");
+            .field(MessageField.TYPE_BLOCK_POSITION, "Origin", "The position at which to initiate vein miner")
+            .field(MessageField.TYPE_VARINT, "Face", "The face of the origin hit by the client. 0 = north, 1 = east, 2 = south, 3 = west, 4 = up, 5 = down. Optional. If sent, the server does not ray trace the target. It instead checks that this face is within reach and not obstructed by an occluding block, and uses it as the face hit by the client");
     }
 
 }
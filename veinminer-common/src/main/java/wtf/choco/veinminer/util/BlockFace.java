@@ -117,6 +117,16 @@ public enum BlockFace {
         return zOffset;
     }
 
+    /**
+     * Check whether or not this {@link BlockFace} is cardinal (up, down, east, west, north,
+     * or south).
+     *
+     * @return true if cardinal, false otherwise
+     */
+    public boolean isCardinal() {
+        return ordinal() <= DOWN.ordinal();
+    }
+
     /**
      * Get the {@link BlockFace} opposite to this BlockFace. Note that this works only for
      * cardinal faces (up, down, east, west, north, and south). Any other face will throw
@@ -0,0 +1,276 @@
+package wtf.choco.veinminer.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An open-addressing hash set of primitive longs. Intended for use with
+ * {@link BlockPosition#pack() packed block positions} where boxing every position into a
+ * {@link Long} or a {@link BlockPosition} would generate an excessive amount of garbage.
+ * <p>
+ * Keys are stored in a single power-of-two sized array and collisions are resolved by
+ * linear probing. Calling {@link #clear()} retains the allocated table so that an instance
+ * may be reused without further allocation.
+ * <p>
+ * This set is <strong>not</strong> thread-safe.
+ */
+public final class LongHashSet {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final float LOAD_FACTOR = 0.6F;
+
+    // 0 is used to mark empty slots, so its presence in the set is tracked separately
+    private long[] keys;
+    private boolean containsZero;
+
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * Construct a new {@link LongHashSet} able to hold the given amount of values without
+     * needing to resize.
+     *
+     * @param expectedSize the expected size of the set
+     */
+    public LongHashSet(int expectedSize) {
+        this.allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Construct a new empty {@link LongHashSet}.
+     */
+    public LongHashSet() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Add a value to this set.
+     *
+     * @param value the value to add
+     *
+     * @return true if the set was changed as a result of this operation, false if the value
+     * was already present
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+
+            this.containsZero = true;
+            this.size++;
+            return true;
+        }
+
+        int index = mix(value) & mask;
+        long current;
+        while ((current = keys[index]) != 0) {
+            if (current == value) {
+                return false;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        this.keys[index] = value;
+        if (++size >= resizeThreshold) {
+            this.rehash(keys.length << 1);
+        }
+
+        return true;
+    }
+
+    /**
+     * Check whether or not this set contains the given value.
+     *
+     * @param value the value to check
+     *
+     * @return true if present, false otherwise
+     */
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+
+        int index = mix(value) & mask;
+        long current;
+        while ((current = keys[index]) != 0) {
+            if (current == value) {
+                return true;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Remove a value from this set.
+     *
+     * @param value the value to remove
+     *
+     * @return true if the value was present and removed, false otherwise
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            if (!containsZero) {
+                return false;
+            }
+
+            this.containsZero = false;
+            this.size--;
+            return true;
+        }
+
+        int index = mix(value) & mask;
+        long current;
+        while ((current = keys[index]) != 0) {
+            if (current == value) {
+                this.size--;
+                this.shiftKeys(index);
+                return true;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the amount of values in this set.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether or not this set is empty.
+     *
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all values from this set. The backing table is retained.
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+
+        Arrays.fill(keys, 0L);
+        this.containsZero = false;
+        this.size = 0;
+    }
+
+    /**
+     * Perform the given action for every value in this set. Values are iterated in no
+     * particular order.
+     *
+     * @param action the action to perform
+     */
+    public void forEach(@NotNull LongConsumer action) {
+        if (containsZero) {
+            action.accept(0L);
+        }
+
+        for (long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Get the values of this set as a new array. Values are ordered arbitrarily.
+     *
+     * @return the array of values
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int index = 0;
+
+        if (containsZero) {
+            result[index++] = 0L;
+        }
+
+        for (long key : keys) {
+            if (key != 0) {
+                result[index++] = key;
+            }
+        }
+
+        return result;
+    }
+
+    // Backward-shift deletion so that no tombstones are required for linear probing
+    private void shiftKeys(int index) {
+        int last;
+        long current;
+
+        while (true) {
+            index = ((last = index) + 1) & mask;
+
+            while (true) {
+                if ((current = keys[index]) == 0) {
+                    this.keys[last] = 0;
+                    return;
+                }
+
+                int slot = mix(current) & mask;
+                if (last <= index ? (last >= slot || slot > index) : (last >= slot && slot > index)) {
+                    break;
+                }
+
+                index = (index + 1) & mask;
+            }
+
+            this.keys[last] = current;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        this.allocate(newCapacity);
+
+        for (long key : oldKeys) {
+            if (key == 0) {
+                continue;
+            }
+
+            int index = mix(key) & mask;
+            while (keys[index] != 0) {
+                index = (index + 1) & mask;
+            }
+
+            this.keys[index] = key;
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = Math.max(1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int required = (int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR);
+        return Math.max(4, Integer.highestOneBit(required - 1) << 1);
+    }
+
+    private static int mix(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        hash ^= (hash >>> 32);
+        return (int) (hash ^ (hash >>> 16));
+    }
+
+}
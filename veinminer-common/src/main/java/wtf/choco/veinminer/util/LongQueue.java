@@ -0,0 +1,110 @@
+package wtf.choco.veinminer.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A growable first-in-first-out queue of primitive longs backed by a ring buffer. Intended
+ * for use as a search frontier of {@link BlockPosition#pack() packed block positions}.
+ * <p>
+ * Calling {@link #clear()} retains the allocated buffer so that an instance may be reused
+ * without further allocation.
+ * <p>
+ * This queue is <strong>not</strong> thread-safe.
+ */
+public final class LongQueue {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] elements;
+    private int head, tail, size;
+
+    /**
+     * Construct a new {@link LongQueue} with the given initial capacity.
+     *
+     * @param initialCapacity the initial capacity
+     */
+    public LongQueue(int initialCapacity) {
+        this.elements = new long[Math.max(4, Integer.highestOneBit(Math.max(initialCapacity, 1) - 1) << 1)];
+    }
+
+    /**
+     * Construct a new empty {@link LongQueue}.
+     */
+    public LongQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Add a value to the tail of this queue.
+     *
+     * @param value the value to add
+     */
+    public void add(long value) {
+        if (size == elements.length) {
+            this.grow();
+        }
+
+        this.elements[tail] = value;
+        this.tail = (tail + 1) & (elements.length - 1);
+        this.size++;
+    }
+
+    /**
+     * Remove and return the value at the head of this queue.
+     *
+     * @return the removed value
+     *
+     * @throws NoSuchElementException if this queue is empty
+     */
+    public long remove() {
+        if (size == 0) {
+            throw new NoSuchElementException("queue is empty");
+        }
+
+        long value = elements[head];
+        this.head = (head + 1) & (elements.length - 1);
+        this.size--;
+        return value;
+    }
+
+    /**
+     * Get the amount of values in this queue.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether or not this queue is empty.
+     *
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all values from this queue. The backing buffer is retained.
+     */
+    public void clear() {
+        this.head = 0;
+        this.tail = 0;
+        this.size = 0;
+    }
+
+    private void grow() {
+        long[] newElements = new long[elements.length << 1];
+
+        // Unwrap the ring so that the head starts at index 0
+        int headLength = elements.length - head;
+        System.arraycopy(elements, head, newElements, 0, headLength);
+        System.arraycopy(elements, 0, newElements, headLength, head);
+
+        this.elements = newElements;
+        this.head = 0;
+        this.tail = size;
+    }
+
+}
@@ -0,0 +1,138 @@
+package wtf.choco.veinminer.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable {@link java.util.Set Set} of {@link BlockPosition BlockPositions} backed by an
+ * array of {@link BlockPosition#pack() packed positions}. BlockPosition instances are only
+ * created while iterating, and iteration order is the order in which the positions were
+ * supplied.
+ */
+public final class PackedBlockPositionSet extends AbstractSet<BlockPosition> {
+
+    private static final PackedBlockPositionSet EMPTY = new PackedBlockPositionSet(new long[0], 0);
+
+    private final long[] positions;
+    private final int size;
+
+    // Lazily built for contains() lookups. Positions are immutable so building it twice is harmless
+    private volatile LongHashSet index;
+
+    private PackedBlockPositionSet(long[] positions, int size) {
+        this.positions = positions;
+        this.size = size;
+    }
+
+    /**
+     * Get the packed position at the given index.
+     *
+     * @param index the index
+     *
+     * @return the packed position
+     *
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public long getPacked(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        return positions[index];
+    }
+
+    /**
+     * Check whether or not this set contains the given packed position.
+     *
+     * @param packedPosition the packed position
+     *
+     * @return true if present, false otherwise
+     */
+    public boolean containsPacked(long packedPosition) {
+        LongHashSet index = this.index;
+
+        if (index == null) {
+            index = new LongHashSet(size);
+
+            for (int i = 0; i < size; i++) {
+                index.add(positions[i]);
+            }
+
+            this.index = index;
+        }
+
+        return index.contains(packedPosition);
+    }
+
+    /**
+     * Get a copy of the packed positions in this set.
+     *
+     * @return the packed positions
+     */
+    public long[] toPackedArray() {
+        return Arrays.copyOf(positions, size);
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof BlockPosition position && containsPacked(position.pack());
+    }
+
+    @NotNull
+    @Override
+    public Iterator<BlockPosition> iterator() {
+        return new Iterator<>() {
+
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public BlockPosition next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+
+                return BlockPosition.unpack(positions[cursor++]);
+            }
+
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Create a {@link PackedBlockPositionSet} holding a copy of the first {@code length}
+     * values of the given array. Values are assumed to be distinct.
+     *
+     * @param positions the packed positions
+     * @param length the amount of positions to copy
+     *
+     * @return the set
+     */
+    @NotNull
+    public static PackedBlockPositionSet copyOf(long[] positions, int length) {
+        return (length == 0) ? EMPTY : new PackedBlockPositionSet(Arrays.copyOf(positions, length), length);
+    }
+
+    /**
+     * Get an empty {@link PackedBlockPositionSet}.
+     *
+     * @return the empty set
+     */
+    @NotNull
+    public static PackedBlockPositionSet empty() {
+        return EMPTY;
+    }
+
+}
@@ -0,0 +1,59 @@
+package wtf.choco.veinminer.network;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageCompressionTest {
+
+    @Test
+    void testSmallMessagesAreNotCompressed() {
+        MessageCompression compression = new MessageCompression(64);
+
+        PluginMessageByteBuffer message = new PluginMessageByteBuffer();
+        message.writeVarInt(3);
+        message.writeString("small");
+
+        PluginMessageByteBuffer compressed = new PluginMessageByteBuffer();
+        compression.compress(message, compressed);
+        assertEquals(message.size() + 1, compressed.size());
+
+        PluginMessageByteBuffer input = new PluginMessageByteBuffer(compressed.asByteArray());
+        assertSame(input, compression.decompress(input));
+        assertEquals(3, input.readVarInt());
+        assertEquals("small", input.readString());
+    }
+
+    @Test
+    void testLargeMessagesAreCompressed() {
+        MessageCompression compression = new MessageCompression(64);
+
+        for (int attempt = 0; attempt < 3; attempt++) { // The deflater and inflater are reused
+            PluginMessageByteBuffer message = new PluginMessageByteBuffer();
+            message.writeVarInt(attempt);
+            for (int i = 0; i < 1000; i++) {
+                message.writeLong(i % 10);
+            }
+
+            PluginMessageByteBuffer compressed = new PluginMessageByteBuffer();
+            compression.compress(message, compressed);
+            assertTrue(compressed.size() < message.size() / 10);
+
+            PluginMessageByteBuffer input = compression.decompress(new PluginMessageByteBuffer(compressed.asByteArray()));
+            assertEquals(attempt, input.readVarInt());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i % 10, input.readLong());
+            }
+        }
+    }
+
+    @Test
+    void testUnknownHeaderIsRejected() {
+        MessageCompression compression = new MessageCompression();
+        assertThrows(IllegalStateException.class, () -> compression.decompress(new PluginMessageByteBuffer(new byte[] { 5, 0 })));
+    }
+
+}
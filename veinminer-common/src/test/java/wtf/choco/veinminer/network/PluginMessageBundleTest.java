@@ -0,0 +1,59 @@
+package wtf.choco.veinminer.network;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.network.protocol.ClientboundPluginMessageListener;
+import wtf.choco.veinminer.network.protocol.clientbound.PluginMessageClientboundSetPattern;
+import wtf.choco.veinminer.network.protocol.clientbound.PluginMessageClientboundSyncRegisteredPatterns;
+import wtf.choco.veinminer.util.NamespacedKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PluginMessageBundleTest {
+
+    private static final NamespacedKey DEFAULT = NamespacedKey.veinminer("default"), TUNNEL = NamespacedKey.veinminer("tunnel");
+
+    @Test
+    void testBundleRoundTrip() {
+        PluginMessageRegistry<ClientboundPluginMessageListener> registry = createRegistry();
+
+        PluginMessageBundle<ClientboundPluginMessageListener> bundle = new PluginMessageBundle<>(registry, List.of(
+            new PluginMessageClientboundSyncRegisteredPatterns(List.of(DEFAULT, TUNNEL)),
+            new PluginMessageClientboundSetPattern(TUNNEL)
+        ));
+
+        PluginMessageByteBuffer buffer = new PluginMessageByteBuffer();
+        buffer.writeVarInt(registry.getPluginMessageId(PluginMessageBundle.class));
+        bundle.write(buffer);
+
+        PluginMessageByteBuffer input = new PluginMessageByteBuffer(buffer.asByteArray());
+        PluginMessage<ClientboundPluginMessageListener> message = registry.createPluginMessage(input.readVarInt(), input);
+
+        assertTrue(message instanceof PluginMessageBundle);
+        List<PluginMessage<ClientboundPluginMessageListener>> messages = ((PluginMessageBundle<ClientboundPluginMessageListener>) message).getMessages();
+
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(0) instanceof PluginMessageClientboundSyncRegisteredPatterns sync && sync.getKeys().equals(List.of(DEFAULT, TUNNEL)));
+        assertTrue(messages.get(1) instanceof PluginMessageClientboundSetPattern setPattern && setPattern.getPatternKey().equals(TUNNEL));
+    }
+
+    @Test
+    void testUnknownMessageIdsAreNull() {
+        PluginMessageRegistry<ClientboundPluginMessageListener> registry = createRegistry();
+
+        assertNull(registry.createPluginMessage(-1, new PluginMessageByteBuffer(new byte[0])));
+        assertNull(registry.createPluginMessage(registry.getRegisteredMessageAmount(), new PluginMessageByteBuffer(new byte[0])));
+    }
+
+    private static PluginMessageRegistry<ClientboundPluginMessageListener> createRegistry() {
+        return new PluginMessageRegistry<ClientboundPluginMessageListener>()
+            .registerMessage(PluginMessageClientboundSyncRegisteredPatterns.class, PluginMessageClientboundSyncRegisteredPatterns::new)
+            .registerMessage(PluginMessageClientboundSetPattern.class, PluginMessageClientboundSetPattern::new)
+            .registerBundleMessage();
+    }
+
+}
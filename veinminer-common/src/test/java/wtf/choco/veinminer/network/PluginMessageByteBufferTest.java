@@ -0,0 +1,65 @@
+package wtf.choco.veinminer.network;
+
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.util.BlockPosition;
+import wtf.choco.veinminer.util.NamespacedKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PluginMessageByteBufferTest {
+
+    @Test
+    void testRoundTrip() {
+        PluginMessageByteBuffer buffer = new PluginMessageByteBuffer();
+        buffer.writeInt(0x12345678);
+        buffer.writeVarInt(-1);
+        buffer.writeLong(Long.MIN_VALUE + 42);
+        buffer.writeBoolean(true);
+        buffer.writeString("VeinMiner");
+        buffer.writeBlockPosition(new BlockPosition(-30000000, -64, 30000000));
+        buffer.writeNamespacedKey(NamespacedKey.veinminer("default"));
+
+        PluginMessageByteBuffer input = new PluginMessageByteBuffer(buffer.asByteArray());
+        assertEquals(0x12345678, input.readInt());
+        assertEquals(-1, input.readVarInt());
+        assertEquals(Long.MIN_VALUE + 42, input.readLong());
+        assertTrue(input.readBoolean());
+        assertEquals("VeinMiner", input.readString());
+        assertEquals(new BlockPosition(-30000000, -64, 30000000), input.readBlockPosition());
+        assertEquals(NamespacedKey.veinminer("default"), input.readNamespacedKey());
+    }
+
+    @Test
+    void testIntegersAreLittleEndian() {
+        PluginMessageByteBuffer buffer = new PluginMessageByteBuffer();
+        buffer.writeInt(0x01020304);
+
+        byte[] bytes = buffer.asByteArray();
+        assertEquals(4, bytes.length);
+        assertEquals(0x04, bytes[0]);
+        assertEquals(0x01, bytes[3]);
+    }
+
+    @Test
+    void testBufferGrowsAndIsReusable() {
+        PluginMessageByteBuffer buffer = new PluginMessageByteBuffer(4, true);
+        for (int i = 0; i < 100; i++) {
+            buffer.writeLong(i);
+        }
+
+        assertEquals(800, buffer.size());
+        assertTrue(buffer.capacity() >= 800);
+
+        int capacity = buffer.capacity();
+        buffer.clear();
+        buffer.writeVarInt(300);
+
+        assertEquals(2, buffer.size());
+        assertEquals(2, buffer.asByteBuffer().remaining());
+        assertEquals(capacity, buffer.capacity());
+        assertEquals(300, new PluginMessageByteBuffer(buffer.asByteBuffer()).readVarInt());
+    }
+
+}
@@ -0,0 +1,79 @@
+package wtf.choco.veinminer.network.protocol.clientbound;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.network.PluginMessageByteBuffer;
+import wtf.choco.veinminer.util.BlockPosition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PluginMessageClientboundVeinMineResultsTest {
+
+    private static final BlockPosition ORIGIN = new BlockPosition(-1200, -40, 3500);
+
+    @Test
+    void testSparseVeinRoundTrip() {
+        Set<BlockPosition> positions = new HashSet<>();
+        for (int i = 0; i < 32; i++) {
+            positions.add(ORIGIN.offset(i * 3, -i, i % 5 - 2));
+        }
+
+        byte[] bytes = write(new PluginMessageClientboundVeinMineResults(ORIGIN, positions));
+        PluginMessageClientboundVeinMineResults read = read(bytes);
+
+        assertEquals(ORIGIN, read.getOrigin());
+        assertEquals(positions, new HashSet<>(read.getBlockPositions()));
+        assertTrue(bytes.length * 2 < write(new PluginMessageClientboundVeinMineResults(positions)).length);
+    }
+
+    @Test
+    void testDenseVeinRoundTrip() {
+        Set<BlockPosition> positions = new HashSet<>();
+        for (int x = -3; x <= 4; x++) {
+            for (int y = 0; y < 8; y++) {
+                for (int z = -4; z <= 3; z++) {
+                    if ((x + y + z) % 7 != 0) {
+                        positions.add(ORIGIN.offset(x, y, z));
+                    }
+                }
+            }
+        }
+
+        byte[] bytes = write(new PluginMessageClientboundVeinMineResults(ORIGIN, positions));
+        PluginMessageClientboundVeinMineResults read = read(bytes);
+
+        assertEquals(positions, new HashSet<>(read.getBlockPositions()));
+        assertTrue(bytes.length * 10 < write(new PluginMessageClientboundVeinMineResults(positions)).length);
+    }
+
+    @Test
+    void testEmptyResultsAreCompatibleWithLegacyClients() {
+        byte[] compact = write(new PluginMessageClientboundVeinMineResults(ORIGIN, List.of()));
+        byte[] legacy = write(new PluginMessageClientboundVeinMineResults());
+
+        assertEquals(1, compact.length);
+        assertEquals(1, legacy.length);
+        assertEquals(compact[0], legacy[0]);
+
+        PluginMessageClientboundVeinMineResults read = read(compact);
+        assertNull(read.getOrigin());
+        assertTrue(read.getBlockPositions().isEmpty());
+    }
+
+    private static byte[] write(PluginMessageClientboundVeinMineResults message) {
+        PluginMessageByteBuffer buffer = new PluginMessageByteBuffer();
+        message.write(buffer);
+        return buffer.asByteArray();
+    }
+
+    private static PluginMessageClientboundVeinMineResults read(byte[] bytes) {
+        return new PluginMessageClientboundVeinMineResults(new PluginMessageByteBuffer(bytes));
+    }
+
+}
@@ -0,0 +1,50 @@
+package wtf.choco.veinminer.network.protocol.serverbound;
+
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.network.PluginMessageByteBuffer;
+import wtf.choco.veinminer.util.BlockFace;
+import wtf.choco.veinminer.util.BlockPosition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PluginMessageServerboundRequestVeinMineTest {
+
+    private static final BlockPosition POSITION = new BlockPosition(-300, 12, 4000);
+
+    @Test
+    void testFaceRoundTrip() {
+        for (BlockFace face : new BlockFace[] { BlockFace.NORTH, BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST, BlockFace.UP, BlockFace.DOWN }) {
+            PluginMessageServerboundRequestVeinMine read = read(write(new PluginMessageServerboundRequestVeinMine(POSITION, face)));
+
+            assertEquals(POSITION, read.getPosition());
+            assertEquals(face, read.getFace());
+        }
+    }
+
+    @Test
+    void testFaceIsOptional() {
+        PluginMessageServerboundRequestVeinMine read = read(write(new PluginMessageServerboundRequestVeinMine(POSITION)));
+
+        assertEquals(POSITION, read.getPosition());
+        assertNull(read.getFace());
+    }
+
+    @Test
+    void testNonCardinalFace() {
+        assertThrows(IllegalArgumentException.class, () -> new PluginMessageServerboundRequestVeinMine(POSITION, BlockFace.NORTH_EAST));
+    }
+
+    private static byte[] write(PluginMessageServerboundRequestVeinMine message) {
+        PluginMessageByteBuffer buffer = new PluginMessageByteBuffer();
+        message.write(buffer);
+        return buffer.asByteArray();
+    }
+
+    private static PluginMessageServerboundRequestVeinMine read(byte[] bytes) {
+        return new PluginMessageServerboundRequestVeinMine(new PluginMessageByteBuffer(bytes));
+    }
+
+}
@@ -0,0 +1,78 @@
+package wtf.choco.veinminer.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTest {
+
+    @Test
+    void testAddContains() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(0L));
+        assertTrue(set.add(BlockPosition.pack(10, 64, -10)));
+        assertFalse(set.add(BlockPosition.pack(10, 64, -10)));
+
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(BlockPosition.pack(10, 64, -10)));
+        assertFalse(set.contains(BlockPosition.pack(10, 65, -10)));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void testRemove() {
+        LongHashSet set = new LongHashSet(4);
+        for (int i = 0; i < 100; i++) {
+            set.add(BlockPosition.pack(i, 0, i));
+        }
+
+        for (int i = 0; i < 100; i += 2) {
+            assertTrue(set.remove(BlockPosition.pack(i, 0, i)));
+        }
+
+        assertEquals(50, set.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 != 0, set.contains(BlockPosition.pack(i, 0, i)));
+        }
+    }
+
+    @Test
+    void testAgainstHashSet() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            long value = BlockPosition.pack(random.nextInt(-16, 16), random.nextInt(-16, 16), random.nextInt(-16, 16));
+
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        expected.forEach(value -> assertTrue(set.contains(value)));
+    }
+
+    @Test
+    void testClear() {
+        LongHashSet set = new LongHashSet();
+        set.add(0L);
+        set.add(1L);
+        set.clear();
+
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0L));
+        assertFalse(set.contains(1L));
+    }
+
+}
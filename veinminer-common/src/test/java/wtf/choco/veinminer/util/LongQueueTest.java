@@ -0,0 +1,46 @@
+package wtf.choco.veinminer.util;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongQueueTest {
+
+    @Test
+    void testFifoOrder() {
+        LongQueue queue = new LongQueue(4);
+
+        // Wrap the ring around a few times and force it to grow while wrapped
+        long next = 0, expected = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < round + 3; i++) {
+                queue.add(next++);
+            }
+
+            for (int i = 0; i < 2; i++) {
+                assertEquals(expected++, queue.remove());
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            assertEquals(expected++, queue.remove());
+        }
+
+        assertEquals(next, expected);
+    }
+
+    @Test
+    void testRemoveEmpty() {
+        LongQueue queue = new LongQueue();
+        assertThrows(NoSuchElementException.class, queue::remove);
+
+        queue.add(1L);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+    }
+
+}
@@ -35,6 +35,7 @@ import wtf.choco.veinminer.network.protocol.serverbound.PluginMessageServerbound
 import wtf.choco.veinminer.network.protocol.serverbound.PluginMessageServerboundRequestVeinMine;
 import wtf.choco.veinminer.network.protocol.serverbound.PluginMessageServerboundToggleVeinMiner;
 import wtf.choco.veinminer.render.VeinMinerRenderType;
+import wtf.choco.veinminer.util.BlockFace;
 
 /**
  * The Fabric VeinMiner mod entry class.
@@ -107,7 +108,7 @@ public final class VeinMinerMod implements ClientModInitializer {
 
                 if (shouldRequestVeinMine) {
                     getServerState().resetShape();
-                    VeinMiner.PROTOCOL.sendMessageToServer(serverState, new PluginMessageServerboundRequestVeinMine(position.getX(), position.getY(), position.getZ()));
+                    VeinMiner.PROTOCOL.sendMessageToServer(serverState, new PluginMessageServerboundRequestVeinMine(position.getX(), position.getY(), position.getZ(), BlockFace.valueOf(blockFace.name())));
                 }
 
                 // Updating the new last looked at position
@@ -158,7 +159,7 @@ public final class VeinMinerMod implements ClientModInitializer {
 
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
             // Once joined, we're going to send a handshake packet to let the server know we have the client mod installed
-            VeinMiner.PROTOCOL.sendMessageToServer(serverState, new PluginMessageServerboundHandshake(VeinMiner.PROTOCOL.getVersion()));
+            VeinMiner.PROTOCOL.sendMessageToServer(serverState, new PluginMessageServerboundHandshake(VeinMiner.PROTOCOL.getVersion(), PluginMessageServerboundHandshake.CAPABILITY_COMPRESSION | PluginMessageServerboundHandshake.CAPABILITY_BUNDLES | PluginMessageServerboundHandshake.CAPABILITY_PREVIEW_SUBSCRIPTIONS));
             VeinMiner.PROTOCOL_LEGACY.sendMessageToServer(serverState, new PluginMessageServerboundHandshake(VeinMiner.PROTOCOL_LEGACY.getVersion())); // LEGACY
         });
 
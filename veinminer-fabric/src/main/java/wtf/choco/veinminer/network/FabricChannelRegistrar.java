@@ -20,6 +20,12 @@ public final class FabricChannelRegistrar implements ChannelRegistrar {
         ClientPlayNetworking.registerGlobalReceiver(new ResourceLocation(channel.namespace(), channel.key()), (client, handler, buf, responseSender) -> {
             PluginMessageByteBuffer buffer = new PluginMessageByteBuffer(buf.nioBuffer());
 
+            // Once negotiated, messages from the server are prefixed by a compression header
+            MessageCompression compression = VeinMinerMod.hasServerState() ? VeinMinerMod.getServerState().getClientboundCompression() : null;
+            if (compression != null) {
+                buffer = compression.decompress(buffer);
+            }
+
             int messageId = buffer.readVarInt();
             PluginMessage<ClientboundPluginMessageListener> message = registry.createPluginMessage(messageId, buffer);
 
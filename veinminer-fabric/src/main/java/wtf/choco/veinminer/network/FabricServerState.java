@@ -1,6 +1,8 @@
 package wtf.choco.veinminer.network;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -26,6 +28,7 @@ import wtf.choco.veinminer.network.protocol.clientbound.PluginMessageClientbound
 import wtf.choco.veinminer.network.protocol.clientbound.PluginMessageClientboundSetPattern;
 import wtf.choco.veinminer.network.protocol.clientbound.PluginMessageClientboundSyncRegisteredPatterns;
 import wtf.choco.veinminer.network.protocol.clientbound.PluginMessageClientboundVeinMineResults;
+import wtf.choco.veinminer.network.protocol.serverbound.PluginMessageServerboundHandshake;
 import wtf.choco.veinminer.network.protocol.serverbound.PluginMessageServerboundSelectPattern;
 import wtf.choco.veinminer.util.BlockPosition;
 import wtf.choco.veinminer.util.NamespacedKey;
@@ -51,6 +54,8 @@ public final class FabricServerState implements ClientboundPluginMessageListener
     private Direction lastLookedAtBlockFace;
     private VoxelShape veinMineResultShape;
 
+    private MessageCompression clientboundCompression;
+
     /**
      * Construct a new {@link FabricServerState}.
      *
@@ -257,9 +262,35 @@ public final class FabricServerState implements ClientboundPluginMessageListener
         ClientPlayNetworking.send(new ResourceLocation(channel.namespace(), channel.key()), byteBuf);
     }
 
+    @Override
+    public void sendMessage(@NotNull NamespacedKey channel, @NotNull PluginMessageByteBuffer message) {
+        // Copy the written bytes straight into Netty's buffer without an intermediate array
+        ByteBuffer bytes = message.asByteBuffer();
+        FriendlyByteBuf byteBuf = PacketByteBufs.create();
+        byteBuf.writeBytes(bytes);
+
+        ClientPlayNetworking.send(new ResourceLocation(channel.namespace(), channel.key()), byteBuf);
+    }
+
+    /**
+     * Get the {@link MessageCompression} with which messages from the server are compressed, if
+     * compression was negotiated during the handshake.
+     *
+     * @return the compression, or null if messages from the server are not compressed
+     */
+    @Nullable
+    public MessageCompression getClientboundCompression() {
+        return clientboundCompression;
+    }
+
     @Override
     public void handleHandshakeResponse(@NotNull PluginMessageClientboundHandshakeResponse message) {
         // this.enabledOnServer = true; TODO: Re-enable when PROTOCOL_LEGACY is removed
+
+        // Every message the server sends after its response will include a compression header
+        if (message.hasCapability(PluginMessageServerboundHandshake.CAPABILITY_COMPRESSION)) {
+            this.clientboundCompression = new MessageCompression();
+        }
     }
 
     @Override
@@ -289,7 +320,13 @@ public final class FabricServerState implements ClientboundPluginMessageListener
             return;
         }
 
-        List<BlockPosition> positions = message.getBlockPositions();
+        // Results for a block we are no longer looking at are stale and would be drawn in the wrong place
+        BlockPosition messageOrigin = message.getOrigin();
+        if (messageOrigin != null && (messageOrigin.x() != origin.getX() || messageOrigin.y() != origin.getY() || messageOrigin.z() != origin.getZ())) {
+            return;
+        }
+
+        Collection<BlockPosition> positions = message.getBlockPositions();
         if (positions.isEmpty()) {
             return;
         }
@@ -1,6 +1,7 @@
 package wtf.choco.veinminer;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -13,15 +14,21 @@ import java.util.function.Consumer;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
 
 import wtf.choco.veinminer.api.event.player.PatternChangeEvent;
 import wtf.choco.veinminer.block.BlockList;
 import wtf.choco.veinminer.block.VeinMinerBlock;
 import wtf.choco.veinminer.config.ClientConfig;
+import wtf.choco.veinminer.config.VeinMineRequestLimits;
+import wtf.choco.veinminer.manager.PreviewSubscriptionManager;
 import wtf.choco.veinminer.manager.VeinMinerManager;
 import wtf.choco.veinminer.manager.VeinMinerPlayerManager;
+import wtf.choco.veinminer.network.MessageCompression;
 import wtf.choco.veinminer.network.MessageReceiver;
+import wtf.choco.veinminer.network.PluginMessage;
+import wtf.choco.veinminer.network.protocol.ClientboundPluginMessageListener;
 import wtf.choco.veinminer.network.protocol.ServerboundPluginMessageListener;
 import wtf.choco.veinminer.network.protocol.clientbound.PluginMessageClientboundHandshakeResponse;
 import wtf.choco.veinminer.network.protocol.clientbound.PluginMessageClientboundSetConfig;
@@ -38,12 +45,16 @@ import wtf.choco.veinminer.platform.PlatformPlayer;
 import wtf.choco.veinminer.platform.ServerEventDispatcher;
 import wtf.choco.veinminer.platform.world.BlockAccessor;
 import wtf.choco.veinminer.platform.world.BlockState;
+import wtf.choco.veinminer.platform.world.EyeLocation;
 import wtf.choco.veinminer.platform.world.ItemStack;
 import wtf.choco.veinminer.platform.world.RayTraceResult;
+import wtf.choco.veinminer.tool.ToolCategoryRegistry;
 import wtf.choco.veinminer.tool.VeinMinerToolCategory;
 import wtf.choco.veinminer.util.BlockFace;
 import wtf.choco.veinminer.util.BlockPosition;
 import wtf.choco.veinminer.util.NamespacedKey;
+import wtf.choco.veinminer.util.TokenBucket;
+import wtf.choco.veinminer.util.VeinMinerConstants;
 
 /**
  * A player wrapper containing player-related data for VeinMiner, as well as a network
@@ -51,6 +62,13 @@ import wtf.choco.veinminer.util.NamespacedKey;
  */
 public final class VeinMinerPlayer implements MessageReceiver, ServerboundPluginMessageListener {
 
+    private static final int MAXIMUM_REACH_DISTANCE = 6;
+
+    private static final int ELIGIBILITY_CAN_VEIN_MINE = 1;
+    private static final int ELIGIBILITY_HAS_PERMISSION = 1 << 1;
+    private static final int ELIGIBILITY_EXEMPT_FROM_HUNGER = 1 << 2;
+    private static final int ELIGIBILITY_EXEMPT_FROM_ECONOMY = 1 << 3;
+
     private ActivationStrategy activationStrategy = VeinMinerServer.getInstance().getDefaultActivationStrategy();
     private final Set<VeinMinerToolCategory> disabledCategories = new HashSet<>();
     private VeinMiningPattern veinMiningPattern;
@@ -61,9 +79,32 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
     private Queue<Runnable> onClientReady = new ConcurrentLinkedQueue<>();
 
     private boolean usingClientMod = false;
+    private int clientProtocolVersion = -1;
+    private MessageCompression messageCompression;
+    private boolean bundlesSupported = false;
+    private boolean previewSubscriptionsSupported = false;
+    private PluginMessageServerboundRequestVeinMine subscribedVeinMineRequest;
+    private Set<BlockPosition> lastVeinMineResults = Collections.emptySet();
+    private final Queue<PluginMessage<ClientboundPluginMessageListener>> queuedMessages = new ConcurrentLinkedQueue<>();
     private boolean clientKeyPressed = false;
 
     private boolean veinMining = false;
+    private DamagedBlock lastDamagedBlock;
+
+    // Resolved permissions and eligibility, indexed by category. Refreshed lazily once invalidated or when the categories change
+    private final BitSet permittedCategories = new BitSet(), usableCategories = new BitSet();
+    private int eligibility = 0;
+    private int eligibilityRevision = 0;
+    private boolean eligibilityValid = false;
+
+    // Only the latest vein mine request is computed, no more often than the minimum interval and the rate limit permit
+    private PluginMessageServerboundRequestVeinMine pendingVeinMineRequest;
+    private boolean pendingVeinMineRequestDeferred = false;
+    private long lastVeinMineRequestComputed;
+    private boolean veinMineRequestComputed = false;
+    private TokenBucket veinMineRequestTokens;
+    private VeinMineRequestLimits veinMineRequestTokenLimits;
+    private long coalescedVeinMineRequests = 0, deferredVeinMineRequests = 0;
 
     private ClientConfig clientConfig;
 
@@ -118,6 +159,7 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
     public boolean setVeinMinerEnabled(@NotNull VeinMinerToolCategory category, boolean enabled) {
         boolean changed = (enabled) ? disabledCategories.remove(category) : disabledCategories.add(category);
         this.dirty |= changed;
+        this.eligibilityValid &= !changed;
         return changed;
     }
 
@@ -143,6 +185,7 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
         }
 
         this.dirty |= changed;
+        this.eligibilityValid &= !changed;
         return changed;
     }
 
@@ -236,7 +279,7 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
         this.veinMiningPattern = veinMiningPattern;
 
         if (changed && updateClient) {
-            VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundSetPattern(veinMiningPattern.getKey()));
+            this.queueMessage(new PluginMessageClientboundSetPattern(veinMiningPattern.getKey()));
         }
     }
 
@@ -323,6 +366,15 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
         return usingClientMod;
     }
 
+    /**
+     * Get the VeinMiner protocol version negotiated with this player's client mod.
+     *
+     * @return the client's protocol version, or -1 if not using the client mod
+     */
+    public int getClientProtocolVersion() {
+        return clientProtocolVersion;
+    }
+
     /**
      * Check whether or not vein miner is active as a result of this user's client mod.
      *
@@ -341,7 +393,7 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
         this.clientConfig = clientConfig;
 
         if (usingClientMod) {
-            VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundSetConfig(clientConfig));
+            this.queueMessage(new PluginMessageClientboundSetConfig(clientConfig));
         }
     }
 
@@ -392,6 +444,183 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
         return veinMining;
     }
 
+    /**
+     * Check whether or not this player is able to vein mine at all. A player is able to vein
+     * mine if their game mode is not disabled and at least one category is
+     * {@link #canVeinMine(VeinMinerToolCategory) usable}.
+     * <p>
+     * Permissions and eligibility are resolved once and reused until they are invalidated with
+     * {@link #invalidateEligibility()} or the {@link ToolCategoryRegistry} changes, such that
+     * this method is suitable for use whenever a block is broken.
+     *
+     * @return true if able to vein mine, false otherwise
+     */
+    public boolean canVeinMine() {
+        return (getEligibility() & ELIGIBILITY_CAN_VEIN_MINE) != 0;
+    }
+
+    /**
+     * Check whether or not this player is able to vein mine with the given
+     * {@link VeinMinerToolCategory}. A category is usable if the player has permission to use
+     * it, has not disabled it and it is not disabled in the player's current world.
+     *
+     * @param category the category to check
+     *
+     * @return true if able to vein mine with the category, false otherwise
+     *
+     * @see #canVeinMine()
+     */
+    public boolean canVeinMine(@NotNull VeinMinerToolCategory category) {
+        int index = category.getIndex();
+        return (getEligibility() & ELIGIBILITY_CAN_VEIN_MINE) != 0 && index >= 0 && usableCategories.get(index);
+    }
+
+    /**
+     * Check whether or not this player has permission to vein mine with at least one
+     * {@link VeinMinerToolCategory}, regardless of whether or not they are currently able to.
+     *
+     * @return true if permitted to vein mine, false otherwise
+     */
+    public boolean hasVeinMinePermission() {
+        return (getEligibility() & ELIGIBILITY_HAS_PERMISSION) != 0;
+    }
+
+    /**
+     * Check whether or not this player has permission to vein mine with the given
+     * {@link VeinMinerToolCategory}, regardless of whether or not they are currently able to.
+     *
+     * @param category the category to check
+     *
+     * @return true if permitted to vein mine with the category, false otherwise
+     */
+    public boolean hasVeinMinePermission(@NotNull VeinMinerToolCategory category) {
+        int index = category.getIndex();
+        return (getEligibility() & ELIGIBILITY_HAS_PERMISSION) != 0 && index >= 0 && permittedCategories.get(index);
+    }
+
+    /**
+     * Check whether or not this player is exempt from the hunger applied when vein mining.
+     *
+     * @return true if exempt, false otherwise
+     */
+    public boolean isExemptFromHunger() {
+        return (getEligibility() & ELIGIBILITY_EXEMPT_FROM_HUNGER) != 0;
+    }
+
+    /**
+     * Check whether or not this player is exempt from the cost of vein mining.
+     *
+     * @return true if exempt, false otherwise
+     */
+    public boolean isExemptFromEconomy() {
+        return (getEligibility() & ELIGIBILITY_EXEMPT_FROM_ECONOMY) != 0;
+    }
+
+    /**
+     * Invalidate this player's resolved permissions and eligibility such that they are resolved
+     * again the next time they are needed. This should be called whenever the player's
+     * permissions, game mode or world may have changed.
+     * <p>
+     * Not part of the public API. This method is intended for internal use only.
+     */
+    @Internal
+    public void invalidateEligibility() {
+        this.eligibilityValid = false;
+    }
+
+    private int getEligibility() {
+        ToolCategoryRegistry registry = VeinMinerServer.getInstance().getToolCategoryRegistry();
+        if (!eligibilityValid || eligibilityRevision != registry.getRevision()) {
+            this.refreshEligibility(registry);
+        }
+
+        return eligibility;
+    }
+
+    private void refreshEligibility(@NotNull ToolCategoryRegistry registry) {
+        this.permittedCategories.clear();
+        this.usableCategories.clear();
+
+        // Nothing to resolve for players that are offline. They will be resolved again should they come back online
+        if (!player.isOnline()) {
+            this.eligibility = 0;
+            return;
+        }
+
+        String worldName = player.getWorldName();
+        int eligibility = 0;
+
+        for (VeinMinerToolCategory category : registry.getAll()) {
+            if (!player.hasPermission(VeinMinerConstants.PERMISSION_VEINMINE.apply(category))) {
+                continue;
+            }
+
+            eligibility |= ELIGIBILITY_HAS_PERMISSION;
+            this.permittedCategories.set(category.getIndex());
+
+            if (!disabledCategories.contains(category) && !category.getConfig().isDisabledWorld(worldName)) {
+                this.usableCategories.set(category.getIndex());
+            }
+        }
+
+        if (!usableCategories.isEmpty() && !VeinMinerServer.getInstance().getVeinMinerManager().isDisabledGameMode(player.getGameMode())) {
+            eligibility |= ELIGIBILITY_CAN_VEIN_MINE;
+        }
+
+        if (player.hasPermission(VeinMinerConstants.PERMISSION_FREE_HUNGER)) {
+            eligibility |= ELIGIBILITY_EXEMPT_FROM_HUNGER;
+        }
+
+        if (player.hasPermission(VeinMinerConstants.PERMISSION_FREE_ECONOMY)) {
+            eligibility |= ELIGIBILITY_EXEMPT_FROM_ECONOMY;
+        }
+
+        this.eligibility = eligibility;
+        this.eligibilityRevision = registry.getRevision();
+        this.eligibilityValid = true;
+    }
+
+    /**
+     * Record the block most recently damaged (left clicked) by this player and the face of the
+     * block that was clicked, to be retrieved with {@link #consumeDamagedBlockFace(String, BlockPosition)}
+     * when the block is broken.
+     * <p>
+     * Not part of the public API. This method is intended for internal use only.
+     *
+     * @param worldName the name of the world in which the block was damaged
+     * @param position the position of the damaged block
+     * @param face the face of the block that was clicked
+     */
+    @Internal
+    public void setLastDamagedBlock(@NotNull String worldName, @NotNull BlockPosition position, @NotNull BlockFace face) {
+        this.lastDamagedBlock = new DamagedBlock(worldName, position, face);
+    }
+
+    /**
+     * Get the face of the block at the given position that was clicked when this player last
+     * damaged it, and clear the recorded block. If the player's most recently damaged block was
+     * not at the given position, the recorded block is stale and null is returned.
+     * <p>
+     * Not part of the public API. This method is intended for internal use only.
+     *
+     * @param worldName the name of the world in which the block was broken
+     * @param position the position of the broken block
+     *
+     * @return the clicked face, or null if unknown
+     */
+    @Internal
+    @Nullable
+    public BlockFace consumeDamagedBlockFace(@NotNull String worldName, @NotNull BlockPosition position) {
+        DamagedBlock damagedBlock = lastDamagedBlock;
+        this.lastDamagedBlock = null;
+
+        if (damagedBlock == null || !damagedBlock.position().equals(position) || !damagedBlock.worldName().equals(worldName)) {
+            return null;
+        }
+
+        return damagedBlock.face();
+    }
+
     /**
      * Set whether or not this player data should be written.
      *
@@ -416,17 +645,63 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
         this.player.sendPluginMessage(channel, message);
     }
 
+    @Internal
+    @Nullable
+    @Override
+    public MessageCompression getMessageCompression() {
+        return messageCompression;
+    }
+
+    /**
+     * Queue a client-bound {@link PluginMessage} to be sent to this player at the end of the
+     * current tick. All messages queued within a tick are sent in a single bundle if supported
+     * by the player's client, or one after another in the order in which they were queued
+     * otherwise.
+     *
+     * @param message the message to queue
+     *
+     * @see #flushQueuedMessages()
+     */
+    public void queueMessage(@NotNull PluginMessage<ClientboundPluginMessageListener> message) {
+        this.queuedMessages.add(message);
+    }
+
+    /**
+     * Immediately send all messages {@link #queueMessage(PluginMessage) queued} for this player.
+     * This is called automatically every tick.
+     */
+    public void flushQueuedMessages() {
+        if (queuedMessages.isEmpty()) {
+            return;
+        }
+
+        List<PluginMessage<ClientboundPluginMessageListener>> messages = new ArrayList<>(queuedMessages.size());
+
+        PluginMessage<ClientboundPluginMessageListener> message;
+        while ((message = queuedMessages.poll()) != null) {
+            messages.add(message);
+        }
+
+        if (messages.size() > 1 && bundlesSupported) {
+            VeinMiner.PROTOCOL.sendMessagesToClient(this, messages);
+            return;
+        }
+
+        messages.forEach(queuedMessage -> VeinMiner.PROTOCOL.sendMessageToClient(this, queuedMessage));
+    }
+
 
     @Internal
     @Override
     public void handleHandshake(@NotNull PluginMessageServerboundHandshake message) {
-        int serverProtocolVersion = VeinMiner.PROTOCOL.getVersion();
-        if (serverProtocolVersion != message.getProtocolVersion()) {
-            this.player.kick("Your client-side version of VeinMiner (for Bukkit) is " + (serverProtocolVersion > message.getProtocolVersion() ? "out of date. Please update." : "too new. Please downgrade."));
+        int clientProtocolVersion = message.getProtocolVersion();
+        if (clientProtocolVersion < VeinMiner.MINIMUM_PROTOCOL_VERSION || clientProtocolVersion > VeinMiner.PROTOCOL.getVersion()) {
+            this.player.kick("Your client-side version of VeinMiner (for Bukkit) is " + (clientProtocolVersion < VeinMiner.MINIMUM_PROTOCOL_VERSION ? "out of date. Please update." : "too new. Please downgrade."));
             return;
         }
 
         this.usingClientMod = true;
+        this.clientProtocolVersion = clientProtocolVersion;
         this.setActivationStrategy(ActivationStrategy.CLIENT);
         this.dirty = false; // We can force dirty = false. Data hasn't loaded yet, but we still want to set the strategy to client automatically
 
@@ -436,7 +711,20 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
          */
         VeinMinerServer veinMiner = VeinMinerServer.getInstance();
         veinMiner.getPlatform().runTaskLater(() -> {
-            VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundHandshakeResponse());
+            if (clientProtocolVersion >= PluginMessageServerboundHandshake.CAPABILITIES_PROTOCOL_VERSION) {
+                int capabilities = message.getCapabilities() & (PluginMessageServerboundHandshake.CAPABILITY_COMPRESSION | PluginMessageServerboundHandshake.CAPABILITY_BUNDLES | PluginMessageServerboundHandshake.CAPABILITY_PREVIEW_SUBSCRIPTIONS);
+                VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundHandshakeResponse(capabilities));
+
+                // The response itself is never compressed (nor bundled), but every message after it may be
+                if ((capabilities & PluginMessageServerboundHandshake.CAPABILITY_COMPRESSION) != 0) {
+                    this.messageCompression = new MessageCompression();
+                }
+
+                this.bundlesSupported = (capabilities & PluginMessageServerboundHandshake.CAPABILITY_BUNDLES) != 0;
+                this.previewSubscriptionsSupported = (capabilities & PluginMessageServerboundHandshake.CAPABILITY_PREVIEW_SUBSCRIPTIONS) != 0;
+            } else {
+                VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundHandshakeResponse());
+            }
 
             // Synchronize all registered patterns to the client
             PatternRegistry patternRegistry = veinMiner.getPatternRegistry();
@@ -461,8 +749,8 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
                 return permission != null && !player.hasPermission(permission);
             });
 
-            VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundSyncRegisteredPatterns(patternKeys));
-            VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundSetConfig(clientConfig));
+            this.queueMessage(new PluginMessageClientboundSyncRegisteredPatterns(patternKeys));
+            this.queueMessage(new PluginMessageClientboundSetConfig(clientConfig));
 
             // The client is ready, accept post-client init tasks now
             this.clientReady = true;
@@ -487,58 +775,212 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
         }
 
         this.clientKeyPressed = message.isActivated();
+
+        // The client no longer displays a preview, so there is no reason to keep it updated
+        if (!clientKeyPressed && subscribedVeinMineRequest != null) {
+            VeinMinerServer.getInstance().getPreviewSubscriptionManager().unsubscribe(getPlayerUUID());
+            this.subscribedVeinMineRequest = null;
+        }
+    }
+
+    /**
+     * Get the amount of vein mine requests sent by this player's client that were replaced
+     * by a newer request before they could be computed.
+     *
+     * @return the amount of coalesced requests
+     */
+    public long getCoalescedVeinMineRequests() {
+        return coalescedVeinMineRequests;
+    }
+
+    /**
+     * Get the amount of vein mine requests sent by this player's client whose computation was
+     * delayed because the client exceeded its {@link VeinMineRequestLimits#requestsPerSecond() rate limit}.
+     *
+     * @return the amount of deferred requests
+     */
+    public long getDeferredVeinMineRequests() {
+        return deferredVeinMineRequests;
+    }
+
+    /**
+     * Compute this player's pending vein mine request, if there is one, the minimum interval
+     * since the last computed request has elapsed and the rate limit permits it.
+     * <p>
+     * This is an internal method and is called once per tick by the server.
+     */
+    @Internal
+    public void processPendingVeinMineRequest() {
+        if (pendingVeinMineRequest == null) {
+            return;
+        }
+
+        this.processPendingVeinMineRequest(VeinMinerServer.getInstance().getVeinMineRequestLimits(), System.nanoTime());
+    }
+
+    private void processPendingVeinMineRequest(VeinMineRequestLimits limits, long now) {
+        if (veinMineRequestComputed && now - lastVeinMineRequestComputed < limits.minimumIntervalNanos()) {
+            return;
+        }
+
+        // The rate limit only delays the latest request until a token is available. It is never discarded in favour of an older one
+        if (!tryAcquireVeinMineRequestToken(limits, now)) {
+            if (!pendingVeinMineRequestDeferred) {
+                this.deferredVeinMineRequests++;
+                this.pendingVeinMineRequestDeferred = true;
+            }
+
+            return;
+        }
+
+        PluginMessageServerboundRequestVeinMine message = pendingVeinMineRequest;
+        this.pendingVeinMineRequest = null;
+        this.lastVeinMineRequestComputed = now;
+        this.veinMineRequestComputed = true;
+
+        this.computeVeinMineRequest(message, false);
+    }
+
+    private boolean tryAcquireVeinMineRequestToken(VeinMineRequestLimits limits, long now) {
+        if (!limits.isRateLimited()) {
+            return true;
+        }
+
+        // Limits may have changed since the bucket was created (i.e. after a reload)
+        if (veinMineRequestTokens == null || veinMineRequestTokenLimits != limits) {
+            this.veinMineRequestTokens = new TokenBucket(Math.max(limits.burst(), 1), limits.requestsPerSecond(), now);
+            this.veinMineRequestTokenLimits = limits;
+        }
+
+        return veinMineRequestTokens.tryConsume(now);
     }
 
     @Internal
     @Override
     public void handleRequestVeinMine(@NotNull PluginMessageServerboundRequestVeinMine message) {
+        if (pendingVeinMineRequest != null) {
+            this.coalescedVeinMineRequests++;
+        }
+
+        // The latest request always replaces the pending one, whether or not it can be computed right away
+        this.pendingVeinMineRequest = message;
+        this.pendingVeinMineRequestDeferred = false;
+        this.processPendingVeinMineRequest(VeinMinerServer.getInstance().getVeinMineRequestLimits(), System.nanoTime());
+    }
+
+    private void computeVeinMineRequest(@NotNull PluginMessageServerboundRequestVeinMine message, boolean refresh) {
         ItemStack itemStack = player.getItemInMainHand();
         VeinMinerServer veinMiner = VeinMinerServer.getInstance();
         VeinMinerToolCategory category = veinMiner.getToolCategoryRegistry().get(itemStack.getType());
 
         if (category == null) {
-            VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundVeinMineResults());
+            this.sendVeinMineResults(message, null, Collections.emptySet(), refresh);
             return;
         }
 
         // Check for the NBT value is one is present
         String nbtValue = category.getNBTValue();
         if (nbtValue != null && !nbtValue.equals(itemStack.getVeinMinerNBTValue())) {
+            VeinMinerServer.getInstance().getPreviewSubscriptionManager().unsubscribe(getPlayerUUID());
+            this.subscribedVeinMineRequest = null;
             return;
         }
 
-        RayTraceResult rayTraceResult = player.getTargetBlock(6);
-        BlockPosition targetBlock = rayTraceResult.getHitBlock();
-        BlockFace targetBlockFace = rayTraceResult.getHitBlockFace();
+        BlockPosition targetBlock = message.getPosition();
+        BlockFace targetBlockFace = message.getFace();
 
-        if (targetBlock == null || targetBlockFace == null) {
-            VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundVeinMineResults());
-            return;
-        }
+        BlockAccessor blockAccessor = player.getWorld();
 
-        // Validate the client's target block against the server's client block. It should be within 2 blocks of the client's target
-        BlockPosition clientTargetBlock = message.getPosition();
-        if (clientTargetBlock.distanceSquared(targetBlock.x(), targetBlock.y(), targetBlock.z()) >= 4) {
-            VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundVeinMineResults());
-            return;
+        if (targetBlockFace != null) {
+            // Clients sending the face they hit are validated without a ray trace. The face must be within reach and, so as not to reveal what lies behind walls, not obstructed
+            EyeLocation eyeLocation = player.getEyeLocation();
+            if (!eyeLocation.canReach(targetBlock, targetBlockFace, MAXIMUM_REACH_DISTANCE) || eyeLocation.isObstructed(blockAccessor, targetBlock, targetBlockFace)) {
+                this.sendVeinMineResults(message, null, Collections.emptySet(), refresh);
+                return;
+            }
+        } else {
+            // Older clients do not send the face they hit, so it must be ray traced
+            RayTraceResult rayTraceResult = player.getTargetBlock(MAXIMUM_REACH_DISTANCE);
+            BlockPosition rayTracedBlock = rayTraceResult.getHitBlock();
+            targetBlockFace = rayTraceResult.getHitBlockFace();
+
+            if (rayTracedBlock == null || targetBlockFace == null) {
+                this.sendVeinMineResults(message, null, Collections.emptySet(), refresh);
+                return;
+            }
+
+            // Validate the client's target block against the server's client block. It should be within 2 blocks of the client's target
+            if (targetBlock.distanceSquared(rayTracedBlock.x(), rayTracedBlock.y(), rayTracedBlock.z()) >= 4) {
+                this.sendVeinMineResults(message, null, Collections.emptySet(), refresh);
+                return;
+            }
         }
 
-        targetBlock = clientTargetBlock;
-        BlockAccessor blockAccessor = player.getWorld();
         BlockState targetBlockState = blockAccessor.getState(targetBlock);
 
         VeinMinerManager veinMinerManager = veinMiner.getVeinMinerManager();
         VeinMinerBlock block = veinMinerManager.getVeinMinerBlock(targetBlockState, category);
 
         if (block == null) {
-            VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundVeinMineResults());
+            this.sendVeinMineResults(message, targetBlock, Collections.emptySet(), refresh);
             return;
         }
 
         BlockList aliasBlockList = veinMinerManager.getAlias(block);
-        Set<BlockPosition> blocks = getVeinMiningPattern().allocateBlocks(blockAccessor, targetBlock, targetBlockFace, block, category.getConfig(), aliasBlockList);
+        Set<BlockPosition> blocks = veinMiner.getAllocationCache().allocate(getVeinMiningPattern(), blockAccessor, targetBlock, targetBlockFace, block, category, aliasBlockList);
+
+        this.sendVeinMineResults(message, targetBlock, blocks, refresh);
+    }
+
+    // origin is null if the request could not be resolved to a block, in which case there is nothing to subscribe to
+    private void sendVeinMineResults(@NotNull PluginMessageServerboundRequestVeinMine request, @Nullable BlockPosition origin, @NotNull Set<BlockPosition> blocks, boolean refresh) {
+        if (previewSubscriptionsSupported) {
+            PreviewSubscriptionManager subscriptionManager = VeinMinerServer.getInstance().getPreviewSubscriptionManager();
+
+            if (origin != null) {
+                subscriptionManager.subscribe(getPlayerUUID(), player.getWorld().getWorldName(), origin, blocks);
+                this.subscribedVeinMineRequest = request;
+            } else {
+                subscriptionManager.unsubscribe(getPlayerUUID());
+                this.subscribedVeinMineRequest = null;
+            }
+        }
+
+        // Most changes near a vein do not change the vein itself, in which case the client is already up to date
+        if (refresh && blocks.equals(lastVeinMineResults)) {
+            return;
+        }
+
+        this.lastVeinMineResults = blocks;
+
+        // Older clients do not understand the compact encoding and expect absolute positions
+        PluginMessageClientboundVeinMineResults results;
+        if (blocks.isEmpty()) {
+            results = new PluginMessageClientboundVeinMineResults();
+        } else if (clientProtocolVersion >= PluginMessageClientboundVeinMineResults.COMPACT_PROTOCOL_VERSION) {
+            results = new PluginMessageClientboundVeinMineResults(origin, blocks);
+        } else {
+            results = new PluginMessageClientboundVeinMineResults(blocks);
+        }
+
+        VeinMiner.PROTOCOL.sendMessageToClient(this, results);
+    }
+
+    /**
+     * Recompute and push the vein mine preview to which this player's client is subscribed, if
+     * any, should it have changed since it was last sent.
+     * <p>
+     * This is an internal method and is called by the server at most once per tick when a block
+     * in or adjacent to the subscribed vein has changed.
+     */
+    @Internal
+    public void refreshVeinMinePreview() {
+        // A pending request will replace the subscription anyway
+        if (subscribedVeinMineRequest == null || pendingVeinMineRequest != null) {
+            return;
+        }
 
-        VeinMiner.PROTOCOL.sendMessageToClient(this, new PluginMessageClientboundVeinMineResults(blocks));
+        this.computeVeinMineRequest(subscribedVeinMineRequest, true);
     }
 
     @Internal
@@ -565,4 +1007,6 @@ public final class VeinMinerPlayer implements MessageReceiver, ServerboundPlugin
         this.setVeinMiningPattern(event.getNewPattern());
     }
 
+    private record DamagedBlock(@NotNull String worldName, @NotNull BlockPosition position, @NotNull BlockFace face) { }
+
 }
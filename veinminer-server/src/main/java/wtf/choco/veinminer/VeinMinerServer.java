@@ -5,6 +5,8 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import org.jetbrains.annotations.NotNull;
@@ -15,6 +17,8 @@ import wtf.choco.veinminer.command.CommandExecutor;
 import wtf.choco.veinminer.command.CommandToollist;
 import wtf.choco.veinminer.command.CommandVeinMiner;
 import wtf.choco.veinminer.config.ClientConfig;
+import wtf.choco.veinminer.config.ConfigurationSnapshot;
+import wtf.choco.veinminer.config.VeinMineRequestLimits;
 import wtf.choco.veinminer.config.VeinMinerConfiguration;
 import wtf.choco.veinminer.config.VeinMiningConfig;
 import wtf.choco.veinminer.data.PersistentDataStorage;
@@ -24,9 +28,13 @@ import wtf.choco.veinminer.data.PersistentDataStorageNoOp;
 import wtf.choco.veinminer.data.PersistentDataStorageSQLite;
 import wtf.choco.veinminer.economy.EmptyEconomy;
 import wtf.choco.veinminer.economy.SimpleEconomy;
+import wtf.choco.veinminer.job.VeinMiningJobScheduler;
+import wtf.choco.veinminer.manager.PreviewSubscriptionManager;
+import wtf.choco.veinminer.manager.VeinClaimManager;
 import wtf.choco.veinminer.manager.VeinMinerManager;
 import wtf.choco.veinminer.manager.VeinMinerPlayerManager;
 import wtf.choco.veinminer.pattern.PatternRegistry;
+import wtf.choco.veinminer.pattern.VeinAllocationCache;
 import wtf.choco.veinminer.pattern.VeinMiningPattern;
 import wtf.choco.veinminer.pattern.VeinMiningPatternDefault;
 import wtf.choco.veinminer.pattern.VeinMiningPatternStaircase;
@@ -58,6 +66,12 @@ public final class VeinMinerServer implements VeinMiner {
     private VeinMinerPlayerManager playerManager = new VeinMinerPlayerManager();
     private ToolCategoryRegistry toolCategoryRegistry = new ToolCategoryRegistry();
     private PatternRegistry patternRegistry = new PatternRegistry();
+    private VeinMiningJobScheduler jobScheduler;
+    private VeinAllocationCache allocationCache = new VeinAllocationCache(256, 5, TimeUnit.SECONDS);
+    private PreviewSubscriptionManager previewSubscriptionManager = new PreviewSubscriptionManager();
+    private VeinClaimManager claimManager = new VeinClaimManager();
+
+    private volatile ConfigurationSnapshot configurationSnapshot = ConfigurationSnapshot.DEFAULT;
 
     private PersistentDataStorage persistentDataStorage = PersistentDataStorageNoOp.INSTANCE;
 
@@ -74,6 +88,7 @@ public final class VeinMinerServer implements VeinMiner {
      */
     public void onLoad(@NotNull ServerPlatform platform) {
         this.platform = platform;
+        this.jobScheduler = new VeinMiningJobScheduler(0, platform.getLogger());
 
         // Register all default patterns
         this.patternRegistry.register(VeinMiningPatternDefault.getInstance());
@@ -93,9 +108,30 @@ public final class VeinMinerServer implements VeinMiner {
 
         // VeinMinerManager and ToolCategory loading into memory
         this.platform.getLogger().info("Loading configuration options to local memory");
+        this.configurationSnapshot = ConfigurationSnapshot.compile(platform.getConfig());
         this.reloadVeinMinerManagerConfig();
         this.reloadToolCategoryRegistryConfig();
 
+        // Vein mining jobs are processed once per tick within the global block budget
+        this.platform.runTaskTimer(jobScheduler::tick, 1, 1);
+
+        // Vein mine requests deferred by their minimum interval are computed as soon as it has elapsed
+        this.platform.runTaskTimer(() -> playerManager.getAll().forEach(VeinMinerPlayer::processPendingVeinMineRequest), 1, 1);
+
+        // Previews whose veins changed throughout the tick are pushed to their subscribers once
+        this.platform.runTaskTimer(() -> previewSubscriptionManager.pollChanged().forEach(playerUUID -> {
+            VeinMinerPlayer player = playerManager.get(playerUUID);
+            if (player != null) {
+                player.refreshVeinMinePreview();
+            }
+        }), 1, 1);
+
+        // Messages queued for players throughout the tick are sent together, bundled where possible
+        this.platform.runTaskTimer(() -> playerManager.getAll().forEach(VeinMinerPlayer::flushQueuedMessages), 1, 1);
+
+        // Not every platform notifies of permission changes, so resolved permissions are invalidated once a second regardless
+        this.platform.runTaskTimer(() -> playerManager.getAll().forEach(VeinMinerPlayer::invalidateEligibility), 20, 20);
+
         // Register commands
         this.platform.getLogger().info("Registering commands");
         ServerCommandRegistry commandRegistry = platform.getCommandRegistry();
@@ -136,6 +172,10 @@ public final class VeinMinerServer implements VeinMiner {
      */
     public void onDisable() {
         this.platform.getLogger().info("Clearing localized data");
+        this.jobScheduler.cancelAll();
+        this.allocationCache.invalidateAll();
+        this.previewSubscriptionManager.clear();
+        this.claimManager.clear();
         this.getVeinMinerManager().clear();
 
         this.getPatternRegistry().unregisterAll();
@@ -231,6 +271,69 @@ public final class VeinMinerServer implements VeinMiner {
         return patternRegistry;
     }
 
+    /**
+     * Get the {@link VeinMiningJobScheduler}.
+     *
+     * @return the job scheduler
+     */
+    @NotNull
+    public VeinMiningJobScheduler getJobScheduler() {
+        return jobScheduler;
+    }
+
+    /**
+     * Get the {@link VeinMineRequestLimits} applied to vein mine requests sent by clients.
+     *
+     * @return the vein mine request limits
+     */
+    @NotNull
+    public VeinMineRequestLimits getVeinMineRequestLimits() {
+        return configurationSnapshot.veinMineRequestLimits();
+    }
+
+    /**
+     * Get the {@link ConfigurationSnapshot} of the configuration options read while players
+     * vein mine. The returned snapshot is immutable and is replaced, not modified, whenever the
+     * configuration is reloaded.
+     *
+     * @return the current configuration snapshot
+     */
+    @NotNull
+    public ConfigurationSnapshot getConfigurationSnapshot() {
+        return configurationSnapshot;
+    }
+
+    /**
+     * Get the {@link VeinAllocationCache} shared by vein mine previews and broken veins.
+     *
+     * @return the allocation cache
+     */
+    @NotNull
+    public VeinAllocationCache getAllocationCache() {
+        return allocationCache;
+    }
+
+    /**
+     * Get the {@link PreviewSubscriptionManager} tracking the vein mine previews to which
+     * clients are subscribed.
+     *
+     * @return the preview subscription manager
+     */
+    @NotNull
+    public PreviewSubscriptionManager getPreviewSubscriptionManager() {
+        return previewSubscriptionManager;
+    }
+
+    /**
+     * Get the {@link VeinClaimManager} tracking the blocks of veins that are being vein mined.
+     *
+     * @return the claim manager
+     */
+    @NotNull
+    public VeinClaimManager getClaimManager() {
+        return claimManager;
+    }
+
     /**
      * Set the {@link PersistentDataStorage} for the server.
      *
@@ -312,11 +415,52 @@ public final class VeinMinerServer implements VeinMiner {
                 .build();
     }
 
+    /**
+     * Reload the configuration from disk and compile a new {@link ConfigurationSnapshot}.
+     * <p>
+     * The configuration is read into a new {@link VeinMinerConfiguration#load() loaded
+     * configuration} and compiled off the main thread, leaving the current configuration
+     * untouched. Both are then applied on the main thread in a single task, along with the
+     * reloaded {@link VeinMinerManager} and {@link ToolCategoryRegistry}, such that nothing on the
+     * main thread observes a mix of the previous and new options.
+     *
+     * @return a future completed on the main thread with the new snapshot once the
+     * configuration has been reloaded
+     */
+    @NotNull
+    public CompletableFuture<ConfigurationSnapshot> reloadConfiguration() {
+        CompletableFuture<ConfigurationSnapshot> future = new CompletableFuture<>();
+
+        this.platform.runTaskAsynchronously(() -> {
+            VeinMinerConfiguration loadedConfig;
+            ConfigurationSnapshot snapshot;
+
+            try {
+                loadedConfig = platform.getConfig().load();
+                snapshot = ConfigurationSnapshot.compile(loadedConfig);
+            } catch (RuntimeException e) {
+                this.platform.runTaskLater(() -> future.completeExceptionally(e), 0);
+                return;
+            }
+
+            this.platform.runTaskLater(() -> {
+                this.platform.getConfig().apply(loadedConfig);
+                this.configurationSnapshot = snapshot;
+                this.reloadVeinMinerManagerConfig();
+                this.reloadToolCategoryRegistryConfig();
+                future.complete(snapshot);
+            }, 0);
+        });
+
+        return future;
+    }
+
     /**
      * Reload the {@link VeinMinerManager}'s values from config into memory.
      */
     public void reloadVeinMinerManagerConfig() {
         this.veinMinerManager.clear();
+        this.allocationCache.invalidateAll();
         VeinMinerConfiguration config = platform.getConfig();
 
         // Default activation strategy
@@ -333,6 +477,9 @@ public final class VeinMinerServer implements VeinMiner {
                 .build()
         );
 
+        // Global block budget for vein mining jobs
+        this.jobScheduler.setBlocksPerTick(config.getGlobalBlocksPerTick());
+
         // Disabled game modes
         Set<GameMode> disabledGameModes = new HashSet<>();
         for (String disabledGameModeName : config.getDisabledGameModeNames()) {
@@ -347,6 +494,7 @@ public final class VeinMinerServer implements VeinMiner {
         }
 
         this.veinMinerManager.setDisabledGameModes(disabledGameModes);
+        this.playerManager.getAll().forEach(VeinMinerPlayer::invalidateEligibility);
 
         // Aliases
         int aliasesAdded = 0;
@@ -374,6 +522,7 @@ public final class VeinMinerServer implements VeinMiner {
      */
     public void reloadToolCategoryRegistryConfig() {
         this.toolCategoryRegistry.unregisterAll(); // Unregister all the categories before re-loading them
+        this.allocationCache.invalidateAll();
 
         VeinMinerConfiguration config = platform.getConfig();
         for (String categoryId : config.getAllDefinedCategoryIds()) {
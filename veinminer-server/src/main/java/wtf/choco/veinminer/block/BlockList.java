@@ -2,9 +2,11 @@ package wtf.choco.veinminer.block;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.StringJoiner;
@@ -19,11 +21,20 @@ import wtf.choco.veinminer.platform.world.BlockType;
 
 /**
  * A list of {@link VeinMinerBlock VeinMinerBlocks}.
+ * <p>
+ * Blocks are indexed by their {@link BlockType} as they are added and removed, so checking
+ * whether or not a list contains a state or type only ever considers the blocks of that type,
+ * regardless of the size of the list.
  */
 public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
 
     private final Set<VeinMinerBlock> blocks;
 
+    // Index of the above set. Must be updated on every mutation of the set
+    private final Map<BlockType, TypeRules> rulesByType = new HashMap<>();
+    private final List<VeinMinerBlock> unindexedBlocks = new ArrayList<>(0);
+    private boolean wildcard = false;
+
     /**
      * Construct a new {@link BlockList} containing the values of the given lists.
      * Duplicate entries will be ignored.
@@ -45,6 +56,7 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      */
     public BlockList(@NotNull BlockList list) {
         this.blocks = new HashSet<>(list.blocks);
+        this.blocks.forEach(this::index);
     }
 
     /**
@@ -72,7 +84,12 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      * remained unchanged
      */
     public boolean add(@NotNull VeinMinerBlock block) {
-        return blocks.add(block);
+        if (!blocks.add(block)) {
+            return false;
+        }
+
+        this.index(block);
+        return true;
     }
 
     /**
@@ -87,7 +104,7 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
         boolean changed = false;
 
         for (VeinMinerBlock block : blocks) {
-            changed |= this.blocks.add(block);
+            changed |= add(block);
         }
 
         return changed;
@@ -101,7 +118,12 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      * @return true if this list contained the given block
      */
     public boolean remove(@NotNull VeinMinerBlock block) {
-        return blocks.remove(block);
+        if (!blocks.remove(block)) {
+            return false;
+        }
+
+        this.unindex(block);
+        return true;
     }
 
     /**
@@ -112,7 +134,7 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      * @return true if this list contained a block with the given state
      */
     public boolean remove(@NotNull BlockState state) {
-        return blocks.removeIf(block -> block.matchesState(state, true));
+        return removeOnPredicate(block -> block.matchesState(state, true));
     }
 
     /**
@@ -124,7 +146,7 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      * @return true if this list contained at least one block with the given type
      */
     public boolean removeAll(@NotNull BlockType type) {
-        return blocks.removeIf(block -> block.matchesType(type));
+        return removeOnPredicate(block -> block.matchesType(type));
     }
 
     /**
@@ -147,7 +169,16 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      * @return true if this list contains the state, false otherwise
      */
     public boolean containsState(@NotNull BlockState state, boolean exact) {
-        return containsOnPredicate(block -> block.matchesState(state, exact));
+        if (wildcard) {
+            return true;
+        }
+
+        TypeRules rules = rulesByType.get(state.getType());
+        if (rules != null && rules.getMatch(state, exact) != null) {
+            return true;
+        }
+
+        return !unindexedBlocks.isEmpty() && containsOnPredicate(block -> block.matchesState(state, exact));
     }
 
     /**
@@ -158,7 +189,7 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      * @return true if this list contains the state, false otherwise
      */
     public boolean containsState(@NotNull BlockState state) {
-        return containsOnPredicate(block -> block.matchesState(state, false));
+        return containsState(state, false);
     }
 
     /**
@@ -169,7 +200,16 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      * @return true if this list contains the type, false otherwise
      */
     public boolean containsType(@NotNull BlockType type) {
-        return containsOnPredicate(block -> block.matchesType(type));
+        if (wildcard) {
+            return true;
+        }
+
+        TypeRules rules = rulesByType.get(type);
+        if (rules != null && rules.stateless != null) {
+            return true;
+        }
+
+        return !unindexedBlocks.isEmpty() && containsOnPredicate(block -> block.matchesType(type));
     }
 
     /**
@@ -178,11 +218,12 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      * @return true if contains wildcard, false otherwise
      */
     public boolean containsWildcard() {
-        return containsOnPredicate(block -> block == VeinMinerBlock.WILDCARD);
+        return wildcard;
     }
 
+    // Only unindexed blocks need to be tested. Everything else is covered by the index
     private boolean containsOnPredicate(@NotNull Predicate<VeinMinerBlock> predicate) {
-        for (VeinMinerBlock block : blocks) {
+        for (VeinMinerBlock block : unindexedBlocks) {
             if (predicate.test(block)) {
                 return true;
             }
@@ -191,6 +232,24 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
         return false;
     }
 
+    private boolean removeOnPredicate(@NotNull Predicate<VeinMinerBlock> predicate) {
+        boolean changed = false;
+
+        Iterator<VeinMinerBlock> iterator = blocks.iterator();
+        while (iterator.hasNext()) {
+            VeinMinerBlock block = iterator.next();
+            if (!predicate.test(block)) {
+                continue;
+            }
+
+            iterator.remove();
+            this.unindex(block);
+            changed = true;
+        }
+
+        return changed;
+    }
+
     /**
      * Get the {@link VeinMinerBlock} from this {@link BlockList} that matches the given
      * {@link BlockState}. If no VeinMinerBlock in this list matches the BlockState (i.e.
@@ -202,13 +261,21 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      */
     @Nullable
     public VeinMinerBlock getVeinMinerBlock(@NotNull BlockState state) {
-        for (VeinMinerBlock block : blocks) {
+        TypeRules rules = rulesByType.get(state.getType());
+        if (rules != null) {
+            VeinMinerBlock block = rules.getMatch(state, false);
+            if (block != null) {
+                return block;
+            }
+        }
+
+        for (VeinMinerBlock block : unindexedBlocks) {
             if (block.matchesState(state)) {
                 return block;
             }
         }
 
-        return null;
+        return wildcard ? VeinMinerBlock.WILDCARD : null;
     }
 
     /**
@@ -234,6 +301,9 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
      */
     public void clear() {
         this.blocks.clear();
+        this.rulesByType.clear();
+        this.unindexedBlocks.clear();
+        this.wildcard = false;
     }
 
     /**
@@ -304,7 +374,74 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
     @NotNull
     @Override
     public Iterator<VeinMinerBlock> iterator() {
-        return blocks.iterator();
+        Iterator<VeinMinerBlock> iterator = blocks.iterator();
+
+        // Wrapped so that removals through the iterator also update the index
+        return new Iterator<>() {
+
+            private VeinMinerBlock current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public VeinMinerBlock next() {
+                return (current = iterator.next());
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                BlockList.this.unindex(current);
+            }
+
+        };
+    }
+
+    private void index(VeinMinerBlock block) {
+        if (block == VeinMinerBlock.WILDCARD) {
+            this.wildcard = true;
+        }
+        else if (block instanceof VeinMinerBlockType) {
+            this.rulesByType.computeIfAbsent(block.getType(), type -> new TypeRules()).stateless = block;
+        }
+        else if (block instanceof VeinMinerBlockState) {
+            this.rulesByType.computeIfAbsent(block.getType(), type -> new TypeRules()).stateful.add(block);
+        }
+        else {
+            // Unknown implementations may match types other than their own, so they cannot be indexed
+            this.unindexedBlocks.add(block);
+        }
+    }
+
+    private void unindex(VeinMinerBlock block) {
+        if (block == VeinMinerBlock.WILDCARD) {
+            this.wildcard = false;
+            return;
+        }
+
+        if (!(block instanceof VeinMinerBlockType) && !(block instanceof VeinMinerBlockState)) {
+            this.unindexedBlocks.remove(block);
+            return;
+        }
+
+        TypeRules rules = rulesByType.get(block.getType());
+        if (rules == null) {
+            return;
+        }
+
+        if (block instanceof VeinMinerBlockType) {
+            rules.stateless = null;
+        }
+        else {
+            rules.stateful.remove(block);
+        }
+
+        if (rules.stateless == null && rules.stateful.isEmpty()) {
+            this.rulesByType.remove(block.getType());
+        }
     }
 
     @NotNull
@@ -330,4 +467,24 @@ public class BlockList implements Iterable<VeinMinerBlock>, Cloneable {
         return getClass().getSimpleName() + stateJoiner.toString();
     }
 
+    // The blocks of a single type in a BlockList
+    private static final class TypeRules {
+
+        private VeinMinerBlock stateless;
+        private final List<VeinMinerBlock> stateful = new ArrayList<>(1);
+
+        @Nullable
+        private VeinMinerBlock getMatch(BlockState state, boolean exact) {
+            // Blocks with states are more specific than those without, so they are checked first
+            for (VeinMinerBlock block : stateful) {
+                if (block.matchesState(state, exact)) {
+                    return block;
+                }
+            }
+
+            return (stateless != null && stateless.matchesState(state, exact)) ? stateless : null;
+        }
+
+    }
+
 }
@@ -0,0 +1,99 @@
+package wtf.choco.veinminer.block;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import wtf.choco.veinminer.platform.world.BlockState;
+
+/**
+ * A compiled predicate that checks whether or not a {@link BlockState} matches a
+ * {@link VeinMinerBlock} or any block in its alias {@link BlockList}.
+ * <p>
+ * Matching a state against a block and its aliases normally means scanning the alias list,
+ * comparing states one at a time. A matcher avoids doing that more than once per distinct
+ * state. Each {@link BlockState#getId() interned state} is only evaluated the first time it
+ * is seen, after which its result is held in a lookup table indexed by the state's id, so
+ * repeated checks cost a single bit lookup no matter how large the alias list is. States that
+ * are not interned are always evaluated in full.
+ * <p>
+ * Matchers are cheap to create and are intended to be compiled once for a single allocation.
+ * They are <strong>not</strong> thread-safe.
+ */
+public final class BlockStateMatcher {
+
+    private static final int INITIAL_CAPACITY = 1024; // In states, so 16 longs per bit set
+
+    private final VeinMinerBlock block;
+    private final BlockList aliasList;
+    private final boolean matchesAll;
+
+    private long[] evaluated = new long[INITIAL_CAPACITY >> 6];
+    private long[] matched = new long[INITIAL_CAPACITY >> 6];
+
+    private BlockStateMatcher(@NotNull VeinMinerBlock block, @Nullable BlockList aliasList) {
+        this.block = block;
+        this.aliasList = (aliasList != null && !aliasList.isEmpty()) ? aliasList : null;
+        this.matchesAll = (block == VeinMinerBlock.WILDCARD || (this.aliasList != null && this.aliasList.containsWildcard()));
+    }
+
+    /**
+     * Check whether or not the given {@link BlockState} matches either the {@link VeinMinerBlock}
+     * or a block in the alias list with which this matcher was compiled.
+     *
+     * @param state the state to check
+     *
+     * @return true if the state matches, false otherwise
+     */
+    public boolean matches(@NotNull BlockState state) {
+        if (matchesAll) {
+            return true;
+        }
+
+        int id = state.getId();
+        if (id < 0) {
+            return evaluate(state);
+        }
+
+        int index = id >>> 6;
+        long bit = 1L << id;
+
+        if (index < evaluated.length && (evaluated[index] & bit) != 0) {
+            return (matched[index] & bit) != 0;
+        }
+
+        if (index >= evaluated.length) {
+            int length = Math.max(evaluated.length << 1, index + 1);
+            this.evaluated = Arrays.copyOf(evaluated, length);
+            this.matched = Arrays.copyOf(matched, length);
+        }
+
+        boolean result = evaluate(state);
+        this.evaluated[index] |= bit;
+        if (result) {
+            this.matched[index] |= bit;
+        }
+
+        return result;
+    }
+
+    private boolean evaluate(BlockState state) {
+        return block.matchesState(state) || (aliasList != null && aliasList.containsState(state));
+    }
+
+    /**
+     * Compile a new {@link BlockStateMatcher} for the given {@link VeinMinerBlock} and its
+     * alias list.
+     *
+     * @param block the block against which to match states
+     * @param aliasList the alias list, or null if no aliases
+     *
+     * @return the compiled matcher
+     */
+    @NotNull
+    public static BlockStateMatcher compile(@NotNull VeinMinerBlock block, @Nullable BlockList aliasList) {
+        return new BlockStateMatcher(block, aliasList);
+    }
+
+}
@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -21,6 +22,7 @@ import wtf.choco.veinminer.VeinMinerServer;
 import wtf.choco.veinminer.api.event.player.PatternChangeEvent;
 import wtf.choco.veinminer.data.LegacyImportTask;
 import wtf.choco.veinminer.data.PersistentDataStorageSQL;
+import wtf.choco.veinminer.job.VeinMiningJobScheduler;
 import wtf.choco.veinminer.pattern.VeinMiningPattern;
 import wtf.choco.veinminer.platform.PlatformCommandSender;
 import wtf.choco.veinminer.platform.PlatformPlayer;
@@ -61,18 +63,22 @@ public final class CommandVeinMiner implements CommandExecutor {
                 return true;
             }
 
-            VeinMinerServer veinMiner = VeinMinerServer.getInstance();
-            veinMiner.getPlatform().getConfig().reload();
+            // The configuration is read off the main thread, the future completes back on the main thread
+            this.veinMiner.reloadConfiguration().whenComplete((snapshot, e) -> {
+                if (e != null) {
+                    this.veinMiner.getPlatform().getLogger().log(Level.SEVERE, "Could not reload the VeinMiner configuration", e);
+                    sender.sendMessage(ChatFormat.RED + "VeinMiner configuration could not be reloaded. See the console for details.");
+                    return;
+                }
 
-            veinMiner.reloadVeinMinerManagerConfig();
-            veinMiner.reloadToolCategoryRegistryConfig();
+                // Update configurations for all players
+                this.veinMiner.getPlayerManager().getAll().forEach(veinMinerPlayer -> {
+                    veinMinerPlayer.setClientConfig(veinMiner.createClientConfig(veinMinerPlayer.getPlayer()));
+                });
 
-            // Update configurations for all players
-            this.veinMiner.getPlayerManager().getAll().forEach(veinMinerPlayer -> {
-                veinMinerPlayer.setClientConfig(veinMiner.createClientConfig(veinMinerPlayer.getPlayer()));
+                sender.sendMessage(ChatFormat.GREEN + "VeinMiner configuration successfully reloaded.");
             });
 
-            sender.sendMessage(ChatFormat.GREEN + "VeinMiner configuration successfully reloaded.");
             return true;
         }
 
@@ -269,6 +275,36 @@ public final class CommandVeinMiner implements CommandExecutor {
             return true;
         }
 
+        else if (args[0].equalsIgnoreCase("scheduler")) {
+            if (!sender.hasPermission(VeinMinerConstants.PERMISSION_COMMAND_SCHEDULER)) {
+                sender.sendMessage(ChatFormat.RED + "You have insufficient permissions to execute this command.");
+                return true;
+            }
+
+            VeinMiningJobScheduler scheduler = veinMiner.getJobScheduler();
+
+            if (args.length >= 2 && args[1].equalsIgnoreCase("reset")) {
+                scheduler.resetStatistics();
+                sender.sendMessage(ChatFormat.GREEN + "Vein mining scheduler statistics have been reset.");
+                return true;
+            }
+
+            int blocksPerTick = scheduler.getBlocksPerTick();
+            sender.sendMessage(ChatFormat.GOLD + "Global block budget: " + ChatFormat.WHITE + (blocksPerTick > 0 ? blocksPerTick + " blocks/tick" : "unlimited"));
+            sender.sendMessage(ChatFormat.GOLD + "Blocks broken last tick: " + ChatFormat.WHITE + scheduler.getBlocksProcessedLastTick());
+            sender.sendMessage(ChatFormat.GOLD + "Queue depth: " + ChatFormat.WHITE + scheduler.getQueuedJobCount() + " jobs from " + scheduler.getQueuedPlayerCount() + " players");
+            sender.sendMessage(ChatFormat.GOLD + "Wait time: " + ChatFormat.WHITE + "%.2f ticks average, %d ticks maximum".formatted(scheduler.getAverageWaitTicks(), scheduler.getMaximumWaitTicks()));
+
+            long coalescedRequests = 0, deferredRequests = 0;
+            for (VeinMinerPlayer veinMinerPlayer : veinMiner.getPlayerManager().getAll()) {
+                coalescedRequests += veinMinerPlayer.getCoalescedVeinMineRequests();
+                deferredRequests += veinMinerPlayer.getDeferredVeinMineRequests();
+            }
+
+            sender.sendMessage(ChatFormat.GOLD + "Preview requests: " + ChatFormat.WHITE + coalescedRequests + " coalesced, " + deferredRequests + " deferred");
+            return true;
+        }
+
         return false;
     }
 
@@ -285,6 +321,7 @@ public final class CommandVeinMiner implements CommandExecutor {
             this.addConditionally(suggestions, "mode", () -> sender.hasPermission(VeinMinerConstants.PERMISSION_COMMAND_MODE));
             this.addConditionally(suggestions, "pattern", () -> sender.hasPermission(VeinMinerConstants.PERMISSION_COMMAND_PATTERN));
             this.addConditionally(suggestions, "import", () -> sender.hasPermission(VeinMinerConstants.PERMISSION_COMMAND_IMPORT));
+            this.addConditionally(suggestions, "scheduler", () -> sender.hasPermission(VeinMinerConstants.PERMISSION_COMMAND_SCHEDULER));
 
             return StringUtils.copyPartialMatches(args[0], suggestions, new ArrayList<>());
         }
@@ -333,6 +370,10 @@ public final class CommandVeinMiner implements CommandExecutor {
                 }
             }
 
+            else if (args[0].equalsIgnoreCase("scheduler") && sender.hasPermission(VeinMinerConstants.PERMISSION_COMMAND_SCHEDULER)) {
+                suggestions.add("reset");
+            }
+
             return StringUtils.copyPartialMatches(args[1], suggestions, new ArrayList<>());
         }
 
@@ -346,13 +387,8 @@ public final class CommandVeinMiner implements CommandExecutor {
     }
 
     private boolean canVeinMine(PlatformPlayer player) {
-        for (VeinMinerToolCategory category : veinMiner.getToolCategoryRegistry().getAll()) {
-            if (player.hasPermission(VeinMinerConstants.PERMISSION_VEINMINE.apply(category))) {
-                return true;
-            }
-        }
-
-        return false;
+        VeinMinerPlayer veinMinerPlayer = veinMiner.getPlayerManager().get(player);
+        return veinMinerPlayer != null && veinMinerPlayer.hasVeinMinePermission();
     }
 
     private String getUpdateSuffix() {
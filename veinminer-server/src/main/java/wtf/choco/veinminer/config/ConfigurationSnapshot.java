@@ -0,0 +1,91 @@
+package wtf.choco.veinminer.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import wtf.choco.veinminer.job.DropAggregationMode;
+import wtf.choco.veinminer.util.ChatFormat;
+
+/**
+ * An immutable snapshot of the configuration options read while players vein mine.
+ * <p>
+ * Rather than reading the {@link VeinMinerConfiguration} every time a block is vein mined,
+ * its options are compiled into a snapshot once when the configuration is loaded. Values are
+ * validated and messages are translated at compile time, such that no further work is done
+ * when they are read. A new snapshot is compiled whenever the configuration is reloaded and
+ * replaces the previous one in a single write, on the server thread and together with the
+ * reloaded block lists and categories, so a reader will only ever see the options of either
+ * configuration, never a mix of the two.
+ *
+ * @param collectItemsAtSource whether or not items should be dropped at the origin of the vein
+ * @param repairFriendly whether or not vein mining should stop before the tool breaks
+ * @param nerfMcMMO whether or not McMMO experience should be disabled for vein mined blocks
+ * @param asyncAllocation whether or not veins should be allocated off the main thread
+ * @param maxBlocksPerTick the maximum amount of blocks a vein may break per tick, or a value
+ * {@literal <=} 0 for no limit
+ * @param maxNanosPerTick the maximum amount of time (in nanoseconds) a vein may spend breaking
+ * blocks per tick, or 0 for no limit
+ * @param veinMineRequestLimits the limits on how often clients may request vein mine previews
+ * @param dropAggregationMode the way in which the drops of a vein are aggregated
+ * @param coalesceExperience whether or not the experience of a vein is dropped as a single orb
+ * @param bulkBreak whether or not the blocks of a vein are broken in bulk
+ * @param hungerModifier the hunger modifier applied for every vein mined block, never negative
+ * @param minimumFoodLevel the minimum food level required to vein mine, never negative
+ * @param hungryMessage the translated message sent to players that are too hungry to vein mine,
+ * or an empty string if none
+ *
+ * @see VeinMinerConfiguration
+ */
+public record ConfigurationSnapshot(
+        boolean collectItemsAtSource,
+        boolean repairFriendly,
+        boolean nerfMcMMO,
+        boolean asyncAllocation,
+        int maxBlocksPerTick,
+        long maxNanosPerTick,
+        @NotNull VeinMineRequestLimits veinMineRequestLimits,
+        @NotNull DropAggregationMode dropAggregationMode,
+        boolean coalesceExperience,
+        boolean bulkBreak,
+        float hungerModifier,
+        int minimumFoodLevel,
+        @NotNull String hungryMessage
+) {
+
+    /**
+     * The snapshot in use until a configuration has been loaded.
+     */
+    public static final ConfigurationSnapshot DEFAULT = new ConfigurationSnapshot(
+        true, false, false, false, 64, 0L,
+        VeinMineRequestLimits.UNLIMITED, DropAggregationMode.NONE, false, false,
+        4.0F, 1, ""
+    );
+
+    /**
+     * Compile a snapshot of the current options of the given configuration.
+     *
+     * @param config the configuration to compile
+     *
+     * @return the compiled snapshot
+     */
+    @NotNull
+    public static ConfigurationSnapshot compile(@NotNull VeinMinerConfiguration config) {
+        String hungryMessage = config.getHungryMessage();
+
+        return new ConfigurationSnapshot(
+            config.shouldCollectItemsAtSource(),
+            config.isRepairFriendly(),
+            config.shouldNerfMcMMO(),
+            config.shouldAllocateAsynchronously(),
+            config.getMaxBlocksPerTick(),
+            Math.max(config.getMaxMicrosecondsPerTick(), 0) * 1000L,
+            config.getVeinMineRequestLimits(),
+            config.getDropAggregationMode(),
+            config.shouldCoalesceExperience(),
+            config.shouldBulkBreak(),
+            Math.max(config.getHungerModifier(), 0.0F),
+            Math.max(config.getMinimumFoodLevel(), 0),
+            (hungryMessage != null) ? ChatFormat.translateAlternateColorCodes('&', hungryMessage) : ""
+        );
+    }
+
+}
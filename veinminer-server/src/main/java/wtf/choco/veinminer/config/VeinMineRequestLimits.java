@@ -0,0 +1,44 @@
+package wtf.choco.veinminer.config;
+
+/**
+ * Limits on how often a client may request vein mine previews and how often the server will
+ * compute them.
+ * <p>
+ * Requests received while another is waiting to be computed replace it, so that only the
+ * latest request is computed. No more than one request is computed per minimum interval, and
+ * computing a request takes a token from the client's rate limit. While the client is out of
+ * tokens, its latest request waits until a token is available.
+ *
+ * @param minimumInterval the minimum amount of time (in milliseconds) between two computed
+ * requests, or 0 for no minimum
+ * @param requestsPerSecond the sustained amount of requests that may be computed for a client
+ * per second, or 0 for no limit
+ * @param burst the amount of requests that may be computed for a client at once before being
+ * limited to {@code requestsPerSecond}
+ */
+public record VeinMineRequestLimits(int minimumInterval, int requestsPerSecond, int burst) {
+
+    /**
+     * Limits that permit every request.
+     */
+    public static final VeinMineRequestLimits UNLIMITED = new VeinMineRequestLimits(0, 0, 0);
+
+    /**
+     * Get the minimum amount of time between two computed requests in nanoseconds.
+     *
+     * @return the minimum interval in nanoseconds
+     */
+    public long minimumIntervalNanos() {
+        return Math.max(minimumInterval, 0) * 1_000_000L;
+    }
+
+    /**
+     * Check whether or not the amount of requests a client may send is limited.
+     *
+     * @return true if limited, false if clients may send any amount of requests
+     */
+    public boolean isRateLimited() {
+        return requestsPerSecond > 0;
+    }
+
+}
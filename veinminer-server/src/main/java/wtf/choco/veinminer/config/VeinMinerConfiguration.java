@@ -12,6 +12,7 @@ import wtf.choco.veinminer.ActivationStrategy;
 import wtf.choco.veinminer.VeinMinerServer;
 import wtf.choco.veinminer.block.BlockList;
 import wtf.choco.veinminer.data.PersistentDataStorage;
+import wtf.choco.veinminer.job.DropAggregationMode;
 import wtf.choco.veinminer.pattern.VeinMiningPattern;
 import wtf.choco.veinminer.tool.VeinMinerToolCategory;
 
@@ -76,6 +77,13 @@ public interface VeinMinerConfiguration {
      */
     public boolean shouldCollectItemsAtSource();
 
+    /**
+     * Get whether or not McMMO experience should not be granted for vein mined blocks.
+     *
+     * @return true if McMMO experience should be disabled for vein mined blocks, false otherwise
+     */
+    public boolean shouldNerfMcMMO();
+
     /**
      * Get whether or not vein miner is repair friendly and will ensure that tools do not break
      * mid-vein mine
@@ -218,6 +226,67 @@ public interface VeinMinerConfiguration {
     @NotNull
     public Set<String> getDisabledWorlds(@NotNull String categoryId, Supplier<Set<String>> defaultValues);
 
+    /**
+     * Get the maximum amount of blocks that may be broken per tick by all players combined.
+     *
+     * @return the global block budget per tick, or a value {@literal <=} 0 for no limit
+     */
+    public int getGlobalBlocksPerTick();
+
+    /**
+     * Get whether or not veins should be allocated off the main thread.
+     *
+     * @return true if veins should be allocated asynchronously, false otherwise
+     */
+    public boolean shouldAllocateAsynchronously();
+
+    /**
+     * Get the maximum amount of blocks a single vein may break per tick.
+     *
+     * @return the maximum amount of blocks per tick, or a value {@literal <=} 0 for no limit
+     */
+    public int getMaxBlocksPerTick();
+
+    /**
+     * Get the maximum amount of time (in microseconds) a single vein may spend breaking blocks
+     * per tick.
+     *
+     * @return the maximum amount of microseconds per tick, or a value {@literal <=} 0 for no limit
+     */
+    public long getMaxMicrosecondsPerTick();
+
+    /**
+     * Get the way in which the items dropped by the blocks of a vein should be aggregated.
+     *
+     * @return the drop aggregation mode
+     */
+    @NotNull
+    public DropAggregationMode getDropAggregationMode();
+
+    /**
+     * Get whether or not the experience dropped by the blocks of a vein should be dropped as a
+     * single orb once the vein has finished.
+     *
+     * @return true if experience should be coalesced, false otherwise
+     */
+    public boolean shouldCoalesceExperience();
+
+    /**
+     * Get whether or not the blocks of a vein should be broken in bulk rather than one at a time
+     * by the player.
+     *
+     * @return true if blocks should be broken in bulk, false otherwise
+     */
+    public boolean shouldBulkBreak();
+
+    /**
+     * Get the limits on how often clients may request vein mine previews.
+     *
+     * @return the vein mine request limits
+     */
+    @NotNull
+    public VeinMineRequestLimits getVeinMineRequestLimits();
+
     /**
      * Get the hunger modifier to be applied when a player vein mines. Higher values will apply more
      * hunger to the player.
@@ -360,8 +429,28 @@ public interface VeinMinerConfiguration {
     public void saveDefaults();
 
     /**
-     * Reload all values from disk into memory.
+     * Reload all values from disk into memory. This must be called on the server thread.
      */
     public void reload();
 
+    /**
+     * Load all values from disk into a new configuration without replacing the values of this
+     * configuration. The returned configuration is unaffected by later changes to this one.
+     * Unlike {@link #reload()}, this may be called off the server thread.
+     *
+     * @return the loaded configuration
+     */
+    @NotNull
+    public VeinMinerConfiguration load();
+
+    /**
+     * Replace the values of this configuration with those of a configuration returned by
+     * {@link #load()}. This must be called on the server thread.
+     *
+     * @param configuration the loaded configuration
+     *
+     * @throws IllegalArgumentException if the configuration was not returned by {@link #load()}
+     */
+    public void apply(@NotNull VeinMinerConfiguration configuration);
+
 }
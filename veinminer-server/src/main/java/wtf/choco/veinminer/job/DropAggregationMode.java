@@ -0,0 +1,25 @@
+package wtf.choco.veinminer.job;
+
+/**
+ * Represents the ways in which items dropped by the blocks of a vein may be aggregated.
+ */
+public enum DropAggregationMode {
+
+    /**
+     * Items are not aggregated and are dropped as each block is broken.
+     */
+    NONE,
+
+    /**
+     * Items are collected while the vein is broken and dropped as merged stacks at the origin
+     * of the vein once it has finished.
+     */
+    SOURCE,
+
+    /**
+     * Items are collected while the vein is broken and added to the player's inventory once
+     * the vein has finished. Items that do not fit are dropped at the origin of the vein.
+     */
+    INVENTORY;
+
+}
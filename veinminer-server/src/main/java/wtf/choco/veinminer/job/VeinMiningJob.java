@@ -0,0 +1,34 @@
+package wtf.choco.veinminer.job;
+
+/**
+ * A unit of vein mining work that may be processed incrementally over multiple ticks by the
+ * {@link VeinMiningJobScheduler}.
+ * <p>
+ * Implementations may impose limits of their own (e.g. a per-tick time limit) and are free to
+ * process fewer blocks than they are permitted, so long as at least one block is processed
+ * per call while unfinished.
+ */
+public interface VeinMiningJob {
+
+    /**
+     * Process at most the given amount of blocks.
+     *
+     * @param maxBlocks the maximum amount of blocks to process. Always at least 1
+     *
+     * @return the amount of blocks that were processed
+     */
+    public int process(int maxBlocks);
+
+    /**
+     * Check whether or not this job has finished. Finished jobs are removed from the scheduler.
+     *
+     * @return true if finished, false if work remains
+     */
+    public boolean isFinished();
+
+    /**
+     * Finish this job early, leaving any remaining work unprocessed.
+     */
+    public void finish();
+
+}
@@ -0,0 +1,308 @@
+package wtf.choco.veinminer.job;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A server-wide scheduler for {@link VeinMiningJob VeinMiningJobs} that caps the total amount
+ * of blocks processed per tick, regardless of how many players are vein mining.
+ * <p>
+ * Each player has their own queue of jobs, processed one at a time in submission order. The
+ * per-tick budget is shared between all players with queued work using deficit round-robin:
+ * every tick, each player is credited an equal share (quantum) of the budget and may process
+ * as many blocks as they have been credited. Credit left unused because a job yielded early is
+ * carried over to the next tick (up to two quanta), and the player served first is rotated
+ * every tick so that no player is favoured when the budget is smaller than the amount of
+ * players with queued work.
+ * <p>
+ * Jobs throwing an exception while being processed are logged, finished and removed from
+ * their player's queue without affecting the jobs of other players.
+ * <p>
+ * This class is <strong>not</strong> thread-safe and is expected to be used only from the
+ * server thread.
+ */
+public final class VeinMiningJobScheduler {
+
+    private static final double WAIT_TIME_SMOOTHING_FACTOR = 0.1;
+
+    private final Logger logger;
+
+    private final Map<UUID, PlayerQueue> queues = new HashMap<>();
+    private final Deque<PlayerQueue> rotation = new ArrayDeque<>();
+
+    private int blocksPerTick;
+    private long remainingBudget;
+    private long currentTick = 0;
+
+    private int queuedJobCount = 0;
+    private int blocksProcessedThisTick = 0, blocksProcessedLastTick = 0;
+    private double averageWaitTicks = 0;
+    private long maximumWaitTicks = 0;
+    private boolean waitRecorded = false;
+
+    /**
+     * Construct a new {@link VeinMiningJobScheduler}.
+     *
+     * @param blocksPerTick the maximum amount of blocks to process per tick across all
+     * players, or a value {@literal <=} 0 for no limit
+     * @param logger the logger to which exceptions thrown by jobs are logged
+     */
+    public VeinMiningJobScheduler(int blocksPerTick, @NotNull Logger logger) {
+        this.logger = logger;
+        this.setBlocksPerTick(blocksPerTick);
+        this.remainingBudget = budget();
+    }
+
+    /**
+     * Construct a new {@link VeinMiningJobScheduler} logging exceptions thrown by jobs to a
+     * logger named after this class.
+     *
+     * @param blocksPerTick the maximum amount of blocks to process per tick across all
+     * players, or a value {@literal <=} 0 for no limit
+     */
+    public VeinMiningJobScheduler(int blocksPerTick) {
+        this(blocksPerTick, Logger.getLogger(VeinMiningJobScheduler.class.getName()));
+    }
+
+    /**
+     * Set the maximum amount of blocks to process per tick across all players. Takes effect
+     * on the next tick.
+     *
+     * @param blocksPerTick the block budget, or a value {@literal <=} 0 for no limit
+     */
+    public void setBlocksPerTick(int blocksPerTick) {
+        this.blocksPerTick = Math.max(blocksPerTick, 0);
+    }
+
+    /**
+     * Get the maximum amount of blocks to process per tick across all players.
+     *
+     * @return the block budget, or 0 if there is no limit
+     */
+    public int getBlocksPerTick() {
+        return blocksPerTick;
+    }
+
+    /**
+     * Submit a {@link VeinMiningJob} on behalf of the player with the given UUID. If the player
+     * has no other queued work and budget remains in the current tick, the job begins
+     * processing immediately.
+     *
+     * @param playerId the UUID of the player that owns the job
+     * @param job the job to submit
+     */
+    public void submit(@NotNull UUID playerId, @NotNull VeinMiningJob job) {
+        PlayerQueue queue = queues.computeIfAbsent(playerId, PlayerQueue::new);
+        queue.jobs.add(new QueuedJob(job, currentTick));
+        this.queuedJobCount++;
+
+        if (queue.jobs.size() > 1) {
+            return;
+        }
+
+        // A newly active player may spend their share of whatever budget remains this tick, but does not bank it
+        queue.deficit = quantum(rotation.size() + 1);
+
+        try {
+            this.serve(queue);
+        } finally {
+            queue.deficit = 0;
+            this.requeue(queue);
+        }
+    }
+
+    /**
+     * Process queued jobs within this tick's budget. Must be called once per tick.
+     */
+    public void tick() {
+        this.currentTick++;
+        this.blocksProcessedLastTick = blocksProcessedThisTick;
+        this.blocksProcessedThisTick = 0;
+        this.remainingBudget = budget();
+
+        long quantum = quantum(rotation.size());
+        for (int visits = rotation.size(); visits > 0 && remainingBudget > 0; visits--) {
+            PlayerQueue queue = rotation.poll();
+            queue.deficit = Math.min(queue.deficit + quantum, quantum * 2);
+
+            // The queue was already polled from the rotation, so it must be put back even if serving it fails
+            try {
+                this.serve(queue);
+            } finally {
+                this.requeue(queue);
+            }
+        }
+    }
+
+    /**
+     * Finish and remove all queued jobs.
+     */
+    public void cancelAll() {
+        this.queues.values().forEach(queue -> queue.jobs.forEach(queuedJob -> queuedJob.job.finish()));
+        this.queues.clear();
+        this.rotation.clear();
+        this.queuedJobCount = 0;
+    }
+
+    /**
+     * Get the amount of jobs that are queued or in progress.
+     *
+     * @return the queue depth
+     */
+    public int getQueuedJobCount() {
+        return queuedJobCount;
+    }
+
+    /**
+     * Get the amount of players that have queued or in progress jobs.
+     *
+     * @return the amount of players
+     */
+    public int getQueuedPlayerCount() {
+        return rotation.size();
+    }
+
+    /**
+     * Get the amount of blocks processed during the last full tick.
+     *
+     * @return the amount of blocks processed
+     */
+    public int getBlocksProcessedLastTick() {
+        return blocksProcessedLastTick;
+    }
+
+    /**
+     * Get the exponential moving average of the amount of ticks jobs have waited between
+     * being submitted and processing their first block.
+     *
+     * @return the average wait time in ticks
+     */
+    public double getAverageWaitTicks() {
+        return averageWaitTicks;
+    }
+
+    /**
+     * Get the longest amount of ticks a job has waited between being submitted and processing
+     * its first block since statistics were last reset.
+     *
+     * @return the maximum wait time in ticks
+     */
+    public long getMaximumWaitTicks() {
+        return maximumWaitTicks;
+    }
+
+    /**
+     * Reset the wait time statistics.
+     */
+    public void resetStatistics() {
+        this.averageWaitTicks = 0;
+        this.maximumWaitTicks = 0;
+        this.waitRecorded = false;
+    }
+
+    private void serve(PlayerQueue queue) {
+        while (!queue.jobs.isEmpty()) {
+            long allowance = Math.min(queue.deficit, remainingBudget);
+            if (allowance <= 0) {
+                return;
+            }
+
+            QueuedJob queuedJob = queue.jobs.peek();
+            if (!queuedJob.started) {
+                queuedJob.started = true;
+                this.recordWait(currentTick - queuedJob.submittedTick);
+            }
+
+            VeinMiningJob job = queuedJob.job;
+            int processed = 0;
+            boolean failed = false;
+
+            try {
+                processed = job.isFinished() ? 0 : Math.max(job.process((int) Math.min(allowance, Integer.MAX_VALUE)), 0);
+            } catch (RuntimeException e) {
+                this.logger.log(Level.SEVERE, "A vein mining job threw an exception and was cancelled", e);
+                this.finishFailedJob(job);
+                failed = true;
+            }
+
+            queue.deficit -= processed;
+            this.remainingBudget -= processed;
+            this.blocksProcessedThisTick += processed;
+
+            if (!failed && !job.isFinished()) {
+                return; // Either out of credit or the job yielded for this tick
+            }
+
+            queue.jobs.poll();
+            this.queuedJobCount--;
+        }
+    }
+
+    private void finishFailedJob(VeinMiningJob job) {
+        try {
+            job.finish();
+        } catch (RuntimeException e) {
+            this.logger.log(Level.SEVERE, "A failed vein mining job could not be finished", e);
+        }
+    }
+
+    private void requeue(PlayerQueue queue) {
+        if (queue.jobs.isEmpty()) {
+            this.retire(queue);
+        } else {
+            this.rotation.add(queue);
+        }
+    }
+
+    private void retire(PlayerQueue queue) {
+        this.queues.remove(queue.playerId);
+        this.rotation.remove(queue);
+    }
+
+    private void recordWait(long waitTicks) {
+        this.averageWaitTicks = waitRecorded ? averageWaitTicks + (WAIT_TIME_SMOOTHING_FACTOR * (waitTicks - averageWaitTicks)) : waitTicks;
+        this.maximumWaitTicks = Math.max(maximumWaitTicks, waitTicks);
+        this.waitRecorded = true;
+    }
+
+    private long budget() {
+        return (blocksPerTick > 0) ? blocksPerTick : Long.MAX_VALUE;
+    }
+
+    private long quantum(int players) {
+        return (blocksPerTick > 0) ? Math.max(1, blocksPerTick / Math.max(players, 1)) : Integer.MAX_VALUE;
+    }
+
+    private static final class PlayerQueue {
+
+        private final UUID playerId;
+        private final Deque<QueuedJob> jobs = new ArrayDeque<>();
+        private long deficit;
+
+        private PlayerQueue(UUID playerId) {
+            this.playerId = playerId;
+        }
+
+    }
+
+    private static final class QueuedJob {
+
+        private final VeinMiningJob job;
+        private final long submittedTick;
+        private boolean started = false;
+
+        private QueuedJob(VeinMiningJob job, long submittedTick) {
+            this.job = job;
+            this.submittedTick = submittedTick;
+        }
+
+    }
+
+}
@@ -0,0 +1,181 @@
+package wtf.choco.veinminer.manager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.jetbrains.annotations.NotNull;
+
+import wtf.choco.veinminer.util.BlockPosition;
+
+/**
+ * A manager of the vein mine previews to which clients are subscribed.
+ * <p>
+ * A client supporting preview subscriptions is subscribed to the vein at its target block
+ * whenever it requests a vein mine preview. Rather than the client polling for changes, the
+ * server is notified of every block change with {@link #notifyChanged(String, int, int, int)},
+ * and any subscription whose vein (or a block adjacent to it) was changed is marked as changed.
+ * Changed subscriptions are collected once per tick with {@link #pollChanged()} such that any
+ * amount of changes within a tick result in a single updated preview.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class PreviewSubscriptionManager {
+
+    private final Map<UUID, Subscription> subscriptions = new HashMap<>();
+    private final Map<ChunkKey, Set<UUID>> subscribersByChunk = new HashMap<>();
+    private final Set<UUID> changed = new LinkedHashSet<>();
+
+    /**
+     * Subscribe the player with the given UUID to the vein at the given origin, replacing any
+     * existing subscription.
+     *
+     * @param playerUUID the UUID of the subscribing player
+     * @param worldName the name of the world in which the vein is located
+     * @param origin the origin of the vein
+     * @param positions the positions of the vein's blocks
+     */
+    public synchronized void subscribe(@NotNull UUID playerUUID, @NotNull String worldName, @NotNull BlockPosition origin, @NotNull Collection<BlockPosition> positions) {
+        this.unsubscribe(playerUUID);
+
+        int minX = origin.x(), minY = origin.y(), minZ = origin.z();
+        int maxX = minX, maxY = minY, maxZ = minZ;
+
+        for (BlockPosition position : positions) {
+            minX = Math.min(minX, position.x());
+            minY = Math.min(minY, position.y());
+            minZ = Math.min(minZ, position.z());
+            maxX = Math.max(maxX, position.x());
+            maxY = Math.max(maxY, position.y());
+            maxZ = Math.max(maxZ, position.z());
+        }
+
+        // Blocks adjacent to the vein are included because they may extend the vein should they change
+        Subscription subscription = new Subscription(worldName, minX - 1, minY - 1, minZ - 1, maxX + 1, maxY + 1, maxZ + 1);
+        this.subscriptions.put(playerUUID, subscription);
+
+        for (int chunkX = subscription.minX() >> 4; chunkX <= subscription.maxX() >> 4; chunkX++) {
+            for (int chunkZ = subscription.minZ() >> 4; chunkZ <= subscription.maxZ() >> 4; chunkZ++) {
+                this.subscribersByChunk.computeIfAbsent(new ChunkKey(worldName, chunkX, chunkZ), ignore -> new HashSet<>()).add(playerUUID);
+            }
+        }
+    }
+
+    /**
+     * Unsubscribe the player with the given UUID from its vein, if subscribed.
+     *
+     * @param playerUUID the UUID of the player to unsubscribe
+     */
+    public synchronized void unsubscribe(@NotNull UUID playerUUID) {
+        this.changed.remove(playerUUID);
+
+        Subscription subscription = subscriptions.remove(playerUUID);
+        if (subscription == null) {
+            return;
+        }
+
+        for (int chunkX = subscription.minX() >> 4; chunkX <= subscription.maxX() >> 4; chunkX++) {
+            for (int chunkZ = subscription.minZ() >> 4; chunkZ <= subscription.maxZ() >> 4; chunkZ++) {
+                ChunkKey chunk = new ChunkKey(subscription.worldName(), chunkX, chunkZ);
+                Set<UUID> subscribers = subscribersByChunk.get(chunk);
+
+                if (subscribers != null && subscribers.remove(playerUUID) && subscribers.isEmpty()) {
+                    this.subscribersByChunk.remove(chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check whether or not the player with the given UUID is subscribed to a vein.
+     *
+     * @param playerUUID the UUID of the player to check
+     *
+     * @return true if subscribed, false otherwise
+     */
+    public synchronized boolean isSubscribed(@NotNull UUID playerUUID) {
+        return subscriptions.containsKey(playerUUID);
+    }
+
+    /**
+     * Notify this manager that the block at the given position has changed, marking every
+     * subscription whose vein may be affected by the change as changed.
+     *
+     * @param worldName the name of the world in which the block changed
+     * @param x the x coordinate of the block
+     * @param y the y coordinate of the block
+     * @param z the z coordinate of the block
+     */
+    public synchronized void notifyChanged(@NotNull String worldName, int x, int y, int z) {
+        if (subscribersByChunk.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> subscribers = subscribersByChunk.get(new ChunkKey(worldName, x >> 4, z >> 4));
+        if (subscribers == null) {
+            return;
+        }
+
+        for (UUID playerUUID : subscribers) {
+            if (subscriptions.get(playerUUID).contains(x, y, z)) {
+                this.changed.add(playerUUID);
+            }
+        }
+    }
+
+    /**
+     * Notify this manager that the blocks at the given positions have changed, marking every
+     * subscription whose vein may be affected by any of the changes as changed. Equivalent to
+     * calling {@link #notifyChanged(String, int, int, int)} for each position, but acquires
+     * this manager's lock only once.
+     *
+     * @param worldName the name of the world in which the blocks changed
+     * @param positions the positions of the changed blocks
+     */
+    public synchronized void notifyChanged(@NotNull String worldName, @NotNull Collection<BlockPosition> positions) {
+        for (BlockPosition position : positions) {
+            this.notifyChanged(worldName, position.x(), position.y(), position.z());
+        }
+    }
+
+    /**
+     * Get and clear the UUIDs of all players whose subscribed veins have changed since this
+     * method was last called. Subscriptions remain in place.
+     *
+     * @return the UUIDs of players whose previews should be updated
+     */
+    @NotNull
+    public synchronized Set<UUID> pollChanged() {
+        if (changed.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<UUID> result = new LinkedHashSet<>(changed);
+        this.changed.clear();
+        return result;
+    }
+
+    /**
+     * Remove all subscriptions.
+     */
+    public synchronized void clear() {
+        this.subscriptions.clear();
+        this.subscribersByChunk.clear();
+        this.changed.clear();
+    }
+
+    private record Subscription(@NotNull String worldName, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+
+        private boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+    }
+
+    private record ChunkKey(@NotNull String worldName, int chunkX, int chunkZ) { }
+
+}
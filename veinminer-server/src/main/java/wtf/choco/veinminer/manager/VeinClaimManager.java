@@ -0,0 +1,120 @@
+package wtf.choco.veinminer.manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import wtf.choco.veinminer.util.BlockPosition;
+
+/**
+ * A manager of the blocks claimed by veins that are in the process of being vein mined.
+ * <p>
+ * Every block of a vein is claimed before it is broken and released once the vein has
+ * finished, allowing listeners and integrations to check whether or not a block is being
+ * broken as part of a vein and to find the origin of that vein. A block may only be claimed
+ * by one vein at a time such that no two players process the same block at once.
+ * <p>
+ * Positions are stored {@link BlockPosition#pack() packed} in a concurrent map per world.
+ * This class is thread-safe.
+ */
+public final class VeinClaimManager {
+
+    private final Map<String, Map<Long, Long>> claimsByWorld = new ConcurrentHashMap<>();
+
+    /**
+     * Claim the given positions for the vein at the given origin. Positions that are already
+     * claimed by another vein are not claimed and are excluded from the result.
+     *
+     * @param worldName the name of the world in which the vein is located
+     * @param origin the origin of the vein
+     * @param positions the positions to claim
+     *
+     * @return the positions that were claimed, in the order they were given
+     */
+    @NotNull
+    public List<BlockPosition> claim(@NotNull String worldName, @NotNull BlockPosition origin, @NotNull Collection<BlockPosition> positions) {
+        Map<Long, Long> claims = claimsByWorld.computeIfAbsent(worldName, ignore -> new ConcurrentHashMap<>());
+        Long packedOrigin = origin.pack();
+
+        List<BlockPosition> claimed = new ArrayList<>(positions.size());
+        for (BlockPosition position : positions) {
+            Long previousOrigin = claims.putIfAbsent(position.pack(), packedOrigin);
+
+            // Positions already claimed by this vein may be claimed again, but not those of another vein
+            if (previousOrigin == null || previousOrigin.equals(packedOrigin)) {
+                claimed.add(position);
+            }
+        }
+
+        return claimed;
+    }
+
+    /**
+     * Release the given positions claimed by the vein at the given origin. Positions claimed by
+     * another vein are left untouched.
+     *
+     * @param worldName the name of the world in which the vein is located
+     * @param origin the origin of the vein
+     * @param positions the positions to release
+     */
+    public void release(@NotNull String worldName, @NotNull BlockPosition origin, @NotNull Collection<BlockPosition> positions) {
+        Map<Long, Long> claims = claimsByWorld.get(worldName);
+        if (claims == null) {
+            return;
+        }
+
+        Long packedOrigin = origin.pack();
+        for (BlockPosition position : positions) {
+            claims.remove(position.pack(), packedOrigin);
+        }
+    }
+
+    /**
+     * Check whether or not the block at the given position is claimed by a vein.
+     *
+     * @param worldName the name of the world in which the block is located
+     * @param x the x coordinate of the block
+     * @param y the y coordinate of the block
+     * @param z the z coordinate of the block
+     *
+     * @return true if claimed, false otherwise
+     */
+    public boolean isClaimed(@NotNull String worldName, int x, int y, int z) {
+        Map<Long, Long> claims = claimsByWorld.get(worldName);
+        return claims != null && claims.containsKey(BlockPosition.pack(x, y, z));
+    }
+
+    /**
+     * Get the origin of the vein by which the block at the given position is claimed.
+     *
+     * @param worldName the name of the world in which the block is located
+     * @param x the x coordinate of the block
+     * @param y the y coordinate of the block
+     * @param z the z coordinate of the block
+     *
+     * @return the origin of the claiming vein, or null if the block is not claimed
+     */
+    @Nullable
+    public BlockPosition getOrigin(@NotNull String worldName, int x, int y, int z) {
+        Map<Long, Long> claims = claimsByWorld.get(worldName);
+        if (claims == null) {
+            return null;
+        }
+
+        Long packedOrigin = claims.get(BlockPosition.pack(x, y, z));
+        return (packedOrigin != null) ? BlockPosition.unpack(packedOrigin) : null;
+    }
+
+    /**
+     * Release all claimed positions in all worlds.
+     */
+    public void clear() {
+        this.claimsByWorld.clear();
+    }
+
+}
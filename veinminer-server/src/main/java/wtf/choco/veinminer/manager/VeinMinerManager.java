@@ -4,8 +4,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.jetbrains.annotations.NotNull;
@@ -29,6 +31,7 @@ public final class VeinMinerManager {
     private BlockList globalBlockList = new BlockList();
     private VeinMiningConfig globalConfig = new VeinMiningConfig();
     private List<BlockList> aliases = new ArrayList<>(); // There has to be a better way to implement aliases... I just can't think of one
+    private final Map<VeinMinerBlock, BlockList> aliasesByBlock = new HashMap<>(); // Index of the above. First alias containing a block wins
 
     private final Set<GameMode> disabledGameModes = EnumSet.noneOf(GameMode.class);
 
@@ -248,6 +251,7 @@ public final class VeinMinerManager {
         }
 
         this.aliases.add(blockList);
+        blockList.forEach(block -> aliasesByBlock.putIfAbsent(block, blockList));
         return true;
     }
 
@@ -259,7 +263,12 @@ public final class VeinMinerManager {
      * @return true if the alias was removed, false if it was not already added
      */
     public boolean removeAlias(@NotNull BlockList blockList) {
-        return aliases.remove(blockList);
+        if (!aliases.remove(blockList)) {
+            return false;
+        }
+
+        this.rebuildAliasIndex();
+        return true;
     }
 
     /**
@@ -278,6 +287,7 @@ public final class VeinMinerManager {
 
             if (blockList.contains(block)) {
                 aliasIterator.remove();
+                this.rebuildAliasIndex();
                 return blockList;
             }
         }
@@ -294,13 +304,7 @@ public final class VeinMinerManager {
      */
     @Nullable
     public BlockList getAlias(@NotNull VeinMinerBlock block) {
-        for (BlockList blockList : aliases) {
-            if (blockList.contains(block)) {
-                return blockList;
-            }
-        }
-
-        return null;
+        return aliasesByBlock.get(block);
     }
 
     /**
@@ -310,6 +314,15 @@ public final class VeinMinerManager {
         this.globalBlockList.clear();
         this.disabledGameModes.clear();
         this.aliases.clear();
+        this.aliasesByBlock.clear();
+    }
+
+    private void rebuildAliasIndex() {
+        this.aliasesByBlock.clear();
+
+        for (BlockList blockList : aliases) {
+            blockList.forEach(block -> aliasesByBlock.putIfAbsent(block, blockList));
+        }
     }
 
 }
@@ -32,7 +32,19 @@ public final class VeinMinerPlayerManager {
      */
     @Nullable
     public VeinMinerPlayer get(@NotNull PlatformPlayer player) {
-        return players.get(player.getUniqueId());
+        return get(player.getUniqueId());
+    }
+
+    /**
+     * Get the {@link VeinMinerPlayer} associated with the player with the given UUID.
+     *
+     * @param playerUUID the UUID of the player
+     *
+     * @return the vein miner player, or null if not registered
+     */
+    @Nullable
+    public VeinMinerPlayer get(@NotNull UUID playerUUID) {
+        return players.get(playerUUID);
     }
 
     /**
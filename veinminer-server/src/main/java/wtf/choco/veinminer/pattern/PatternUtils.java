@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import wtf.choco.veinminer.block.BlockList;
+import wtf.choco.veinminer.block.BlockStateMatcher;
 import wtf.choco.veinminer.block.VeinMinerBlock;
 import wtf.choco.veinminer.platform.world.BlockState;
 
@@ -17,6 +18,9 @@ public final class PatternUtils {
     /**
      * Check whether or not the given {@link BlockState} matches either the {@link VeinMinerBlock} or is
      * present in the given {@link BlockList}.
+     * <p>
+     * Patterns that check many states against the same block should prefer compiling a
+     * {@link BlockStateMatcher} once and reusing it instead.
      *
      * @param block the block against which to check the state
      * @param aliasList the alias list, or null if no aliases
@@ -0,0 +1,261 @@
+package wtf.choco.veinminer.pattern;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import wtf.choco.veinminer.block.BlockList;
+import wtf.choco.veinminer.block.VeinMinerBlock;
+import wtf.choco.veinminer.config.VeinMiningConfig;
+import wtf.choco.veinminer.platform.world.BlockAccessor;
+import wtf.choco.veinminer.tool.VeinMinerToolCategory;
+import wtf.choco.veinminer.util.BlockFace;
+import wtf.choco.veinminer.util.BlockPosition;
+import wtf.choco.veinminer.util.NamespacedKey;
+
+/**
+ * A bounded, least-recently-used cache of the results of
+ * {@link VeinMiningPattern#allocateBlocks(BlockAccessor, BlockPosition, BlockFace, VeinMinerBlock, VeinMiningConfig, BlockList)
+ * vein allocations}, shared between vein mine previews requested by clients and veins that are
+ * actually broken.
+ * <p>
+ * Allocations are keyed by world, origin, destroyed face, pattern, category, origin block and
+ * config. Each allocation is associated with every chunk containing one of its blocks or a block
+ * adjacent to it, and is expected to be invalidated (see {@link #invalidate(String, int, int)})
+ * whenever a block in one of those chunks changes. Allocations are otherwise discarded once they
+ * reach their maximum age in order to tolerate changes made without notice. Because aliases are
+ * not part of the key, the cache should be {@link #invalidateAll() invalidated} whenever
+ * configuration is reloaded.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class VeinAllocationCache {
+
+    private final Map<AllocationKey, CachedAllocation> allocations;
+    private final Map<ChunkKey, Set<AllocationKey>> keysByChunk = new HashMap<>();
+    private final long maximumAgeNanos;
+
+    // Incremented on every invalidation so that allocations computed concurrently with one are not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Construct a new {@link VeinAllocationCache}.
+     *
+     * @param maximumSize the maximum amount of allocations to retain
+     * @param maximumAge the maximum age of an allocation before it is recomputed
+     * @param unit the unit of the maximum age
+     */
+    public VeinAllocationCache(int maximumSize, long maximumAge, @NotNull TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+
+        this.allocations = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AllocationKey, CachedAllocation> eldest) {
+                if (size() <= maximumSize) {
+                    return false;
+                }
+
+                VeinAllocationCache.this.unindex(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+        this.maximumAgeNanos = unit.toNanos(maximumAge);
+    }
+
+    /**
+     * Get the blocks allocated by the given {@link VeinMiningPattern} for a vein if they are
+     * cached, and allocate (and cache) them otherwise.
+     *
+     * @param pattern the pattern with which to allocate blocks
+     * @param blockAccessor the block accessor from which to read blocks if not cached
+     * @param origin the origin of the vein
+     * @param destroyedFace the face of the origin block that was destroyed
+     * @param block the origin block
+     * @param category the category with which the vein is being mined
+     * @param aliasList the alias list of the origin block, or null if none
+     *
+     * @return an unmodifiable set of the allocated block positions
+     */
+    @NotNull
+    public Set<BlockPosition> allocate(@NotNull VeinMiningPattern pattern, @NotNull BlockAccessor blockAccessor, @NotNull BlockPosition origin, @NotNull BlockFace destroyedFace, @NotNull VeinMinerBlock block, @NotNull VeinMinerToolCategory category, @Nullable BlockList aliasList) {
+        AllocationKey key = new AllocationKey(blockAccessor.getWorldName(), origin, destroyedFace, pattern.getKey(), category.getId(), block, category.getConfig());
+
+        Set<BlockPosition> positions = getIfPresent(key);
+        if (positions != null) {
+            return positions;
+        }
+
+        long generation = this.generation.get();
+        positions = Collections.unmodifiableSet(pattern.allocateBlocks(blockAccessor, origin, destroyedFace, block, category.getConfig(), aliasList));
+
+        CachedAllocation allocation = new CachedAllocation(positions, getChunks(key.worldName(), origin, positions), System.nanoTime());
+
+        synchronized (allocations) {
+            // A block may have changed while allocating, in which case the result cannot be trusted for later use
+            if (this.generation.get() != generation) {
+                return positions;
+            }
+
+            CachedAllocation previous = allocations.put(key, allocation);
+            if (previous != null) {
+                this.unindex(key, previous);
+            }
+
+            for (ChunkKey chunk : allocation.chunks()) {
+                this.keysByChunk.computeIfAbsent(chunk, ignore -> new HashSet<>()).add(key);
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * Get the blocks allocated by the given {@link VeinMiningPattern} for a vein if they are
+     * cached and have not yet expired.
+     *
+     * @param pattern the pattern with which blocks were allocated
+     * @param worldName the name of the world in which the vein is located
+     * @param origin the origin of the vein
+     * @param destroyedFace the face of the origin block that was destroyed
+     * @param block the origin block
+     * @param category the category with which the vein is being mined
+     *
+     * @return an unmodifiable set of the allocated block positions, or null if not cached
+     */
+    @Nullable
+    public Set<BlockPosition> getIfPresent(@NotNull VeinMiningPattern pattern, @NotNull String worldName, @NotNull BlockPosition origin, @NotNull BlockFace destroyedFace, @NotNull VeinMinerBlock block, @NotNull VeinMinerToolCategory category) {
+        return getIfPresent(new AllocationKey(worldName, origin, destroyedFace, pattern.getKey(), category.getId(), block, category.getConfig()));
+    }
+
+    /**
+     * Invalidate all allocations associated with the chunk at the given chunk coordinates.
+     *
+     * @param worldName the name of the world
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     */
+    public void invalidate(@NotNull String worldName, int chunkX, int chunkZ) {
+        this.generation.incrementAndGet();
+
+        synchronized (allocations) {
+            if (allocations.isEmpty()) {
+                return;
+            }
+
+            Set<AllocationKey> keys = keysByChunk.remove(new ChunkKey(worldName, chunkX, chunkZ));
+            if (keys == null) {
+                return;
+            }
+
+            for (AllocationKey key : keys) {
+                CachedAllocation allocation = allocations.remove(key);
+                if (allocation != null) {
+                    this.unindex(key, allocation);
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidate all allocations in the world with the given name.
+     *
+     * @param worldName the name of the world
+     */
+    public void invalidateAll(@NotNull String worldName) {
+        this.generation.incrementAndGet();
+
+        synchronized (allocations) {
+            Iterator<Map.Entry<AllocationKey, CachedAllocation>> iterator = allocations.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<AllocationKey, CachedAllocation> entry = iterator.next();
+                if (!entry.getKey().worldName().equals(worldName)) {
+                    continue;
+                }
+
+                iterator.remove();
+                this.unindex(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached allocations.
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+
+        synchronized (allocations) {
+            this.allocations.clear();
+            this.keysByChunk.clear();
+        }
+    }
+
+    private Set<BlockPosition> getIfPresent(AllocationKey key) {
+        synchronized (allocations) {
+            CachedAllocation allocation = allocations.get(key);
+            if (allocation == null) {
+                return null;
+            }
+
+            if (System.nanoTime() - allocation.createdAt() < maximumAgeNanos) {
+                return allocation.positions();
+            }
+
+            this.allocations.remove(key);
+            this.unindex(key, allocation);
+            return null;
+        }
+    }
+
+    // Must be called while holding the allocations lock
+    private void unindex(AllocationKey key, CachedAllocation allocation) {
+        for (ChunkKey chunk : allocation.chunks()) {
+            Set<AllocationKey> keys = keysByChunk.get(chunk);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                this.keysByChunk.remove(chunk);
+            }
+        }
+    }
+
+    // Every chunk that contains a block of the vein, or a block adjacent to it which may extend the vein should it change
+    private static ChunkKey[] getChunks(String worldName, BlockPosition origin, Set<BlockPosition> positions) {
+        int minX = origin.x(), minZ = origin.z(), maxX = minX, maxZ = minZ;
+
+        for (BlockPosition position : positions) {
+            minX = Math.min(minX, position.x());
+            minZ = Math.min(minZ, position.z());
+            maxX = Math.max(maxX, position.x());
+            maxZ = Math.max(maxZ, position.z());
+        }
+
+        int minChunkX = (minX - 1) >> 4, minChunkZ = (minZ - 1) >> 4, maxChunkX = (maxX + 1) >> 4, maxChunkZ = (maxZ + 1) >> 4;
+        ChunkKey[] chunks = new ChunkKey[(maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1)];
+
+        int index = 0;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                chunks[index++] = new ChunkKey(worldName, chunkX, chunkZ);
+            }
+        }
+
+        return chunks;
+    }
+
+    private record AllocationKey(@NotNull String worldName, @NotNull BlockPosition origin, @NotNull BlockFace destroyedFace, @NotNull NamespacedKey pattern, @NotNull String category, @NotNull VeinMinerBlock block, @NotNull VeinMiningConfig config) { }
+
+    private record ChunkKey(@NotNull String worldName, int chunkX, int chunkZ) { }
+
+    private record CachedAllocation(@NotNull Set<BlockPosition> positions, @NotNull ChunkKey[] chunks, long createdAt) { }
+
+}
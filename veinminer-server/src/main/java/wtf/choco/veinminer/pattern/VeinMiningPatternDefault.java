@@ -1,24 +1,30 @@
 package wtf.choco.veinminer.pattern;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Set;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import wtf.choco.veinminer.block.BlockList;
+import wtf.choco.veinminer.block.BlockStateMatcher;
 import wtf.choco.veinminer.block.VeinMinerBlock;
 import wtf.choco.veinminer.config.VeinMiningConfig;
 import wtf.choco.veinminer.platform.world.BlockAccessor;
 import wtf.choco.veinminer.util.BlockFace;
 import wtf.choco.veinminer.util.BlockPosition;
+import wtf.choco.veinminer.util.LongHashSet;
+import wtf.choco.veinminer.util.LongQueue;
 import wtf.choco.veinminer.util.NamespacedKey;
+import wtf.choco.veinminer.util.PackedBlockPositionSet;
 
 /**
  * The default {@link VeinMiningPattern} that mines as many blocks in an arbitrary pattern
  * as possible.
+ * <p>
+ * Blocks are allocated by a breadth-first flood fill over {@link BlockPosition#pack() packed
+ * positions}. Search state is held per-thread and reused between allocations, so this pattern
+ * may be safely used by multiple threads at once.
  */
 public final class VeinMiningPatternDefault implements VeinMiningPattern {
 
@@ -26,7 +32,9 @@ public final class VeinMiningPatternDefault implements VeinMiningPattern {
 
     private static final NamespacedKey KEY = NamespacedKey.veinminer("default");
 
-    private final List<BlockPosition> buffer = new ArrayList<>(32), recent = new ArrayList<>(32);
+    private static final BlockFace[] FACES = BlockFace.values();
+
+    private static final ThreadLocal<SearchState> SEARCH_STATE = ThreadLocal.withInitial(SearchState::new);
 
     private VeinMiningPatternDefault() { }
 
@@ -39,44 +47,57 @@ public final class VeinMiningPatternDefault implements VeinMiningPattern {
     @NotNull
     @Override
     public Set<BlockPosition> allocateBlocks(@NotNull BlockAccessor blockAccessor, @NotNull BlockPosition origin, @NotNull BlockFace destroyedFace, @NotNull VeinMinerBlock block, @NotNull VeinMiningConfig config, @Nullable BlockList aliasList) {
-        Set<BlockPosition> positions = new HashSet<>();
+        SearchState state = SEARCH_STATE.get();
 
-        this.recent.add(origin); // For first iteration
+        // Should the block accessor somehow re-enter this method, the thread's state is occupied. Use a temporary one
+        if (state.inUse) {
+            state = new SearchState();
+        }
 
-        int maxVeinSize = config.getMaxVeinSize();
+        state.inUse = true;
 
-        while (positions.size() < maxVeinSize) {
-            recentSearch:
-            for (BlockPosition current : recent) {
-                for (BlockFace face : BlockFace.values()) {
-                    BlockPosition relative = face.getRelative(current);
-                    if (positions.contains(relative) || !PatternUtils.typeMatches(block, aliasList, blockAccessor.getState(relative))) {
-                        continue;
-                    }
+        try {
+            return allocateBlocks(state, blockAccessor, origin, block, config.getMaxVeinSize(), aliasList);
+        } finally {
+            state.reset();
+        }
+    }
 
-                    if (positions.size() + buffer.size() >= maxVeinSize) {
-                        break recentSearch;
-                    }
+    private PackedBlockPositionSet allocateBlocks(SearchState state, BlockAccessor blockAccessor, BlockPosition origin, VeinMinerBlock block, int maxVeinSize, BlockList aliasList) {
+        LongHashSet probed = state.probed;
+        LongQueue frontier = state.frontier;
+        BlockStateMatcher matcher = BlockStateMatcher.compile(block, aliasList);
+
+        /*
+         * The origin is deliberately not marked as probed. It is allocated (like any other block) once it is
+         * reached from one of its neighbours, and is therefore only included if the vein is larger than 1 block.
+         */
+        frontier.add(origin.pack());
+
+        search:
+        while (!frontier.isEmpty()) {
+            long current = frontier.remove();
+            int x = BlockPosition.unpackX(current), y = BlockPosition.unpackY(current), z = BlockPosition.unpackZ(current);
+
+            for (BlockFace face : FACES) {
+                int relativeX = x + face.getXOffset(), relativeY = y + face.getYOffset(), relativeZ = z + face.getZOffset();
+                long relative = BlockPosition.pack(relativeX, relativeY, relativeZ);
+
+                // Every position is only ever probed once, whether or not it matched
+                if (!probed.add(relative) || !matcher.matches(blockAccessor.getState(relativeX, relativeY, relativeZ))) {
+                    continue;
+                }
 
-                    this.buffer.add(relative);
+                state.addResult(relative);
+                if (state.resultCount >= maxVeinSize) {
+                    break search;
                 }
-            }
 
-            // No more positions to allocate :D
-            if (buffer.isEmpty()) {
-                break;
+                frontier.add(relative);
             }
-
-            this.recent.clear();
-            this.recent.addAll(buffer);
-            positions.addAll(buffer);
-
-            this.buffer.clear();
         }
 
-        this.recent.clear();
-
-        return positions;
+        return PackedBlockPositionSet.copyOf(state.results, state.resultCount);
     }
 
     @Nullable
@@ -95,4 +116,34 @@ public final class VeinMiningPatternDefault implements VeinMiningPattern {
         return INSTANCE;
     }
 
+    // Reusable scratch space for a single allocation
+    private static final class SearchState {
+
+        private static final int DEFAULT_CAPACITY = 64;
+
+        private final LongHashSet probed = new LongHashSet(DEFAULT_CAPACITY * 4);
+        private final LongQueue frontier = new LongQueue(DEFAULT_CAPACITY);
+
+        private long[] results = new long[DEFAULT_CAPACITY];
+        private int resultCount = 0;
+
+        private boolean inUse = false;
+
+        private void addResult(long position) {
+            if (resultCount == results.length) {
+                this.results = Arrays.copyOf(results, results.length << 1);
+            }
+
+            this.results[resultCount++] = position;
+        }
+
+        private void reset() {
+            this.probed.clear();
+            this.frontier.clear();
+            this.resultCount = 0;
+            this.inUse = false;
+        }
+
+    }
+
 }
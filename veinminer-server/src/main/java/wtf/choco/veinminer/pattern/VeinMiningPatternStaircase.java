@@ -7,6 +7,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import wtf.choco.veinminer.block.BlockList;
+import wtf.choco.veinminer.block.BlockStateMatcher;
 import wtf.choco.veinminer.block.VeinMinerBlock;
 import wtf.choco.veinminer.config.VeinMiningConfig;
 import wtf.choco.veinminer.platform.world.BlockAccessor;
@@ -55,8 +56,9 @@ public final class VeinMiningPatternStaircase implements VeinMiningPattern {
 
         BlockPosition currentPosition = origin;
         int maxVeinSize = config.getMaxVeinSize();
+        BlockStateMatcher matcher = BlockStateMatcher.compile(block, aliasList);
 
-        while (calculateStairSegment(positions, blockAccessor, currentPosition, block, aliasList, maxVeinSize)) {
+        while (calculateStairSegment(positions, blockAccessor, currentPosition, matcher, maxVeinSize)) {
             currentPosition = currentPosition.offset(staircaseDirection.getXOffset(), direction.getModY(), staircaseDirection.getZOffset());
         }
 
@@ -69,12 +71,12 @@ public final class VeinMiningPatternStaircase implements VeinMiningPattern {
         return permission;
     }
 
-    private boolean calculateStairSegment(Set<BlockPosition> positions, BlockAccessor blockAccessor, BlockPosition currentPosition, VeinMinerBlock block, BlockList aliasList, int maxVeinSize) {
+    private boolean calculateStairSegment(Set<BlockPosition> positions, BlockAccessor blockAccessor, BlockPosition currentPosition, BlockStateMatcher matcher, int maxVeinSize) {
         boolean changed = false, interrupted = false;
 
         for (int y = -1; y <= 1; y++) {
             BlockPosition relative = currentPosition.offset(0, y, 0);
-            if (positions.contains(relative) || !PatternUtils.typeMatches(block, aliasList, blockAccessor.getState(relative))) {
+            if (positions.contains(relative) || !matcher.matches(blockAccessor.getState(relative))) {
                 continue;
             }
 
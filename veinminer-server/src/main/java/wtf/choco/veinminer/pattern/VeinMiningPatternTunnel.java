@@ -7,6 +7,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import wtf.choco.veinminer.block.BlockList;
+import wtf.choco.veinminer.block.BlockStateMatcher;
 import wtf.choco.veinminer.block.VeinMinerBlock;
 import wtf.choco.veinminer.config.VeinMiningConfig;
 import wtf.choco.veinminer.platform.world.BlockAccessor;
@@ -60,6 +61,7 @@ public final class VeinMiningPatternTunnel implements VeinMiningPattern {
         BiAxisRelativeGetter relativeGetter = getRelativeGetter(tunnelDirection);
         BlockPosition currentCenter = origin;
         int maxVeinSize = config.getMaxVeinSize();
+        BlockStateMatcher matcher = BlockStateMatcher.compile(block, aliasList);
 
         /*
          * So that this can't be abused by players, the tunnel length has to be capped. Otherwise, players could
@@ -76,7 +78,7 @@ public final class VeinMiningPatternTunnel implements VeinMiningPattern {
         int blocksPerSquare = (int) Math.pow((radius * 2) + 1, 2);
         int maxTunnelDepth = (int) Math.ceil(((double) maxVeinSize) / blocksPerSquare);
 
-        while (maxTunnelDepth-- > 0 && calculateSquare(positions, blockAccessor, currentCenter, block, aliasList, maxVeinSize, relativeGetter)) {
+        while (maxTunnelDepth-- > 0 && calculateSquare(positions, blockAccessor, currentCenter, matcher, maxVeinSize, relativeGetter)) {
             currentCenter = currentCenter.getRelative(tunnelDirection);
         }
 
@@ -89,14 +91,14 @@ public final class VeinMiningPatternTunnel implements VeinMiningPattern {
         return "veinminer.pattern.tunnel";
     }
 
-    private boolean calculateSquare(Set<BlockPosition> positions, BlockAccessor blockAccessor, BlockPosition center, VeinMinerBlock block, BlockList aliasList, int maxVeinSize, BiAxisRelativeGetter relativeGetter) {
+    private boolean calculateSquare(Set<BlockPosition> positions, BlockAccessor blockAccessor, BlockPosition center, BlockStateMatcher matcher, int maxVeinSize, BiAxisRelativeGetter relativeGetter) {
         boolean changed = false;
 
         // Get the possible mod values for that axis which should be -1, 0, and 1. Or just 0 for the axis that is ignored (set to 0 above)
         for (int i = -radius; i <= radius; i++) {
             for (int j = -radius; j <= radius; j++) {
                 BlockPosition relative = relativeGetter.apply(center, i, j);
-                if (positions.contains(relative) || !PatternUtils.typeMatches(block, aliasList, blockAccessor.getState(relative))) {
+                if (positions.contains(relative) || !matcher.matches(blockAccessor.getState(relative))) {
                     continue;
                 }
 
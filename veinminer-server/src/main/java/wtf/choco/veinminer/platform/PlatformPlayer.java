@@ -5,6 +5,7 @@ import java.util.UUID;
 import org.jetbrains.annotations.NotNull;
 
 import wtf.choco.veinminer.platform.world.BlockAccessor;
+import wtf.choco.veinminer.platform.world.EyeLocation;
 import wtf.choco.veinminer.platform.world.ItemStack;
 import wtf.choco.veinminer.platform.world.RayTraceResult;
 import wtf.choco.veinminer.util.NamespacedKey;
@@ -37,6 +38,14 @@ public interface PlatformPlayer extends PlatformCommandSender {
     @NotNull
     public BlockAccessor getWorld();
 
+    /**
+     * Get the name of the world in which this player currently resides.
+     *
+     * @return the world name
+     */
+    @NotNull
+    public String getWorldName();
+
     /**
      * Get the {@link ItemStack} in the player's main hand.
      *
@@ -56,6 +65,14 @@ public interface PlatformPlayer extends PlatformCommandSender {
     @NotNull
     public RayTraceResult getTargetBlock(int distance);
 
+    /**
+     * Get the location and direction of this player's eyes.
+     *
+     * @return the eye location
+     */
+    @NotNull
+    public EyeLocation getEyeLocation();
+
     /**
      * Get the {@link GameMode} of this player.
      *
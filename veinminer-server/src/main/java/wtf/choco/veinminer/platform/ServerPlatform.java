@@ -208,6 +208,15 @@ public interface ServerPlatform {
      */
     public void runTaskLater(@NotNull Runnable runnable, int ticks);
 
+    /**
+     * Run the given {@link Runnable} task repeatedly on the server thread.
+     *
+     * @param runnable the task to run
+     * @param delay the amount of time (in ticks) after which to first run the task
+     * @param period the amount of time (in ticks) between subsequent runs of the task
+     */
+    public void runTaskTimer(@NotNull Runnable runnable, int delay, int period);
+
     /**
      * Run the given {@link Runnable} task asynchronously.
      *
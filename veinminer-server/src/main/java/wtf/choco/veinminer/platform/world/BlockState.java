@@ -41,4 +41,18 @@ public interface BlockState {
      */
     public boolean matches(@NotNull BlockState state);
 
+    /**
+     * Get the dense numeric id of this {@link BlockState}.
+     * <p>
+     * Platforms that intern their states (i.e. there is only ever one instance of any given
+     * state) may assign each state a unique id, counting upwards from 0 in the order in which
+     * states were first interned. Ids are stable for the lifetime of the server and are suitable
+     * for use as indices into arrays or bit sets. States that are not interned return -1.
+     *
+     * @return this state's id, or -1 if this state has no id
+     */
+    public default int getId() {
+        return -1;
+    }
+
 }
@@ -41,4 +41,12 @@ public interface BlockType {
     @NotNull
     public BlockState createBlockState(@NotNull String states);
 
+    /**
+     * Check whether or not this {@link BlockType} is a full, opaque block that obstructs the
+     * view of whatever lies behind it.
+     *
+     * @return true if occluding, false otherwise
+     */
+    public boolean isOccluding();
+
 }
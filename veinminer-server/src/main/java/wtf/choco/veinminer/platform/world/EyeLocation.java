@@ -0,0 +1,139 @@
+package wtf.choco.veinminer.platform.world;
+
+import org.jetbrains.annotations.NotNull;
+
+import wtf.choco.veinminer.platform.PlatformPlayer;
+import wtf.choco.veinminer.util.BlockFace;
+import wtf.choco.veinminer.util.BlockPosition;
+
+/**
+ * The location and direction of a player's eyes.
+ *
+ * @param x the x coordinate of the eyes
+ * @param y the y coordinate of the eyes
+ * @param z the z coordinate of the eyes
+ * @param directionX the x component of the direction in which the player is looking
+ * @param directionY the y component of the direction in which the player is looking
+ * @param directionZ the z component of the direction in which the player is looking
+ *
+ * @see PlatformPlayer#getEyeLocation()
+ */
+public record EyeLocation(double x, double y, double z, double directionX, double directionY, double directionZ) {
+
+    // The maximum distance between the player's line of sight and the centre of the target block.
+    // Generous enough to tolerate the player's head having moved since the client sent its request
+    private static final double MAXIMUM_LINE_OF_SIGHT_DISTANCE_SQUARED = 2 * 2;
+
+    /**
+     * Check whether or not the given face of the given block could plausibly have been hit by
+     * a player with these eyes within the given distance.
+     * <p>
+     * Unlike a ray trace, this check is done in constant time and does not access the world.
+     * It passes if the block is within reach, the eyes are in front of the given face, and the
+     * player is looking in the direction of the block. It does not check whether or not the
+     * block is obstructed by other blocks. Together with {@link #isObstructed(BlockAccessor, BlockPosition, BlockFace)},
+     * it replaces a ray trace to validate a block targeted by a client.
+     *
+     * @param block the position of the block
+     * @param face the face of the block that was hit
+     * @param distance the maximum distance from the eyes to the block
+     *
+     * @return true if the block could have been hit, false otherwise
+     */
+    public boolean canReach(@NotNull BlockPosition block, @NotNull BlockFace face, double distance) {
+        // Distance from the eyes to the closest point of the block
+        double closestX = Math.max(Math.max(block.x() - x, 0), x - (block.x() + 1));
+        double closestY = Math.max(Math.max(block.y() - y, 0), y - (block.y() + 1));
+        double closestZ = Math.max(Math.max(block.z() - z, 0), z - (block.z() + 1));
+
+        if ((closestX * closestX) + (closestY * closestY) + (closestZ * closestZ) > distance * distance) {
+            return false;
+        }
+
+        // A face can only be hit from the outside of the block
+        if (!isInFrontOf(face.getXOffset(), x, block.x()) || !isInFrontOf(face.getYOffset(), y, block.y()) || !isInFrontOf(face.getZOffset(), z, block.z())) {
+            return false;
+        }
+
+        double directionLengthSquared = (directionX * directionX) + (directionY * directionY) + (directionZ * directionZ);
+        if (directionLengthSquared == 0) {
+            return false;
+        }
+
+        // Distance between the line of sight and the centre of the block
+        double toCentreX = (block.x() + 0.5) - x, toCentreY = (block.y() + 0.5) - y, toCentreZ = (block.z() + 0.5) - z;
+        double projection = ((toCentreX * directionX) + (toCentreY * directionY) + (toCentreZ * directionZ)) / Math.sqrt(directionLengthSquared);
+        double toCentreLengthSquared = (toCentreX * toCentreX) + (toCentreY * toCentreY) + (toCentreZ * toCentreZ);
+
+        if (projection < 0) {
+            return toCentreLengthSquared < MAXIMUM_LINE_OF_SIGHT_DISTANCE_SQUARED;
+        }
+
+        return toCentreLengthSquared - (projection * projection) < MAXIMUM_LINE_OF_SIGHT_DISTANCE_SQUARED;
+    }
+
+    /**
+     * Check whether or not the line of sight from these eyes to the centre of the given face of
+     * the given block passes through an {@link BlockType#isOccluding() occluding} block.
+     * <p>
+     * Only the blocks between the eyes and the face are visited (including the block in which
+     * the eyes are located, but not the given block itself), so this is no more expensive than
+     * the distance between them.
+     *
+     * @param blockAccessor the block accessor from which to read blocks
+     * @param block the position of the block
+     * @param face the face of the block to be seen
+     *
+     * @return true if obstructed, false if the face can be seen
+     */
+    public boolean isObstructed(@NotNull BlockAccessor blockAccessor, @NotNull BlockPosition block, @NotNull BlockFace face) {
+        // The centre of the face, on the boundary between the block and its neighbour
+        double targetX = block.x() + 0.5 + (face.getXOffset() * 0.5);
+        double targetY = block.y() + 0.5 + (face.getYOffset() * 0.5);
+        double targetZ = block.z() + 0.5 + (face.getZOffset() * 0.5);
+        double deltaX = targetX - x, deltaY = targetY - y, deltaZ = targetZ - z;
+
+        int cellX = (int) Math.floor(x), cellY = (int) Math.floor(y), cellZ = (int) Math.floor(z);
+        int stepX = (int) Math.signum(deltaX), stepY = (int) Math.signum(deltaY), stepZ = (int) Math.signum(deltaZ);
+
+        // The fraction of the line at which the next boundary on each axis is crossed, and the fraction it takes to cross a whole block
+        double nextX = boundary(x, cellX, stepX, deltaX), nextY = boundary(y, cellY, stepY, deltaY), nextZ = boundary(z, cellZ, stepZ, deltaZ);
+        double lengthX = (stepX != 0) ? Math.abs(1 / deltaX) : Double.POSITIVE_INFINITY;
+        double lengthY = (stepY != 0) ? Math.abs(1 / deltaY) : Double.POSITIVE_INFINITY;
+        double lengthZ = (stepZ != 0) ? Math.abs(1 / deltaZ) : Double.POSITIVE_INFINITY;
+
+        // Every step moves one block closer to the target, so the walk never needs more steps than the blocks between them
+        int steps = Math.abs(block.x() - cellX) + Math.abs(block.y() - cellY) + Math.abs(block.z() - cellZ);
+        for (int i = 0; i < steps; i++) {
+            if (blockAccessor.getType(cellX, cellY, cellZ).isOccluding()) {
+                return true;
+            }
+
+            if (nextX <= nextY && nextX <= nextZ) {
+                cellX += stepX;
+                nextX += lengthX;
+            } else if (nextY <= nextZ) {
+                cellY += stepY;
+                nextY += lengthY;
+            } else {
+                cellZ += stepZ;
+                nextZ += lengthZ;
+            }
+        }
+
+        return false;
+    }
+
+    private static double boundary(double position, int cell, int step, double delta) {
+        if (step == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return ((step > 0) ? (cell + 1 - position) : (position - cell)) / Math.abs(delta);
+    }
+
+    private static boolean isInFrontOf(int faceOffset, double eye, int block) {
+        return (faceOffset > 0) ? eye >= block + 1 : (faceOffset < 0) ? eye <= block : true;
+    }
+
+}
@@ -1,8 +1,11 @@
 package wtf.choco.veinminer.tool;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
 
@@ -14,12 +17,28 @@ import wtf.choco.veinminer.platform.world.ItemType;
 
 /**
  * A registry to which {@link VeinMinerToolCategory VeinMinerToolCategories} may be registered.
+ * <p>
+ * Lookups by {@link ItemType} are served from an index of the categories containing each item
+ * type, sorted by priority. The index is populated as item types are looked up and is cleared
+ * whenever a category is registered or unregistered, or a registered category's items change.
+ * <p>
+ * Every registered category is assigned an {@link VeinMinerToolCategory#getIndex() index}
+ * unique within this registry, allowing per-category state to be stored in bit sets. Indices
+ * of unregistered categories are only reused once all categories have been unregistered. The
+ * {@link #getRevision() revision} of this registry changes whenever a category is registered
+ * or unregistered such that state indexed by category may be recomputed.
  */
 public final class ToolCategoryRegistry {
 
     private static final Predicate<VeinMinerToolCategory> PREDICATE_ALWAYS_TRUE = category -> true;
 
+    private static final Comparator<VeinMinerToolCategory> HIGHEST_PRIORITY_FIRST = Comparator.reverseOrder();
+
     private final Map<String, VeinMinerToolCategory> categories = new HashMap<>();
+    private final Map<ItemType, List<VeinMinerToolCategory>> categoriesByItem = new HashMap<>();
+
+    private int nextIndex = 0;
+    private int revision = 0;
 
     /**
      * Register the given {@link VeinMinerToolCategory}.
@@ -27,7 +46,17 @@ public final class ToolCategoryRegistry {
      * @param category the category to register
      */
     public void register(@NotNull VeinMinerToolCategory category) {
-        this.categories.put(category.getId().toLowerCase(), category);
+        VeinMinerToolCategory previous = categories.put(category.getId().toLowerCase(), category);
+
+        // A category replacing another with the same id takes its index
+        int index = (previous != null) ? previous.getIndex() : nextIndex++;
+        if (previous != null && previous != category) {
+            previous.setRegistry(null, -1);
+        }
+
+        category.setRegistry(this, index);
+        this.invalidateItemIndex();
+        this.revision++;
     }
 
     /**
@@ -44,8 +73,10 @@ public final class ToolCategoryRegistry {
 
     /**
      * Get the {@link VeinMinerToolCategory} that contains the given {@link ItemType} and matches
-     * the given {@link Predicate}. There is no guarantee as to which category will be returned if
-     * more than one category contains the provided ItemType.
+     * the given {@link Predicate}. If more than one category contains the provided ItemType, the
+     * category with the highest {@link VeinMinerToolCategory#getPriority() priority} that matches
+     * the predicate is returned. The predicate is evaluated in order of priority and only for
+     * categories that contain the ItemType.
      *
      * @param itemType the item type
      * @param categoryPredicate a predicate to apply on top of the item condition. If the predicate
@@ -56,21 +87,19 @@ public final class ToolCategoryRegistry {
      */
     @Nullable
     public VeinMinerToolCategory get(@NotNull ItemType itemType, @NotNull Predicate<VeinMinerToolCategory> categoryPredicate) {
-        VeinMinerToolCategory resultCategory = null;
-
-        for (VeinMinerToolCategory category : categories.values()) {
-            if (category.containsItem(itemType) && (resultCategory == null || category.compareTo(resultCategory) > 1) && categoryPredicate.test(category)) {
-                resultCategory = category;
+        for (VeinMinerToolCategory category : getCategoriesContaining(itemType)) {
+            if (categoryPredicate.test(category)) {
+                return category;
             }
         }
 
-        return resultCategory;
+        return null;
     }
 
     /**
-     * Get the {@link VeinMinerToolCategory} that contains the given {@link ItemType}. There is
-     * no guarantee as to which category will be returned if more than one category contains the
-     * provided ItemType.
+     * Get the {@link VeinMinerToolCategory} that contains the given {@link ItemType}. If more
+     * than one category contains the provided ItemType, the category with the highest
+     * {@link VeinMinerToolCategory#getPriority() priority} is returned.
      *
      * @param itemType the item type
      *
@@ -81,6 +110,37 @@ public final class ToolCategoryRegistry {
         return get(itemType, PREDICATE_ALWAYS_TRUE);
     }
 
+    /**
+     * Get all {@link VeinMinerToolCategory VeinMinerToolCategories} that contain the given
+     * {@link ItemType}, sorted from highest to lowest {@link VeinMinerToolCategory#getPriority()
+     * priority}.
+     *
+     * @param itemType the item type
+     *
+     * @return the categories containing the item type
+     */
+    @NotNull
+    @UnmodifiableView
+    public List<VeinMinerToolCategory> getCategoriesContaining(@NotNull ItemType itemType) {
+        List<VeinMinerToolCategory> result = categoriesByItem.get(itemType);
+        if (result != null) {
+            return result;
+        }
+
+        result = new ArrayList<>(1);
+        for (VeinMinerToolCategory category : categories.values()) {
+            if (category.containsItem(itemType)) {
+                result.add(category);
+            }
+        }
+
+        result.sort(HIGHEST_PRIORITY_FIRST);
+        result = result.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(result);
+
+        this.categoriesByItem.put(itemType, result);
+        return result;
+    }
+
     /**
      * Unregister the given {@link VeinMinerToolCategory}.
      *
@@ -101,7 +161,14 @@ public final class ToolCategoryRegistry {
      */
     @Nullable
     public VeinMinerToolCategory unregister(@NotNull String id) {
-        return categories.remove(id.toLowerCase());
+        VeinMinerToolCategory category = categories.remove(id.toLowerCase());
+        if (category != null) {
+            category.setRegistry(null, -1);
+            this.invalidateItemIndex();
+            this.revision++;
+        }
+
+        return category;
     }
 
     /**
@@ -113,6 +180,16 @@ public final class ToolCategoryRegistry {
         return categories.size();
     }
 
+    /**
+     * Get the revision of this registry. The revision changes whenever a category is registered
+     * or unregistered.
+     *
+     * @return the revision
+     */
+    public int getRevision() {
+        return revision;
+    }
+
     /**
      * Get all registered {@link VeinMinerToolCategory VeinMinerToolCategories}.
      *
@@ -128,7 +205,16 @@ public final class ToolCategoryRegistry {
      * Unregister all tool categories.
      */
     public void unregisterAll() {
+        this.categories.values().forEach(category -> category.setRegistry(null, -1));
         this.categories.clear();
+        this.invalidateItemIndex();
+        this.nextIndex = 0;
+        this.revision++;
+    }
+
+    // Called by registered categories when their items change
+    void invalidateItemIndex() {
+        this.categoriesByItem.clear();
     }
 
 }
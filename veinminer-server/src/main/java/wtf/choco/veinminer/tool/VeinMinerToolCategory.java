@@ -26,6 +26,9 @@ public class VeinMinerToolCategory implements Comparable<VeinMinerToolCategory>
     private final VeinMiningConfig config;
     private final Set<ItemType> items;
 
+    private ToolCategoryRegistry registry;
+    private int index = -1;
+
     /**
      * Construct a new {@link VeinMinerToolCategory}.
      *
@@ -112,7 +115,12 @@ public class VeinMinerToolCategory implements Comparable<VeinMinerToolCategory>
      * @return true if the item list was modified, false if the item was already added
      */
     public boolean addItem(@NotNull ItemType itemType) {
-        return items.add(itemType);
+        if (!items.add(itemType)) {
+            return false;
+        }
+
+        this.itemsChanged();
+        return true;
     }
 
     /**
@@ -123,7 +131,12 @@ public class VeinMinerToolCategory implements Comparable<VeinMinerToolCategory>
      * @return true if the item list was modified, false if the item had not been added
      */
     public boolean removeItem(@NotNull ItemType itemType) {
-        return items.remove(itemType);
+        if (!items.remove(itemType)) {
+            return false;
+        }
+
+        this.itemsChanged();
+        return true;
     }
 
     /**
@@ -152,6 +165,34 @@ public class VeinMinerToolCategory implements Comparable<VeinMinerToolCategory>
         return Collections.unmodifiableSet(items);
     }
 
+    /**
+     * Notify the {@link ToolCategoryRegistry} to which this category is registered (if any)
+     * that the result of {@link #containsItem(ItemType)} may have changed. Subclasses that
+     * override {@link #containsItem(ItemType)} must call this method whenever its result
+     * changes.
+     */
+    protected final void itemsChanged() {
+        if (registry != null) {
+            this.registry.invalidateItemIndex();
+        }
+    }
+
+    /**
+     * Get the index of this category in the {@link ToolCategoryRegistry} to which it is
+     * registered. Indices are unique among the categories of a registry and are kept small so
+     * that they may be used to index bit sets.
+     *
+     * @return the index, or -1 if this category is not registered
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    void setRegistry(@Nullable ToolCategoryRegistry registry, int index) {
+        this.registry = registry;
+        this.index = index;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -7,6 +7,7 @@ import org.jetbrains.annotations.NotNull;
 import wtf.choco.veinminer.block.BlockList;
 import wtf.choco.veinminer.config.VeinMiningConfig;
 import wtf.choco.veinminer.platform.world.ItemType;
+import wtf.choco.veinminer.util.NamespacedKey;
 
 /**
  * A more specific type of {@link VeinMinerToolCategory} whereby the hand category
@@ -14,6 +15,8 @@ import wtf.choco.veinminer.platform.world.ItemType;
  */
 public final class VeinMinerToolCategoryHand extends VeinMinerToolCategory {
 
+    private static final NamespacedKey AIR = NamespacedKey.minecraft("air");
+
     /**
      * Construct a new {@link VeinMinerToolCategoryHand}.
      *
@@ -36,7 +39,7 @@ public final class VeinMinerToolCategoryHand extends VeinMinerToolCategory {
 
     @Override
     public boolean containsItem(@NotNull ItemType item) {
-        return item.getKey().toString().equals("minecraft:air"); // Hand category activates only if the type is air
+        return item.getKey().equals(AIR); // Hand category activates only if the type is air
     }
 
 }
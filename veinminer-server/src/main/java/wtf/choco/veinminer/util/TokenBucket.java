@@ -0,0 +1,67 @@
+package wtf.choco.veinminer.util;
+
+/**
+ * A token bucket rate limiter. A bucket holds up to a fixed amount of tokens, is refilled at a
+ * constant rate, and permits an action only if a token can be taken from it. Bursts of up to
+ * the bucket's capacity are therefore permitted, while the sustained rate is limited to the
+ * refill rate.
+ * <p>
+ * Time is supplied by the caller (see {@link System#nanoTime()}) so that many buckets may share
+ * a single clock read. This class is <strong>not</strong> thread-safe.
+ */
+public final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final int capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Construct a new full {@link TokenBucket}.
+     *
+     * @param capacity the maximum amount of tokens held by the bucket. Must be positive
+     * @param tokensPerSecond the amount of tokens added to the bucket every second. Must be
+     * positive
+     * @param now the current time in nanoseconds
+     */
+    public TokenBucket(int capacity, double tokensPerSecond, long now) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        if (tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("tokensPerSecond must be positive");
+        }
+
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Attempt to take a single token from this bucket.
+     *
+     * @param now the current time in nanoseconds
+     *
+     * @return true if a token was taken, false if the bucket is empty
+     */
+    public boolean tryConsume(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            this.tokens = Math.min(capacity, tokens + (elapsed * tokensPerNano));
+            this.lastRefill = now;
+        }
+
+        if (tokens < 1) {
+            return false;
+        }
+
+        this.tokens--;
+        return true;
+    }
+
+}
@@ -19,6 +19,10 @@ public final class VeinMinerConstants {
     public static final String PERMISSION_COMMAND_MODE = "veinminer.command.mode";
     public static final String PERMISSION_COMMAND_PATTERN = "veinminer.command.pattern";
     public static final String PERMISSION_COMMAND_IMPORT = "veinminer.command.import";
+    public static final String PERMISSION_COMMAND_SCHEDULER = "veinminer.command.scheduler";
+
+    public static final String PERMISSION_FREE_ECONOMY = "veinminer.free.economy";
+    public static final String PERMISSION_FREE_HUNGER = "veinminer.free.hunger";
 
     // Dynamic permission nodes
     public static final Function<VeinMinerToolCategory, String> PERMISSION_VEINMINE = category -> "veinminer.veinmine." + category.getId().toLowerCase();
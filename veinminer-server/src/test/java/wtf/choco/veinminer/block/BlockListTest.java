@@ -0,0 +1,103 @@
+package wtf.choco.veinminer.block;
+
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.platform.world.BlockType;
+import wtf.choco.veinminer.platform.world.TestBlockState;
+import wtf.choco.veinminer.platform.world.TestBlockType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockListTest {
+
+    private static final BlockType CHEST = new TestBlockType("chest"), STONE = new TestBlockType("stone");
+
+    @Test
+    void testContainsType() {
+        BlockList blockList = new BlockList();
+        blockList.add(new VeinMinerBlockType(STONE));
+        blockList.add(new VeinMinerBlockState(new TestBlockState(CHEST, "facing=north")));
+
+        assertTrue(blockList.containsType(STONE));
+        assertFalse(blockList.containsType(CHEST)); // Stated blocks never match a type
+    }
+
+    @Test
+    void testContainsState() {
+        BlockList blockList = new BlockList();
+        blockList.add(new VeinMinerBlockType(STONE));
+        blockList.add(new VeinMinerBlockState(new TestBlockState(CHEST, "facing=north")));
+
+        assertTrue(blockList.containsState(new TestBlockState(STONE, "")));
+        assertTrue(blockList.containsState(new TestBlockState(CHEST, "facing=north")));
+        assertFalse(blockList.containsState(new TestBlockState(CHEST, "facing=south")));
+    }
+
+    @Test
+    void testGetVeinMinerBlockPrefersStatedBlocks() {
+        VeinMinerBlock type = new VeinMinerBlockType(CHEST), state = new VeinMinerBlockState(new TestBlockState(CHEST, "facing=north"));
+
+        BlockList blockList = new BlockList();
+        blockList.add(type);
+        blockList.add(state);
+
+        assertSame(state, blockList.getVeinMinerBlock(new TestBlockState(CHEST, "facing=north")));
+        assertSame(type, blockList.getVeinMinerBlock(new TestBlockState(CHEST, "facing=south")));
+        assertNull(blockList.getVeinMinerBlock(new TestBlockState(STONE, "")));
+    }
+
+    @Test
+    void testRemovalsUpdateIndex() {
+        BlockList blockList = new BlockList();
+        blockList.add(new VeinMinerBlockType(STONE));
+        blockList.add(new VeinMinerBlockState(new TestBlockState(CHEST, "facing=north")));
+
+        assertTrue(blockList.remove(new VeinMinerBlockType(STONE)));
+        assertFalse(blockList.containsType(STONE));
+
+        assertTrue(blockList.remove(new TestBlockState(CHEST, "facing=north")));
+        assertFalse(blockList.containsState(new TestBlockState(CHEST, "facing=north")));
+        assertTrue(blockList.isEmpty());
+
+        blockList.add(new VeinMinerBlockType(STONE));
+        Iterator<VeinMinerBlock> iterator = blockList.iterator();
+        iterator.next();
+        iterator.remove();
+
+        assertFalse(blockList.containsType(STONE));
+        assertEquals(0, blockList.size());
+    }
+
+    @Test
+    void testCopyIsIndexed() {
+        BlockList blockList = new BlockList();
+        blockList.add(new VeinMinerBlockType(STONE));
+
+        BlockList copy = blockList.clone();
+        blockList.clear();
+
+        assertTrue(copy.containsType(STONE));
+        assertFalse(blockList.containsType(STONE));
+    }
+
+    @Test
+    void testWildcard() {
+        BlockList blockList = new BlockList();
+        blockList.add(VeinMinerBlock.WILDCARD);
+
+        assertTrue(blockList.containsWildcard());
+        assertTrue(blockList.containsType(STONE));
+        assertSame(VeinMinerBlock.WILDCARD, blockList.getVeinMinerBlock(new TestBlockState(STONE, "")));
+
+        blockList.remove(VeinMinerBlock.WILDCARD);
+        assertFalse(blockList.containsWildcard());
+        assertFalse(blockList.containsType(STONE));
+    }
+
+}
@@ -0,0 +1,116 @@
+package wtf.choco.veinminer.block;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.platform.world.BlockState;
+import wtf.choco.veinminer.platform.world.BlockType;
+import wtf.choco.veinminer.platform.world.TestBlockState;
+import wtf.choco.veinminer.platform.world.TestBlockType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockStateMatcherTest {
+
+    private static final BlockType IRON_ORE = new TestBlockType("iron_ore"), DEEPSLATE_IRON_ORE = new TestBlockType("deepslate_iron_ore"), STONE = new TestBlockType("stone");
+
+    @Test
+    void testMatchesBlockAndAliases() {
+        CountingVeinMinerBlock block = new CountingVeinMinerBlock(IRON_ORE);
+        BlockList aliases = new BlockList();
+        aliases.add(new CountingVeinMinerBlock(DEEPSLATE_IRON_ORE));
+
+        BlockStateMatcher matcher = BlockStateMatcher.compile(block, aliases);
+
+        assertTrue(matcher.matches(new TestBlockState(IRON_ORE, 0)));
+        assertTrue(matcher.matches(new TestBlockState(DEEPSLATE_IRON_ORE, 1)));
+        assertFalse(matcher.matches(new TestBlockState(STONE, 2)));
+    }
+
+    @Test
+    void testInternedStatesAreEvaluatedOnce() {
+        CountingVeinMinerBlock block = new CountingVeinMinerBlock(IRON_ORE);
+        BlockStateMatcher matcher = BlockStateMatcher.compile(block, null);
+
+        BlockState ore = new TestBlockState(IRON_ORE, 5000), stone = new TestBlockState(STONE, 3);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(matcher.matches(ore));
+            assertFalse(matcher.matches(stone));
+        }
+
+        assertEquals(2, block.evaluations);
+    }
+
+    @Test
+    void testStatesWithoutIdAreAlwaysEvaluated() {
+        CountingVeinMinerBlock block = new CountingVeinMinerBlock(IRON_ORE);
+        BlockStateMatcher matcher = BlockStateMatcher.compile(block, null);
+
+        BlockState ore = new TestBlockState(IRON_ORE, -1);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(matcher.matches(ore));
+        }
+
+        assertEquals(10, block.evaluations);
+    }
+
+    @Test
+    void testWildcardAliasMatchesEverything() {
+        CountingVeinMinerBlock block = new CountingVeinMinerBlock(IRON_ORE);
+        BlockList aliases = new BlockList();
+        aliases.add(VeinMinerBlock.WILDCARD);
+
+        BlockStateMatcher matcher = BlockStateMatcher.compile(block, aliases);
+
+        assertTrue(matcher.matches(new TestBlockState(STONE, 0)));
+        assertEquals(0, block.evaluations);
+    }
+
+    private static final class CountingVeinMinerBlock implements VeinMinerBlock {
+
+        private final BlockType type;
+        private int evaluations = 0;
+
+        private CountingVeinMinerBlock(BlockType type) {
+            this.type = type;
+        }
+
+        @NotNull
+        @Override
+        public BlockType getType() {
+            return type;
+        }
+
+        @NotNull
+        @Override
+        public BlockState getState() {
+            return new TestBlockState(type, -1);
+        }
+
+        @Override
+        public boolean hasState() {
+            return false;
+        }
+
+        @Override
+        public boolean matchesType(@NotNull BlockType type) {
+            return this.type.equals(type);
+        }
+
+        @Override
+        public boolean matchesState(@NotNull BlockState state, boolean exact) {
+            this.evaluations++;
+            return type.equals(state.getType());
+        }
+
+        @NotNull
+        @Override
+        public String toStateString() {
+            return type.getKey().toString();
+        }
+
+    }
+
+}
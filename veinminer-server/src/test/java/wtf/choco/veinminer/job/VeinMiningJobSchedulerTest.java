@@ -0,0 +1,204 @@
+package wtf.choco.veinminer.job;
+
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VeinMiningJobSchedulerTest {
+
+    @Test
+    void testUnlimitedBudgetProcessesImmediately() {
+        VeinMiningJobScheduler scheduler = new VeinMiningJobScheduler(0);
+        TestJob job = new TestJob(500);
+
+        scheduler.submit(UUID.randomUUID(), job);
+
+        assertTrue(job.isFinished());
+        assertEquals(0, scheduler.getQueuedJobCount());
+        assertEquals(0, scheduler.getQueuedPlayerCount());
+    }
+
+    @Test
+    void testBudgetIsSharedEvenly() {
+        VeinMiningJobScheduler scheduler = new VeinMiningJobScheduler(30);
+        TestJob[] jobs = { new TestJob(100), new TestJob(100), new TestJob(100) };
+
+        scheduler.tick();
+        for (TestJob job : jobs) {
+            scheduler.submit(UUID.randomUUID(), job);
+        }
+
+        // Later submissions only get what remains of the first tick's budget
+        assertEquals(30, jobs[0].processed + jobs[1].processed + jobs[2].processed);
+
+        int[] processedBefore = { jobs[0].processed, jobs[1].processed, jobs[2].processed };
+        for (int tick = 0; tick < 3; tick++) {
+            scheduler.tick();
+        }
+
+        // Once everyone is queued, each tick's budget is split evenly
+        for (int i = 0; i < jobs.length; i++) {
+            assertEquals(30, jobs[i].processed - processedBefore[i]);
+        }
+
+        scheduler.tick();
+        assertEquals(30, scheduler.getBlocksProcessedLastTick());
+        assertEquals(3, scheduler.getQueuedPlayerCount());
+    }
+
+    @Test
+    void testBudgetSmallerThanPlayerCountRotates() {
+        VeinMiningJobScheduler scheduler = new VeinMiningJobScheduler(2);
+        TestJob[] jobs = new TestJob[4];
+
+        scheduler.tick();
+        for (int i = 0; i < jobs.length; i++) {
+            jobs[i] = new TestJob(10);
+            scheduler.submit(UUID.randomUUID(), jobs[i]);
+        }
+
+        int[] processedBefore = new int[jobs.length];
+        for (int i = 0; i < jobs.length; i++) {
+            processedBefore[i] = jobs[i].processed;
+        }
+
+        // Rotation should give every player the same amount of blocks every two ticks
+        for (int tick = 0; tick < 4; tick++) {
+            scheduler.tick();
+        }
+
+        for (int i = 0; i < jobs.length; i++) {
+            assertEquals(2, jobs[i].processed - processedBefore[i]);
+        }
+    }
+
+    @Test
+    void testPlayerJobsRunSequentially() {
+        VeinMiningJobScheduler scheduler = new VeinMiningJobScheduler(10);
+        UUID playerId = UUID.randomUUID();
+        TestJob first = new TestJob(15), second = new TestJob(5);
+
+        scheduler.tick();
+        scheduler.submit(playerId, first);
+        scheduler.submit(playerId, second);
+
+        assertEquals(10, first.processed);
+        assertEquals(0, second.processed);
+        assertEquals(2, scheduler.getQueuedJobCount());
+        assertEquals(1, scheduler.getQueuedPlayerCount());
+
+        scheduler.tick();
+
+        assertTrue(first.isFinished());
+        assertTrue(second.isFinished());
+        assertEquals(0, scheduler.getQueuedJobCount());
+        assertEquals(1, scheduler.getMaximumWaitTicks());
+    }
+
+    @Test
+    void testCancelAll() {
+        VeinMiningJobScheduler scheduler = new VeinMiningJobScheduler(1);
+        TestJob job = new TestJob(10);
+
+        scheduler.tick();
+        scheduler.submit(UUID.randomUUID(), job);
+        assertFalse(job.isFinished());
+
+        scheduler.cancelAll();
+
+        assertTrue(job.isFinished());
+        assertEquals(0, scheduler.getQueuedJobCount());
+    }
+
+    @Test
+    void testThrowingJobIsFinishedAndRemoved() {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+
+        VeinMiningJobScheduler scheduler = new VeinMiningJobScheduler(2, logger);
+        UUID playerId = UUID.randomUUID();
+        ThrowingJob failing = new ThrowingJob();
+        TestJob other = new TestJob(10);
+
+        scheduler.tick();
+        scheduler.submit(playerId, failing);
+        scheduler.submit(UUID.randomUUID(), other);
+        assertEquals(1, other.processed);
+
+        // The failing job throws on its second call, which must neither abort the tick nor leave its player's queue behind
+        scheduler.tick();
+
+        assertTrue(failing.isFinished());
+        assertEquals(2, other.processed);
+        assertEquals(1, scheduler.getQueuedJobCount());
+        assertEquals(1, scheduler.getQueuedPlayerCount());
+
+        // The player must be able to have new jobs processed
+        TestJob next = new TestJob(1);
+        scheduler.submit(playerId, next);
+
+        assertTrue(next.isFinished());
+    }
+
+    private static final class ThrowingJob implements VeinMiningJob {
+
+        private int calls = 0;
+        private boolean finished = false;
+
+        @Override
+        public int process(int maxBlocks) {
+            if (++calls > 1) {
+                throw new IllegalStateException("job failed");
+            }
+
+            return 1;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public void finish() {
+            this.finished = true;
+        }
+
+    }
+
+    private static final class TestJob implements VeinMiningJob {
+
+        private final int size;
+        private int processed = 0;
+        private boolean finished = false;
+
+        private TestJob(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int process(int maxBlocks) {
+            int amount = Math.min(maxBlocks, size - processed);
+            this.processed += amount;
+            this.finished = (processed >= size);
+            return amount;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public void finish() {
+            this.finished = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package wtf.choco.veinminer.manager;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.util.BlockPosition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreviewSubscriptionManagerTest {
+
+    private static final UUID PLAYER = UUID.randomUUID(), OTHER_PLAYER = UUID.randomUUID();
+    private static final BlockPosition ORIGIN = new BlockPosition(14, 64, 0);
+
+    @Test
+    void testChangesInOrAdjacentToVeinAreReported() {
+        PreviewSubscriptionManager manager = new PreviewSubscriptionManager();
+        manager.subscribe(PLAYER, "world", ORIGIN, Set.of(ORIGIN, ORIGIN.offset(1, 0, 0)));
+
+        // Unrelated blocks, even in the same chunk, do not affect the vein
+        manager.notifyChanged("world", 0, 64, 0);
+        manager.notifyChanged("world", 14, 70, 0);
+        manager.notifyChanged("world_nether", 14, 64, 0);
+        assertTrue(manager.pollChanged().isEmpty());
+
+        // The vein ends at x = 15, so x = 16 is adjacent to it in the neighbouring chunk
+        manager.notifyChanged("world", 16, 64, 0);
+        assertEquals(Set.of(PLAYER), manager.pollChanged());
+    }
+
+    @Test
+    void testChangesAreDebouncedUntilPolled() {
+        PreviewSubscriptionManager manager = new PreviewSubscriptionManager();
+        manager.subscribe(PLAYER, "world", ORIGIN, Set.of(ORIGIN));
+        manager.subscribe(OTHER_PLAYER, "world", ORIGIN, Set.of(ORIGIN));
+
+        for (int i = 0; i < 10; i++) {
+            manager.notifyChanged("world", 14, 64, 0);
+        }
+
+        assertEquals(Set.of(PLAYER, OTHER_PLAYER), manager.pollChanged());
+        assertTrue(manager.pollChanged().isEmpty());
+
+        // Subscriptions remain after being polled
+        manager.notifyChanged("world", 14, 65, 0);
+        assertEquals(Set.of(PLAYER, OTHER_PLAYER), manager.pollChanged());
+    }
+
+    @Test
+    void testBatchedChangesAreReported() {
+        PreviewSubscriptionManager manager = new PreviewSubscriptionManager();
+        manager.subscribe(PLAYER, "world", ORIGIN, Set.of(ORIGIN));
+        manager.subscribe(OTHER_PLAYER, "world", new BlockPosition(100, 64, 100), Set.of());
+
+        manager.notifyChanged("world", Set.of(new BlockPosition(0, 64, 0), ORIGIN.offset(0, 1, 0)));
+        assertEquals(Set.of(PLAYER), manager.pollChanged());
+
+        manager.notifyChanged("world", Set.of());
+        assertTrue(manager.pollChanged().isEmpty());
+    }
+
+    @Test
+    void testResubscribingAndUnsubscribing() {
+        PreviewSubscriptionManager manager = new PreviewSubscriptionManager();
+        manager.subscribe(PLAYER, "world", ORIGIN, Set.of(ORIGIN));
+        manager.subscribe(PLAYER, "world", new BlockPosition(100, 64, 100), Set.of());
+
+        manager.notifyChanged("world", 14, 64, 0);
+        assertTrue(manager.pollChanged().isEmpty());
+
+        manager.notifyChanged("world", 100, 64, 100);
+        manager.unsubscribe(PLAYER);
+
+        assertFalse(manager.isSubscribed(PLAYER));
+        assertTrue(manager.pollChanged().isEmpty());
+    }
+
+}
@@ -0,0 +1,52 @@
+package wtf.choco.veinminer.manager;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.util.BlockPosition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VeinClaimManagerTest {
+
+    private static final BlockPosition ORIGIN = new BlockPosition(-20, -40, 300), OTHER_ORIGIN = new BlockPosition(-22, -40, 300);
+
+    @Test
+    void testClaimedPositionsLookUpTheirOrigin() {
+        VeinClaimManager manager = new VeinClaimManager();
+        List<BlockPosition> vein = List.of(ORIGIN, ORIGIN.offset(0, 1, 0), ORIGIN.offset(-1, 0, 0));
+
+        assertEquals(vein, manager.claim("world", ORIGIN, vein));
+        assertTrue(manager.isClaimed("world", -20, -39, 300));
+        assertEquals(ORIGIN, manager.getOrigin("world", -21, -40, 300));
+
+        assertFalse(manager.isClaimed("world", -20, -38, 300));
+        assertFalse(manager.isClaimed("world_nether", -20, -40, 300));
+        assertNull(manager.getOrigin("world_nether", -20, -40, 300));
+    }
+
+    @Test
+    void testPositionsAreOnlyClaimedByOneVein() {
+        VeinClaimManager manager = new VeinClaimManager();
+        manager.claim("world", ORIGIN, List.of(ORIGIN, ORIGIN.offset(-1, 0, 0)));
+
+        // The overlapping position is left to the first vein
+        List<BlockPosition> otherVein = List.of(OTHER_ORIGIN, OTHER_ORIGIN.offset(1, 0, 0), OTHER_ORIGIN.offset(0, 1, 0));
+        assertEquals(List.of(OTHER_ORIGIN, OTHER_ORIGIN.offset(0, 1, 0)), manager.claim("world", OTHER_ORIGIN, otherVein));
+        assertEquals(ORIGIN, manager.getOrigin("world", -21, -40, 300));
+
+        // Releasing the other vein does not release positions claimed by the first vein
+        manager.release("world", OTHER_ORIGIN, otherVein);
+        assertTrue(manager.isClaimed("world", -21, -40, 300));
+        assertFalse(manager.isClaimed("world", -22, -40, 300));
+
+        manager.release("world", ORIGIN, List.of(ORIGIN, ORIGIN.offset(-1, 0, 0)));
+        assertFalse(manager.isClaimed("world", -21, -40, 300));
+        assertFalse(manager.isClaimed("world", -20, -40, 300));
+    }
+
+}
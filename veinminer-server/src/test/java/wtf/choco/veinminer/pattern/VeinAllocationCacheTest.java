@@ -0,0 +1,144 @@
+package wtf.choco.veinminer.pattern;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.block.BlockList;
+import wtf.choco.veinminer.block.VeinMinerBlock;
+import wtf.choco.veinminer.config.VeinMiningConfig;
+import wtf.choco.veinminer.platform.world.BlockAccessor;
+import wtf.choco.veinminer.platform.world.BlockState;
+import wtf.choco.veinminer.platform.world.BlockType;
+import wtf.choco.veinminer.tool.VeinMinerToolCategory;
+import wtf.choco.veinminer.util.BlockFace;
+import wtf.choco.veinminer.util.BlockPosition;
+import wtf.choco.veinminer.util.NamespacedKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VeinAllocationCacheTest {
+
+    private static final BlockAccessor WORLD = new TestBlockAccessor("world");
+    private static final BlockPosition ORIGIN = new BlockPosition(15, 64, 0);
+    private static final VeinMinerToolCategory CATEGORY = new VeinMinerToolCategory("test", 1, null, new BlockList(), new VeinMiningConfig(), Set.of());
+
+    @Test
+    void testRepeatedAllocationsAreCached() {
+        VeinAllocationCache cache = new VeinAllocationCache(16, 1, TimeUnit.MINUTES);
+        CountingPattern pattern = new CountingPattern();
+
+        assertNull(cache.getIfPresent(pattern, "world", ORIGIN, BlockFace.UP, VeinMinerBlock.WILDCARD, CATEGORY));
+
+        Set<BlockPosition> first = allocate(cache, pattern, ORIGIN);
+        Set<BlockPosition> second = allocate(cache, pattern, ORIGIN);
+
+        assertEquals(1, pattern.allocations);
+        assertEquals(first, second);
+        assertNotNull(cache.getIfPresent(pattern, "world", ORIGIN, BlockFace.UP, VeinMinerBlock.WILDCARD, CATEGORY));
+
+        // Different origins are different veins
+        allocate(cache, pattern, ORIGIN.offset(0, 1, 0));
+        assertEquals(2, pattern.allocations);
+    }
+
+    @Test
+    void testInvalidateByChunk() {
+        VeinAllocationCache cache = new VeinAllocationCache(16, 1, TimeUnit.MINUTES);
+        CountingPattern pattern = new CountingPattern();
+
+        allocate(cache, pattern, ORIGIN);
+
+        // Unrelated chunks and worlds do not affect the vein
+        cache.invalidate("world", 5, 5);
+        cache.invalidate("world_nether", 0, 0);
+        allocate(cache, pattern, ORIGIN);
+        assertEquals(1, pattern.allocations);
+
+        // The vein ends at x = 16, so a block at x = 17 would extend it into chunk 1
+        cache.invalidate("world", 1, 0);
+        allocate(cache, pattern, ORIGIN);
+        assertEquals(2, pattern.allocations);
+
+        cache.invalidateAll("world");
+        allocate(cache, pattern, ORIGIN);
+        assertEquals(3, pattern.allocations);
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        VeinAllocationCache cache = new VeinAllocationCache(2, 1, TimeUnit.MINUTES);
+        CountingPattern pattern = new CountingPattern();
+        BlockPosition a = ORIGIN, b = ORIGIN.offset(0, 1, 0), c = ORIGIN.offset(0, 2, 0);
+
+        allocate(cache, pattern, a);
+        allocate(cache, pattern, b);
+        allocate(cache, pattern, a);
+        allocate(cache, pattern, c);
+
+        assertNotNull(cache.getIfPresent(pattern, "world", a, BlockFace.UP, VeinMinerBlock.WILDCARD, CATEGORY));
+        assertNull(cache.getIfPresent(pattern, "world", b, BlockFace.UP, VeinMinerBlock.WILDCARD, CATEGORY));
+    }
+
+    @Test
+    void testExpiredAllocationsAreRecomputed() {
+        VeinAllocationCache cache = new VeinAllocationCache(16, 0, TimeUnit.NANOSECONDS);
+        CountingPattern pattern = new CountingPattern();
+
+        allocate(cache, pattern, ORIGIN);
+        allocate(cache, pattern, ORIGIN);
+
+        assertEquals(2, pattern.allocations);
+    }
+
+    private static Set<BlockPosition> allocate(VeinAllocationCache cache, VeinMiningPattern pattern, BlockPosition origin) {
+        return cache.allocate(pattern, WORLD, origin, BlockFace.UP, VeinMinerBlock.WILDCARD, CATEGORY, null);
+    }
+
+    private static final class CountingPattern implements VeinMiningPattern {
+
+        private int allocations = 0;
+
+        @NotNull
+        @Override
+        public NamespacedKey getKey() {
+            return NamespacedKey.veinminer("counting");
+        }
+
+        @NotNull
+        @Override
+        public Set<BlockPosition> allocateBlocks(@NotNull BlockAccessor blockAccessor, @NotNull BlockPosition origin, @NotNull BlockFace destroyedFace, @NotNull VeinMinerBlock block, @NotNull VeinMiningConfig config, @Nullable BlockList aliasList) {
+            this.allocations++;
+            return Set.of(origin, origin.offset(1, 0, 0));
+        }
+
+    }
+
+    private static record TestBlockAccessor(String worldName) implements BlockAccessor {
+
+        @NotNull
+        @Override
+        public String getWorldName() {
+            return worldName;
+        }
+
+        @NotNull
+        @Override
+        public BlockType getType(int x, int y, int z) {
+            throw new UnsupportedOperationException();
+        }
+
+        @NotNull
+        @Override
+        public BlockState getState(int x, int y, int z) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package wtf.choco.veinminer.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.block.VeinMinerBlock;
+import wtf.choco.veinminer.config.VeinMiningConfig;
+import wtf.choco.veinminer.platform.world.BlockAccessor;
+import wtf.choco.veinminer.platform.world.BlockState;
+import wtf.choco.veinminer.platform.world.BlockType;
+import wtf.choco.veinminer.platform.world.TestBlockState;
+import wtf.choco.veinminer.platform.world.TestBlockType;
+import wtf.choco.veinminer.util.BlockFace;
+import wtf.choco.veinminer.util.BlockPosition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VeinMiningPatternDefaultTest {
+
+    private static final BlockType ORE = new TestBlockType("ore"), STONE = new TestBlockType("stone");
+    private static final VeinMinerBlock ORE_BLOCK = new TestVeinMinerBlock(ORE);
+
+    // A 4x4x4 cube of ore starting at (0, 0, 0) surrounded by stone
+    private static final BlockAccessor CUBE = new TestBlockAccessor() {
+
+        @NotNull
+        @Override
+        public BlockType getType(int x, int y, int z) {
+            return (x >= 0 && x < 4 && y >= 0 && y < 4 && z >= 0 && z < 4) ? ORE : STONE;
+        }
+
+    };
+
+    @Test
+    void testAllocateWholeVein() {
+        VeinMiningConfig config = VeinMiningConfig.builder().maxVeinSize(128).build();
+        Set<BlockPosition> positions = allocate(config);
+
+        assertEquals(64, positions.size());
+        assertTrue(positions.contains(new BlockPosition(0, 0, 0)), "the origin should be allocated");
+        assertTrue(positions.contains(new BlockPosition(3, 3, 3)));
+        assertFalse(positions.contains(new BlockPosition(4, 0, 0)));
+    }
+
+    @Test
+    void testAllocateRespectsMaxVeinSize() {
+        VeinMiningConfig config = VeinMiningConfig.builder().maxVeinSize(10).build();
+        assertEquals(10, allocate(config).size());
+    }
+
+    @Test
+    void testAllocateConcurrently() throws Exception {
+        VeinMiningConfig config = VeinMiningConfig.builder().maxVeinSize(48).build();
+        Set<BlockPosition> expected = allocate(config);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Set<BlockPosition>>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> allocate(config)));
+            }
+
+            for (Future<Set<BlockPosition>> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Set<BlockPosition> allocate(VeinMiningConfig config) {
+        return VeinMiningPatternDefault.getInstance().allocateBlocks(CUBE, new BlockPosition(0, 0, 0), BlockFace.UP, ORE_BLOCK, config);
+    }
+
+    private abstract static class TestBlockAccessor implements BlockAccessor {
+
+        @NotNull
+        @Override
+        public String getWorldName() {
+            return "world";
+        }
+
+        @NotNull
+        @Override
+        public BlockState getState(int x, int y, int z) {
+            return new TestBlockState(getType(x, y, z));
+        }
+
+    }
+
+    private static record TestVeinMinerBlock(BlockType type) implements VeinMinerBlock {
+
+        @NotNull
+        @Override
+        public BlockType getType() {
+            return type;
+        }
+
+        @NotNull
+        @Override
+        public BlockState getState() {
+            return new TestBlockState(type);
+        }
+
+        @Override
+        public boolean hasState() {
+            return false;
+        }
+
+        @Override
+        public boolean matchesType(@NotNull BlockType type) {
+            return this.type.equals(type);
+        }
+
+        @Override
+        public boolean matchesState(@NotNull BlockState state, boolean exact) {
+            return type.equals(state.getType());
+        }
+
+        @NotNull
+        @Override
+        public String toStateString() {
+            return type.getKey().toString();
+        }
+
+    }
+
+}
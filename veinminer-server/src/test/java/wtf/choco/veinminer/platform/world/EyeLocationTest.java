@@ -0,0 +1,98 @@
+package wtf.choco.veinminer.platform.world;
+
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.util.BlockFace;
+import wtf.choco.veinminer.util.BlockPosition;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EyeLocationTest {
+
+    private static final BlockPosition BLOCK = new BlockPosition(10, 64, -20);
+
+    private static final BlockType AIR = new TestBlockType("air"), STONE = new TestBlockType("stone"), GLASS = new TestBlockType("glass");
+
+    @Test
+    void testLookingAtFace() {
+        // Standing north of the block, looking south at it
+        EyeLocation eyes = new EyeLocation(10.5, 64.6, -22.5, 0, 0, 1);
+
+        assertTrue(eyes.canReach(BLOCK, BlockFace.NORTH, 6));
+        assertTrue(new EyeLocation(10.5, 66.1, -21.2, 0, -0.8, 0.6).canReach(BLOCK, BlockFace.UP, 6));
+    }
+
+    @Test
+    void testFaceBehindBlock() {
+        EyeLocation eyes = new EyeLocation(10.5, 64.6, -22.5, 0, 0, 1);
+
+        assertFalse(eyes.canReach(BLOCK, BlockFace.SOUTH, 6));
+        assertFalse(eyes.canReach(BLOCK, BlockFace.DOWN, 6));
+    }
+
+    @Test
+    void testOutOfReach() {
+        EyeLocation eyes = new EyeLocation(10.5, 64.6, -26.5, 0, 0, 1);
+
+        assertTrue(eyes.canReach(BLOCK, BlockFace.NORTH, 7));
+        assertFalse(eyes.canReach(BLOCK, BlockFace.NORTH, 6));
+    }
+
+    @Test
+    void testLookingAway() {
+        assertFalse(new EyeLocation(10.5, 64.6, -24.5, 0, 0, -1).canReach(BLOCK, BlockFace.NORTH, 6));
+        assertFalse(new EyeLocation(10.5, 64.6, -24.5, 1, 0, 0).canReach(BLOCK, BlockFace.NORTH, 6));
+        assertFalse(new EyeLocation(10.5, 64.6, -24.5, 0, 0, 0).canReach(BLOCK, BlockFace.NORTH, 6));
+    }
+
+    @Test
+    void testUnobstructedFace() {
+        EyeLocation eyes = new EyeLocation(10.5, 64.6, -23.5, 0, 0, 1);
+
+        assertFalse(eyes.isObstructed(new TestWorld(Map.of(BLOCK, STONE)), BLOCK, BlockFace.NORTH));
+        assertFalse(eyes.isObstructed(new TestWorld(Map.of(new BlockPosition(10, 64, -21), GLASS)), BLOCK, BlockFace.NORTH));
+
+        // Blocks beside the line of sight do not obstruct it
+        assertFalse(eyes.isObstructed(new TestWorld(Map.of(new BlockPosition(11, 64, -21), STONE, new BlockPosition(10, 65, -21), STONE)), BLOCK, BlockFace.NORTH));
+    }
+
+    @Test
+    void testObstructedFace() {
+        EyeLocation eyes = new EyeLocation(10.5, 64.6, -23.5, 0, 0, 1);
+
+        assertTrue(eyes.isObstructed(new TestWorld(Map.of(new BlockPosition(10, 64, -21), STONE)), BLOCK, BlockFace.NORTH));
+        assertTrue(eyes.isObstructed(new TestWorld(Map.of(new BlockPosition(10, 64, -22), STONE)), BLOCK, BlockFace.NORTH));
+
+        // Looking down at the top face past the edge of a block
+        EyeLocation above = new EyeLocation(10.5, 66.6, -22.5, 0, -0.6, 0.8);
+        assertFalse(above.isObstructed(new TestWorld(Map.of()), BLOCK, BlockFace.UP));
+        assertTrue(above.isObstructed(new TestWorld(Map.of(new BlockPosition(10, 65, -21), STONE)), BLOCK, BlockFace.UP));
+    }
+
+    private record TestWorld(@NotNull Map<BlockPosition, BlockType> blocks) implements BlockAccessor {
+
+        @NotNull
+        @Override
+        public String getWorldName() {
+            return "world";
+        }
+
+        @NotNull
+        @Override
+        public BlockType getType(int x, int y, int z) {
+            return blocks.getOrDefault(new BlockPosition(x, y, z), AIR);
+        }
+
+        @NotNull
+        @Override
+        public BlockState getState(int x, int y, int z) {
+            return new TestBlockState(getType(x, y, z));
+        }
+
+    }
+
+}
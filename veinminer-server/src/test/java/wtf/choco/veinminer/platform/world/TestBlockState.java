@@ -0,0 +1,70 @@
+package wtf.choco.veinminer.platform.world;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link BlockState} for use in tests. A state matches another state of the same type if
+ * the other state specifies no states, or exactly the same states.
+ *
+ * @param type the type of the state
+ * @param states the state string, or an empty string if unspecified
+ * @param id the interned id of the state, or -1 if not interned
+ */
+public record TestBlockState(@NotNull BlockType type, @NotNull String states, int id) implements BlockState {
+
+    /**
+     * Construct a new {@link TestBlockState} with the given states that is not interned.
+     *
+     * @param type the type of the state
+     * @param states the state string, or an empty string if unspecified
+     */
+    public TestBlockState(@NotNull BlockType type, @NotNull String states) {
+        this(type, states, -1);
+    }
+
+    /**
+     * Construct a new {@link TestBlockState} with no states and the given interned id.
+     *
+     * @param type the type of the state
+     * @param id the interned id of the state, or -1 if not interned
+     */
+    public TestBlockState(@NotNull BlockType type, int id) {
+        this(type, "", id);
+    }
+
+    /**
+     * Construct a new {@link TestBlockState} with no states that is not interned.
+     *
+     * @param type the type of the state
+     */
+    public TestBlockState(@NotNull BlockType type) {
+        this(type, "", -1);
+    }
+
+    @NotNull
+    @Override
+    public BlockType getType() {
+        return type;
+    }
+
+    @NotNull
+    @Override
+    public String getAsString(boolean hideUnspecified) {
+        return states.isEmpty() ? type.getKey().toString() : type.getKey() + "[" + states + "]";
+    }
+
+    @Override
+    public boolean matches(@NotNull BlockState state) {
+        if (!(state instanceof TestBlockState other)) {
+            return type.equals(state.getType());
+        }
+
+        return type.equals(other.type) && (other.states.isEmpty() || states.equals(other.states));
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+}
@@ -0,0 +1,31 @@
+package wtf.choco.veinminer.platform.world;
+
+import org.jetbrains.annotations.NotNull;
+
+import wtf.choco.veinminer.util.NamespacedKey;
+
+/**
+ * A {@link BlockType} in the minecraft namespace for use in tests.
+ *
+ * @param name the key of the type
+ */
+public record TestBlockType(@NotNull String name) implements BlockType {
+
+    @NotNull
+    @Override
+    public NamespacedKey getKey() {
+        return NamespacedKey.minecraft(name);
+    }
+
+    @NotNull
+    @Override
+    public BlockState createBlockState(@NotNull String states) {
+        return new TestBlockState(this, states);
+    }
+
+    @Override
+    public boolean isOccluding() {
+        return !name.endsWith("air") && !name.endsWith("glass");
+    }
+
+}
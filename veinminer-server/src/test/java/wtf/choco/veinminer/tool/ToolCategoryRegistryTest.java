@@ -0,0 +1,131 @@
+package wtf.choco.veinminer.tool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import wtf.choco.veinminer.block.BlockList;
+import wtf.choco.veinminer.config.VeinMiningConfig;
+import wtf.choco.veinminer.platform.world.ItemType;
+import wtf.choco.veinminer.util.NamespacedKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolCategoryRegistryTest {
+
+    private static final ItemType AIR = new TestItemType("air"), PICKAXE = new TestItemType("diamond_pickaxe"), SHOVEL = new TestItemType("diamond_shovel");
+
+    @Test
+    void testHighestPriorityCategoryIsReturned() {
+        ToolCategoryRegistry registry = new ToolCategoryRegistry();
+        VeinMinerToolCategory low = category("low", 1, PICKAXE), high = category("high", 5, PICKAXE), other = category("other", 10, SHOVEL);
+        registry.register(low);
+        registry.register(high);
+        registry.register(other);
+
+        assertSame(high, registry.get(PICKAXE));
+        assertEquals(List.of(high, low), registry.getCategoriesContaining(PICKAXE));
+    }
+
+    @Test
+    void testPredicateIsOnlyTestedOnCandidatesInPriorityOrder() {
+        ToolCategoryRegistry registry = new ToolCategoryRegistry();
+        VeinMinerToolCategory low = category("low", 1, PICKAXE), high = category("high", 5, PICKAXE);
+        registry.register(low);
+        registry.register(high);
+        registry.register(category("other", 10, SHOVEL));
+
+        List<VeinMinerToolCategory> tested = new ArrayList<>();
+        VeinMinerToolCategory result = registry.get(PICKAXE, category -> {
+            tested.add(category);
+            return category == low;
+        });
+
+        assertSame(low, result);
+        assertEquals(List.of(high, low), tested);
+        assertNull(registry.get(PICKAXE, category -> false));
+    }
+
+    @Test
+    void testIndexIsInvalidatedOnChange() {
+        ToolCategoryRegistry registry = new ToolCategoryRegistry();
+        VeinMinerToolCategory pickaxe = category("pickaxe", 1, PICKAXE);
+        registry.register(pickaxe);
+
+        assertNull(registry.get(SHOVEL));
+
+        pickaxe.addItem(SHOVEL);
+        assertSame(pickaxe, registry.get(SHOVEL));
+
+        VeinMinerToolCategory shovel = category("shovel", 2, SHOVEL);
+        registry.register(shovel);
+        assertSame(shovel, registry.get(SHOVEL));
+
+        registry.unregister(shovel);
+        pickaxe.removeItem(SHOVEL);
+        assertNull(registry.get(SHOVEL));
+
+        registry.unregisterAll();
+        assertTrue(registry.getCategoriesContaining(PICKAXE).isEmpty());
+    }
+
+    @Test
+    void testCategoriesAreIndexed() {
+        ToolCategoryRegistry registry = new ToolCategoryRegistry();
+        VeinMinerToolCategory pickaxe = category("pickaxe", 1, PICKAXE), shovel = category("shovel", 1, SHOVEL);
+        int revision = registry.getRevision();
+
+        registry.register(pickaxe);
+        registry.register(shovel);
+        assertEquals(0, pickaxe.getIndex());
+        assertEquals(1, shovel.getIndex());
+        assertNotEquals(revision, registry.getRevision());
+
+        // A category replacing another of the same id takes its index
+        VeinMinerToolCategory replacement = category("pickaxe", 2, PICKAXE);
+        registry.register(replacement);
+        assertEquals(0, replacement.getIndex());
+        assertEquals(-1, pickaxe.getIndex());
+
+        revision = registry.getRevision();
+        registry.unregister(shovel);
+        assertEquals(-1, shovel.getIndex());
+        assertNotEquals(revision, registry.getRevision());
+
+        registry.unregisterAll();
+        registry.register(shovel);
+        assertEquals(0, shovel.getIndex());
+    }
+
+    @Test
+    void testHandCategoryContainsAir() {
+        ToolCategoryRegistry registry = new ToolCategoryRegistry();
+        VeinMinerToolCategory hand = new VeinMinerToolCategoryHand(new BlockList(), new VeinMiningConfig());
+        registry.register(hand);
+
+        assertSame(hand, registry.get(AIR));
+        assertNull(registry.get(PICKAXE));
+    }
+
+    private static VeinMinerToolCategory category(String id, int priority, ItemType item) {
+        return new VeinMinerToolCategory(id, priority, null, new BlockList(), new VeinMiningConfig(), Set.of(item));
+    }
+
+    private static record TestItemType(String name) implements ItemType {
+
+        @NotNull
+        @Override
+        public NamespacedKey getKey() {
+            return NamespacedKey.minecraft(name);
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package wtf.choco.veinminer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertTrue(bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0));
+        assertFalse(bucket.tryConsume(0));
+    }
+
+    @Test
+    void testRefill() {
+        TokenBucket bucket = new TokenBucket(2, 4, 0);
+
+        assertTrue(bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0));
+        assertFalse(bucket.tryConsume(SECOND / 8)); // Half a token
+
+        assertTrue(bucket.tryConsume(SECOND / 4));
+        assertFalse(bucket.tryConsume(SECOND / 4));
+    }
+
+    @Test
+    void testRefillDoesNotExceedCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 100, 0);
+
+        long now = 60 * SECOND;
+        assertTrue(bucket.tryConsume(now));
+        assertTrue(bucket.tryConsume(now));
+        assertFalse(bucket.tryConsume(now));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+    }
+
+}